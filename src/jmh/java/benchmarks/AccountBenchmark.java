@@ -0,0 +1,70 @@
+package benchmarks;
+
+import bank.BankOptions;
+import bank.PrivateBank;
+import bank.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lesende Zugriffe auf ein Konto: Kontostand, sortierte Liste und Filter nach Vorzeichen.
+ * Das Konto liegt vollständig im Speicher.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountBenchmark {
+
+    /** Transaktionen im Konto */
+    @Param({"10", "1000", "100000", "1000000"})
+    public int transactions;
+
+    /** Spaltenweiser Transaktionsspeicher statt Objekten */
+    @Param({"false", "true"})
+    public boolean columnar;
+
+    private Path directory;
+    private PrivateBank bank;
+    private String account;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BankOptions options = new BankOptions();
+        options.setColumnarStorage(columnar);
+        directory = BenchmarkData.directory();
+        bank = BenchmarkData.bank(directory, options, 1, transactions);
+        account = BenchmarkData.account(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        bank.close();
+        BenchmarkData.delete(directory);
+    }
+
+    @Benchmark
+    public double getAccountBalance() {
+        return bank.getAccountBalance(account);
+    }
+
+    @Benchmark
+    public List<Transaction> getTransactionsSortedAscending() {
+        return bank.getTransactionsSorted(account, true);
+    }
+
+    @Benchmark
+    public List<Transaction> getTransactionsSortedDescending() {
+        return bank.getTransactionsSorted(account, false);
+    }
+
+    @Benchmark
+    public List<Transaction> getTransactionsByType() {
+        return bank.getTransactionsByType(account, true);
+    }
+}
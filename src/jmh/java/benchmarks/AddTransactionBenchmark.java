@@ -0,0 +1,59 @@
+package benchmarks;
+
+import bank.BankOptions;
+import bank.PrivateBank;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PrivateBank#addTransaction} auf einem Konto mit vorgegebener Größe: Duplikatprüfung
+ * plus Persistenz ({@code EVERY_WRITE}), einmal mit vollständigem Neuschreiben der Kontodatei
+ * und einmal mit Journal.
+ * <p>
+ * Das Konto wird vor jeder Iteration neu angelegt, damit es während der Messung nur um die
+ * Aufrufe einer Iteration wächst.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddTransactionBenchmark {
+
+    /** Transaktionen im Konto vor der Iteration */
+    @Param({"10", "1000", "100000", "1000000"})
+    public int transactions;
+
+    /** Änderungen ans Journal anhängen statt die Kontodatei neu zu schreiben */
+    @Param({"true", "false"})
+    public boolean journaling;
+
+    private Path directory;
+    private PrivateBank bank;
+    private String account;
+    private long next;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        BankOptions options = new BankOptions();
+        options.setJournaling(journaling);
+        directory = BenchmarkData.directory();
+        bank = BenchmarkData.bank(directory, options, 1, transactions);
+        account = BenchmarkData.account(0);
+        next = transactions;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws Exception {
+        bank.close();
+        BenchmarkData.delete(directory);
+    }
+
+    @Benchmark
+    public void addTransaction() throws Exception {
+        bank.addTransaction(account, BenchmarkData.transaction(account, next++));
+    }
+}
@@ -0,0 +1,98 @@
+package benchmarks;
+
+import bank.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Testdaten und Verzeichnisse für die Benchmarks.
+ * <p>
+ * Die erzeugten Konten mischen Zahlungen (Ein- und Auszahlungen) mit ein- und ausgehenden
+ * Überweisungen; Datum und Beschreibung wiederholen sich wie in echten Konten, die
+ * Kombination ist aber je Transaktion eindeutig.
+ */
+final class BenchmarkData {
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @param account Kontoname, der als Sender bzw. Empfänger der Überweisungen eingetragen wird
+     * @param count   Anzahl Transaktionen
+     * @return eindeutige Transaktionen in Datumsreihenfolge
+     */
+    static List<Transaction> transactions(String account, int count) {
+        List<Transaction> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) list.add(transaction(account, i));
+        return list;
+    }
+
+    /**
+     * @param account Kontoname
+     * @param i       laufende Nummer
+     * @return die {@code i}-te Transaktion des Kontos
+     */
+    static Transaction transaction(String account, long i) {
+        String date = START.plusDays(i / 8).format(FORMAT);
+        double amount = 10 + (i * 37) % 990;
+        String description = "Buchung " + i;
+        return switch ((int) (i % 4)) {
+            case 0 -> new Payment(date, amount, description, 0, 0);
+            case 1 -> new Payment(date, -amount, description, 0, 0);
+            case 2 -> new IncomingTransfer(date, amount, description, "Partner " + (i % 50), account);
+            default -> new OutgoingTransfer(date, amount, description, account, "Partner " + (i % 50));
+        };
+    }
+
+    /** @return neues, leeres temporäres Verzeichnis */
+    static Path directory() throws IOException {
+        return Files.createTempDirectory("privatebank-jmh");
+    }
+
+    /**
+     * Legt eine Bank im angegebenen Verzeichnis an und befüllt sie.
+     *
+     * @param directory    Verzeichnis der Kontodateien
+     * @param options      Konfiguration der Bank
+     * @param accounts     Anzahl Konten
+     * @param transactions Transaktionen je Konto
+     * @return befüllte Bank
+     */
+    static PrivateBank bank(Path directory, BankOptions options, int accounts, int transactions) throws Exception {
+        PrivateBank bank = new PrivateBank("Benchmark", 0.05, 0.1, directory.toString(), options);
+        for (int a = 0; a < accounts; a++) {
+            String account = account(a);
+            bank.createAccount(account, transactions(account, transactions));
+        }
+        bank.flush();
+        return bank;
+    }
+
+    /** @return Name des {@code i}-ten Kontos */
+    static String account(int i) {
+        return "Konto" + i;
+    }
+
+    /**
+     * Löscht ein Verzeichnis samt Inhalt.
+     *
+     * @param directory Verzeichnis
+     */
+    static void delete(Path directory) throws IOException {
+        if (!Files.exists(directory)) return;
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+        }
+    }
+}
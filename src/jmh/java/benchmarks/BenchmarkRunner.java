@@ -0,0 +1,33 @@
+package benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Einstiegspunkt des Benchmark-Jars. Nimmt dieselben Argumente wie {@code org.openjdk.jmh.Main}
+ * (z.B. {@code AccountBenchmark -p transactions=1000}) und schaltet den GC-Profiler ein,
+ * damit jede Messung auch die Allokationsrate ({@code gc.alloc.rate.norm}) ausweist.
+ * Wer eigene Profiler mit {@code -prof} angibt, bekommt nur diese.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListProfilers()) {
+            Main.main(args);
+            return;
+        }
+
+        // eigene -prof-Angaben haben Vorrang
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+        if (cmd.getProfilers().isEmpty()) options.addProfiler(GCProfiler.class);
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import bank.BankOptions;
+import bank.PrivateBank;
+import bank.StorageFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kaltstart: eine neue {@link PrivateBank} liest ein vorbereitetes Verzeichnis ein
+ * ({@code readAccounts}). Gemessen wird das vollständige Einlesen, nicht das Laden bei Bedarf.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColdStartBenchmark {
+
+    /** Anzahl Konten im Verzeichnis */
+    @Param({"1", "100", "1000"})
+    public int accounts;
+
+    /** Transaktionen je Konto */
+    @Param({"10", "1000", "10000"})
+    public int transactions;
+
+    /** Format der Snapshot-Dateien */
+    @Param({"JSON", "BINARY"})
+    public StorageFormat format;
+
+    private Path directory;
+    private BankOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        options = new BankOptions();
+        options.setStorageFormat(format);
+        directory = BenchmarkData.directory();
+        BenchmarkData.bank(directory, options, accounts, transactions).close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkData.delete(directory);
+    }
+
+    @Benchmark
+    public PrivateBank readAccounts() throws Exception {
+        PrivateBank bank = new PrivateBank("Benchmark", 0.05, 0.1, directory.toString(), options);
+        bank.close();
+        return bank;
+    }
+}
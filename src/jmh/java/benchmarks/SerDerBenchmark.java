@@ -0,0 +1,76 @@
+package benchmarks;
+
+import bank.Transaction;
+import bank.TransactionSerDer;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schreiben und Lesen eines Kontos im JSON-Format der Kontodateien über
+ * {@link TransactionSerDer}, ohne Dateisystem.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerDerBenchmark {
+
+    /** Transaktionen im Konto */
+    @Param({"10", "1000", "100000", "1000000"})
+    public int transactions;
+
+    private final TransactionSerDer serDer = new TransactionSerDer();
+    private List<Transaction> list;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        list = BenchmarkData.transactions("Konto0", transactions);
+        json = write(list);
+    }
+
+    @Benchmark
+    public String serialize() throws IOException {
+        return write(list);
+    }
+
+    @Benchmark
+    public List<Transaction> deserialize() throws IOException {
+        return read(json);
+    }
+
+    @Benchmark
+    public List<Transaction> roundTrip() throws IOException {
+        return read(write(list));
+    }
+
+    private String write(List<Transaction> transactions) throws IOException {
+        StringWriter buffer = new StringWriter();
+        try (JsonWriter out = new JsonWriter(buffer)) {
+            out.beginArray();
+            for (Transaction t : transactions) serDer.write(out, t);
+            out.endArray();
+        }
+        return buffer.toString();
+    }
+
+    private List<Transaction> read(String s) throws IOException {
+        List<Transaction> result = new ArrayList<>(transactions);
+        try (JsonReader in = new JsonReader(new StringReader(s))) {
+            in.beginArray();
+            while (in.hasNext()) result.add(serDer.read(in));
+            in.endArray();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import bank.BankOptions;
+import bank.PrivateBank;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link PrivateBank#transfer} zwischen disjunkten Kontenpaaren: jeder Thread bucht nur
+ * zwischen seinen eigenen zwei Konten, gemeinsam ist nur das Umbuchungsprotokoll. Der
+ * Durchsatz mit {@code -t 1} und mit mehreren Threads (Standard 8) zeigt, wie weit
+ * Umbuchungen verschiedener Paare parallel laufen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class TransferBenchmark {
+
+    /** Höchstens so viele Threads bekommen ein eigenes Kontenpaar */
+    static final int PAIRS = 64;
+
+    /** Änderungen ans Journal anhängen statt die Kontodateien neu zu schreiben */
+    @Param({"true", "false"})
+    public boolean journaling;
+
+    private Path directory;
+    private PrivateBank bank;
+
+    /** Kontenpaar eines Threads */
+    @State(Scope.Thread)
+    public static class Pair {
+
+        private static final AtomicInteger NEXT = new AtomicInteger();
+
+        private String from;
+        private String to;
+        private long next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            int pair = NEXT.getAndIncrement() % PAIRS;
+            from = BenchmarkData.account(2 * pair);
+            to = BenchmarkData.account(2 * pair + 1);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        BankOptions options = new BankOptions();
+        options.setJournaling(journaling);
+        directory = BenchmarkData.directory();
+        bank = BenchmarkData.bank(directory, options, 2 * PAIRS, 0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws Exception {
+        bank.close();
+        BenchmarkData.delete(directory);
+    }
+
+    @Benchmark
+    public void transfer(Pair pair) throws Exception {
+        bank.transfer(pair.from, pair.to, 1, "01.01.2025", "Umbuchung " + pair.next++);
+    }
+}
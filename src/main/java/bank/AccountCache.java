@@ -0,0 +1,115 @@
+package bank;
+
+import java.util.*;
+
+/**
+ * Führt Buch über die eingelesenen Konten einer {@link PrivateBank} in der Reihenfolge ihres
+ * letzten Zugriffs und wählt bei Überschreiten der Grenzen die am längsten nicht benutzten
+ * Konten zum Auslagern aus.
+ * <p>
+ * Die Klasse hält selbst keine Transaktionen, sondern nur Kontonamen und deren geschätzten
+ * Speicherbedarf. Das eigentliche Schreiben und Freigeben übernimmt die Bank.
+ */
+class AccountCache {
+
+    private final int maxAccounts;
+    private final long maxBytes;
+
+    /** Eingelesene Konten mit geschätzten Bytes, älteste Zugriffe zuerst */
+    private final LinkedHashMap<String, Long> resident = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxAccounts höchstens eingelesene Konten (0 = unbegrenzt)
+     * @param maxBytes    höchstens geschätzte Bytes aller eingelesenen Konten (0 = unbegrenzt)
+     */
+    AccountCache(int maxAccounts, long maxBytes) {
+        this.maxAccounts = maxAccounts;
+        this.maxBytes = maxBytes;
+    }
+
+    /** @return {@code true}, wenn eine der beiden Grenzen gesetzt ist */
+    boolean isBounded() {
+        return maxAccounts > 0 || maxBytes > 0;
+    }
+
+    /**
+     * Vermerkt einen Zugriff auf ein eingelesenes Konto.
+     *
+     * @param account Kontoname
+     * @param bytes   aktueller geschätzter Speicherbedarf des Kontos
+     * @param miss    {@code true}, wenn das Konto für diesen Zugriff erst eingelesen wurde
+     */
+    synchronized void access(String account, long bytes, boolean miss) {
+        if (miss) misses++;
+        else hits++;
+
+        Long previous = resident.put(account, bytes);
+        residentBytes += bytes - (previous == null ? 0 : previous);
+    }
+
+    /**
+     * Nimmt ein eingelesenes Konto auf, ohne einen Zugriff zu zählen, z.B. beim Anlegen.
+     *
+     * @param account Kontoname
+     * @param bytes   geschätzter Speicherbedarf des Kontos
+     */
+    synchronized void register(String account, long bytes) {
+        Long previous = resident.put(account, bytes);
+        residentBytes += bytes - (previous == null ? 0 : previous);
+    }
+
+    /**
+     * Entfernt ein Konto aus der Buchführung, z.B. nach dem Löschen.
+     *
+     * @param account Kontoname
+     */
+    synchronized void remove(String account) {
+        Long bytes = resident.remove(account);
+        if (bytes != null) residentBytes -= bytes;
+    }
+
+    /**
+     * Vermerkt, dass ein Konto ausgelagert wurde.
+     *
+     * @param account Kontoname
+     */
+    synchronized void evicted(String account) {
+        remove(account);
+        evictions++;
+    }
+
+    /**
+     * Wählt die am längsten nicht benutzten Konten aus, nach deren Auslagern beide Grenzen
+     * wieder eingehalten sind. Das zuletzt benutzte Konto bleibt immer eingelesen.
+     *
+     * @return auszulagernde Konten, älteste zuerst
+     */
+    synchronized List<String> evictionCandidates() {
+        List<String> candidates = new ArrayList<>();
+        int count = resident.size();
+        long bytes = residentBytes;
+
+        Iterator<Map.Entry<String, Long>> it = resident.entrySet().iterator();
+        while (count > 1 && exceeds(count, bytes) && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            candidates.add(eldest.getKey());
+            count--;
+            bytes -= eldest.getValue();
+        }
+        return candidates;
+    }
+
+    private boolean exceeds(int count, long bytes) {
+        return (maxAccounts > 0 && count > maxAccounts) || (maxBytes > 0 && bytes > maxBytes);
+    }
+
+    /** @return Momentaufnahme der Zähler */
+    synchronized AccountCacheStatistics statistics() {
+        return new AccountCacheStatistics(hits, misses, evictions, resident.size(), residentBytes);
+    }
+}
@@ -0,0 +1,14 @@
+package bank;
+
+/**
+ * Zähler des Kontospeichers einer {@link PrivateBank}, siehe
+ * {@link BankOptions#setMaxResidentAccounts(int)} und {@link BankOptions#setMaxResidentBytes(long)}.
+ *
+ * @param hits             Zugriffe auf bereits eingelesene Konten
+ * @param misses           Zugriffe, für die ein Konto erst eingelesen werden musste
+ * @param evictions        ausgelagerte Konten
+ * @param residentAccounts aktuell eingelesene Konten
+ * @param residentBytes    geschätzter Speicherbedarf der eingelesenen Konten in Bytes
+ */
+public record AccountCacheStatistics(long hits, long misses, long evictions, int residentAccounts, long residentBytes) {
+}
@@ -0,0 +1,45 @@
+package bank;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Gemeinsame Felder der Java-Flight-Recorder-Ereignisse einer {@link PrivateBank}.
+ * <p>
+ * Die Ereignisse werden nach dem üblichen Muster erzeugt: {@link #begin()} vor der Arbeit,
+ * {@link #commit(String, int, long)} danach. Ohne laufende Aufzeichnung kostet das nur das
+ * Erzeugen des (meist wegoptimierten) Objekts; die Felder werden erst gesetzt, wenn das
+ * Ereignis tatsächlich geschrieben wird.
+ */
+@Category("PrivateBank")
+abstract class AccountEvent extends Event {
+
+    @Label("Account")
+    String account;
+
+    @Label("Transactions")
+    int transactions;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    /**
+     * Beendet das Ereignis und schreibt es, falls es aufgezeichnet wird und die
+     * eingestellte Mindestdauer erreicht.
+     *
+     * @param account      Kontoname
+     * @param transactions Anzahl der betroffenen Transaktionen
+     * @param bytes        betroffene Bytes, siehe Beschreibung des Ereignisses
+     */
+    void commit(String account, int transactions, long bytes) {
+        end();
+        if (!shouldCommit()) return;
+        this.account = account;
+        this.transactions = transactions;
+        this.bytes = bytes;
+        commit();
+    }
+}
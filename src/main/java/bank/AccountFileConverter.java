@@ -0,0 +1,66 @@
+package bank;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Wandelt die Snapshot-Dateien eines Kontoverzeichnisses zwischen JSON
+ * ({@code Konto_<account>.json}) und dem Binärformat ({@code Konto_<account>.bin}) um.
+ * Journale bleiben unverändert, sie sind vom Format der Snapshots unabhängig.
+ * <p>
+ * Aufruf: {@code java bank.AccountFileConverter <json|binary> <verzeichnis>}
+ * <p>
+ * Die Bank darf während der Umwandlung nicht auf das Verzeichnis zugreifen.
+ */
+public class AccountFileConverter {
+
+    private AccountFileConverter() {
+    }
+
+    /**
+     * Wandelt alle Snapshots des Verzeichnisses in das Zielformat um. Die neue Datei wird
+     * vollständig geschrieben, bevor die alte gelöscht wird.
+     *
+     * @param directory Kontoverzeichnis
+     * @param target    Zielformat
+     * @return Anzahl der umgewandelten Konten
+     * @throws IOException wenn eine Datei nicht gelesen oder geschrieben werden kann
+     */
+    public static int convert(Path directory, StorageFormat target) throws IOException {
+        AccountSnapshots json = new AccountSnapshots(directory);
+        AccountSnapshots binary = new BinaryAccountSnapshots(directory);
+        AccountSnapshots from = target == StorageFormat.BINARY ? json : binary;
+        AccountSnapshots to = target == StorageFormat.BINARY ? binary : json;
+
+        List<String> accounts = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "Konto_*" + from.suffix())) {
+            for (Path file : stream) {
+                String fileName = file.getFileName().toString();
+                accounts.add(fileName.substring("Konto_".length(), fileName.length() - from.suffix().length()));
+            }
+        }
+        Collections.sort(accounts);
+
+        for (String account : accounts) {
+            to.write(account, from.read(account));
+            from.delete(account);
+        }
+        return accounts.size();
+    }
+
+    /**
+     * @param args Zielformat ({@code json} oder {@code binary}) und Kontoverzeichnis
+     * @throws IOException wenn eine Datei nicht gelesen oder geschrieben werden kann
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Aufruf: java bank.AccountFileConverter <json|binary> <verzeichnis>");
+            System.exit(1);
+        }
+
+        StorageFormat target = StorageFormat.valueOf(args[0].toUpperCase(Locale.ROOT));
+        int count = convert(Paths.get(args[1]), target);
+        System.out.println(count + " Konten nach " + target + " umgewandelt");
+    }
+}
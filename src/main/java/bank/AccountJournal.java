@@ -0,0 +1,223 @@
+package bank;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only Journal für die Änderungen eines Kontos.
+ * <p>
+ * Jede Änderung wird als eine JSON-Zeile in {@code Konto_<account>.journal} angehängt,
+ * z.B. {@code {"op":"ADD","transaction":{...}}}. Beim Laden wird das Journal in
+ * Schreibreihenfolge über den Snapshot {@code Konto_<account>.json} abgespielt.
+ * <p>
+ * Alle Dateizugriffe eines Kontos (Journal und Snapshot) werden über {@link #lock(String)}
+ * serialisiert, damit die Hintergrund-Kompaktierung nicht mit Schreibzugriffen kollidiert.
+ */
+class AccountJournal {
+
+    /** Dateiendung der Journal-Dateien */
+    static final String SUFFIX = ".journal";
+
+    /** Art einer protokollierten Änderung */
+    enum Operation { ADD, REMOVE }
+
+    /**
+     * Ein Journal-Eintrag.
+     *
+     * @param operation   Art der Änderung
+     * @param transaction betroffene Transaktion
+     */
+    record Record(Operation operation, Transaction transaction) { }
+
+    private final Path directory;
+    private final TransactionSerDer serDer;
+
+    /** Sperrobjekt je Konto für alle Dateizugriffe */
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    /** Anzahl der Einträge je Konto seit dem letzten Snapshot */
+    private final Map<String, Integer> recordCounts = new ConcurrentHashMap<>();
+
+    /**
+     * @param directory Verzeichnis, in dem die Kontodateien liegen
+     */
+    AccountJournal(Path directory) {
+        this(directory, null);
+    }
+
+    /**
+     * @param directory Verzeichnis, in dem die Kontodateien liegen
+     * @param pool      Pool für die gelesenen Zeichenketten, {@code null} für keinen
+     */
+    AccountJournal(Path directory, StringPool pool) {
+        this.directory = directory;
+        this.serDer = new TransactionSerDer(pool);
+    }
+
+    /**
+     * @param account Kontoname
+     * @return Pfad der Journal-Datei des Kontos
+     */
+    Path path(String account) {
+        return directory.resolve("Konto_" + account + SUFFIX);
+    }
+
+    /**
+     * @param account Kontoname
+     * @return Sperrobjekt, über das alle Dateizugriffe des Kontos synchronisiert werden
+     */
+    Object lock(String account) {
+        return locks.computeIfAbsent(account, a -> new Object());
+    }
+
+    /**
+     * @param account Kontoname
+     * @return Anzahl der Journal-Einträge seit dem letzten Snapshot
+     */
+    int recordCount(String account) {
+        return recordCounts.getOrDefault(account, 0);
+    }
+
+    /**
+     * @return Konten, deren Journal seit dem letzten Snapshot Einträge enthält
+     */
+    Set<String> accountsWithRecords() {
+        return new TreeSet<>(recordCounts.keySet());
+    }
+
+    /**
+     * Hängt Einträge in der übergebenen Reihenfolge mit einem einzigen Schreibvorgang an.
+     *
+     * @param account Kontoname
+     * @param records anzuhängende Einträge
+     * @return Anzahl der angehängten Bytes
+     * @throws IOException wenn das Journal nicht geschrieben werden kann
+     */
+    long append(String account, List<Record> records) throws IOException {
+        if (records.isEmpty()) return 0;
+
+        synchronized (lock(account)) {
+            Path file = path(account);
+            long before = Files.exists(file) ? Files.size(file) : 0;
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (Record record : records) writeRecord(writer, record.operation(), record.transaction());
+            }
+            recordCounts.merge(account, records.size(), Integer::sum);
+            return Files.size(file) - before;
+        }
+    }
+
+    /**
+     * Schreibt einen Eintrag als eine JSON-Zeile.
+     */
+    private void writeRecord(Writer writer, Operation operation, Transaction transaction) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.beginObject();
+        json.name("op").value(operation.name());
+        json.name("transaction");
+        serDer.write(json, transaction);
+        json.endObject();
+        json.flush();
+        writer.write('\n');
+    }
+
+    /**
+     * Spielt das Journal des Kontos über die übergebene Liste ab. Das Abspielen ist
+     * idempotent: bereits vorhandene Transaktionen werden nicht doppelt hinzugefügt und
+     * fehlende Transaktionen beim Entfernen ignoriert. Ungültige Einträge, etwa ein nach
+     * einem Absturz unvollständig geschriebener letzter Eintrag, werden übersprungen.
+     *
+     * @param account      Kontoname
+     * @param transactions Transaktionen aus dem Snapshot, werden in-place aktualisiert;
+     *                     für große Konten sollte eine Menge übergeben werden
+     * @return Anzahl der gelesenen Einträge
+     * @throws IOException wenn das Journal nicht gelesen werden kann
+     */
+    int replay(String account, Collection<Transaction> transactions) throws IOException {
+        synchronized (lock(account)) {
+            int records = replayFile(account, transactions);
+            if (records > 0) recordCounts.put(account, records);
+            return records;
+        }
+    }
+
+    private int replayFile(String account, Collection<Transaction> transactions) throws IOException {
+        Path file = path(account);
+        if (!Files.exists(file)) return 0;
+
+        int records = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+
+                Operation operation = null;
+                Transaction transaction = null;
+                try {
+                    JsonReader json = new JsonReader(new StringReader(line));
+                    json.beginObject();
+                    while (json.hasNext()) {
+                        switch (json.nextName()) {
+                            case "op" -> operation = Operation.valueOf(json.nextString());
+                            case "transaction" -> transaction = serDer.read(json);
+                            default -> json.skipValue();
+                        }
+                    }
+                    json.endObject();
+                    if (operation == null || transaction == null)
+                        throw new JsonParseException("Eintrag ohne op oder transaction");
+                } catch (IOException | JsonParseException | IllegalStateException | IllegalArgumentException e) {
+                    System.out.println("Ungültiger Eintrag in " + file.getFileName() + " übersprungen: " + e.getMessage());
+                    continue;
+                }
+
+                if (operation == Operation.ADD) {
+                    if (!transactions.contains(transaction)) transactions.add(transaction);
+                } else {
+                    transactions.remove(transaction);
+                }
+                records++;
+            }
+        }
+        terminateLastLine(file);
+        return records;
+    }
+
+    /**
+     * Schließt eine unvollständige letzte Zeile ab, damit der nächste angehängte Eintrag
+     * nicht mit ihr verschmilzt.
+     */
+    static void terminateLastLine(Path file) throws IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size == 0) return;
+
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(size - 1).read(last);
+            if (last.get(0) != '\n') {
+                channel.position(size).write(ByteBuffer.wrap(new byte[]{'\n'}));
+            }
+        }
+    }
+
+    /**
+     * Verwirft das Journal des Kontos, z.B. nachdem ein vollständiger Snapshot geschrieben wurde.
+     *
+     * @param account Kontoname
+     * @throws IOException wenn die Datei nicht gelöscht werden kann
+     */
+    void reset(String account) throws IOException {
+        synchronized (lock(account)) {
+            Files.deleteIfExists(path(account));
+            recordCounts.remove(account);
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package bank;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Transaktionen eines Kontos in Einfügereihenfolge.
+ * <p>
+ * Die Transaktionen liegen in einem {@link TransactionStore}: standardmäßig als Objekte im
+ * {@link HashTransactionStore}, mit {@link BankOptions#setColumnarStorage(boolean)} spaltenweise
+ * im {@link ColumnarTransactionStore}. Beide bieten Duplikatprüfung, Einfügen und Entfernen
+ * über einen Hash-Index; die Reihenfolge bleibt wie bei der bisherigen {@code ArrayList} erhalten.
+ * <p>
+ * Der Kontostand wird als laufende Summe der berechneten Beträge mitgeführt
+ * (kompensierte Summation nach Neumaier, damit viele Einfüge- und Löschvorgänge keine
+ * Rundungsfehler aufsummieren). Nach {@link #invalidateBalance()} wird er beim nächsten
+ * Lesen einmal neu berechnet.
+ * <p>
+ * Für Abfragen nach Datum wird bei Bedarf ein {@link DateIndex} gebaut und bei Änderungen
+ * mitgeführt bzw. verworfen.
+ * <p>
+ * Ein Konto kann auch ungeladen angelegt werden ({@link #unloaded(boolean)}); seine Transaktionen
+ * werden dann erst beim ersten Zugriff über {@link #load(Collection)} eingelesen, bei einem
+ * binären Snapshot auch eingeblendet über
+ * {@link #loadMapped(BinaryAccountSnapshots.Mapped, InterestRateTable)}.
+ * <p>
+ * Das Konto selbst ist nicht synchronisiert. Aufrufer halten für verändernde Methoden den
+ * {@link #writeLock()} und für lesende Methoden mindestens den {@link #readLock()}.
+ */
+class AccountLedger implements Iterable<Transaction> {
+
+    private final TransactionStore transactions;
+
+    /** Laufende Summe der berechneten Beträge */
+    private double balance;
+
+    /** Kompensation der bei {@link #balance} verlorenen niederwertigen Anteile */
+    private double balanceCompensation;
+
+    /** Ob {@link #balance} dem aktuellen Stand entspricht */
+    private volatile boolean balanceValid = true;
+
+    /** Nach Datum sortierter Index, {@code null} solange er nicht gebraucht oder verworfen wurde */
+    private volatile DateIndex dateIndex;
+
+    /** Sperre für alle Zugriffe auf dieses Konto */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Ob das Konto aus der Bank entfernt wurde */
+    private boolean deleted;
+
+    /** Ob die Transaktionen eingelesen sind */
+    private boolean loaded = true;
+
+    /** Zählt Änderungen der Transaktionen, damit {@link TransactionSpliterator} sie erkennt */
+    private int modCount;
+
+    /** Erzeugt ein leeres Konto mit objektbasiertem Speicher. */
+    AccountLedger() {
+        this(false);
+    }
+
+    /**
+     * Erzeugt ein leeres Konto.
+     *
+     * @param columnar {@code true} für den spaltenweisen Speicher
+     */
+    AccountLedger(boolean columnar) {
+        transactions = columnar ? new ColumnarTransactionStore() : new HashTransactionStore();
+    }
+
+    /**
+     * Erzeugt ein Konto mit den übergebenen Transaktionen; Duplikate werden verworfen.
+     *
+     * @param columnar     {@code true} für den spaltenweisen Speicher
+     * @param transactions Transaktionen in Einfügereihenfolge
+     */
+    AccountLedger(boolean columnar, Collection<Transaction> transactions) {
+        this(columnar);
+        load(transactions);
+    }
+
+    /**
+     * @param columnar {@code true} für den spaltenweisen Speicher
+     * @return Konto, dessen Transaktionen noch nicht eingelesen sind
+     */
+    static AccountLedger unloaded(boolean columnar) {
+        AccountLedger ledger = new AccountLedger(columnar);
+        ledger.loaded = false;
+        return ledger;
+    }
+
+    /**
+     * Übernimmt die eingelesenen Transaktionen eines ungeladenen Kontos; Duplikate werden
+     * verworfen. Nur unter dem {@link #writeLock()} aufrufen.
+     *
+     * @param transactions Transaktionen in Einfügereihenfolge
+     */
+    void load(Collection<Transaction> transactions) {
+        for (Transaction t : transactions) this.transactions.add(t);
+        modCount++;
+        dateIndex = null;
+        recalculateBalance();
+        loaded = true;
+    }
+
+    /**
+     * Übernimmt einen eingeblendeten binären Snapshot in ein ungeladenes spaltenweises Konto,
+     * ohne Transaktionen zu erzeugen, siehe {@link ColumnarTransactionStore}. Nur unter dem
+     * {@link #writeLock()} aufrufen.
+     *
+     * @param snapshot eingeblendeter Snapshot
+     * @param rates    Zinstabelle, mit deren Versionen die Payments verknüpft werden
+     * @throws IllegalStateException wenn das Konto nicht spaltenweise speichert
+     */
+    void loadMapped(BinaryAccountSnapshots.Mapped snapshot, InterestRateTable rates) {
+        if (!(transactions instanceof ColumnarTransactionStore columnar))
+            throw new IllegalStateException("Eingeblendete Snapshots erfordern den spaltenweisen Speicher");
+        columnar.loadMapped(snapshot, rates);
+        modCount++;
+        dateIndex = null;
+        recalculateBalance();
+        loaded = true;
+    }
+
+    /**
+     * Gibt die Transaktionen frei; das Konto gilt danach wieder als ungeladen und muss vor dem
+     * nächsten Zugriff erneut eingelesen werden. Nur unter dem {@link #writeLock()} aufrufen.
+     */
+    void unload() {
+        transactions.clear();
+        modCount++;
+        dateIndex = null;
+        balance = 0;
+        balanceCompensation = 0;
+        balanceValid = true;
+        loaded = false;
+    }
+
+    /** @return {@code false}, solange die Transaktionen noch nicht eingelesen sind */
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /** @return geschätzter Speicherbedarf der Transaktionen in Bytes */
+    long estimatedBytes() {
+        return transactions.estimatedBytes();
+    }
+
+    /**
+     * @param transaction gesuchte Transaktion
+     * @return {@code true}, wenn eine gleiche Transaktion gespeichert ist
+     */
+    boolean contains(Transaction transaction) {
+        return transactions.contains(transaction);
+    }
+
+    /**
+     * @param transaction hinzuzufügende Transaktion
+     * @return {@code false}, wenn bereits eine gleiche Transaktion gespeichert ist
+     */
+    boolean add(Transaction transaction) {
+        if (!transactions.add(transaction)) return false;
+        modCount++;
+        double value = transaction.calculate();
+        accumulate(value);
+
+        DateIndex index = dateIndex;
+        if (index != null && !index.append(transaction, transaction.epochDay(), value)) dateIndex = null;
+        return true;
+    }
+
+    /**
+     * @param transaction zu entfernende Transaktion
+     * @return {@code false}, wenn keine gleiche Transaktion gespeichert ist
+     */
+    boolean remove(Transaction transaction) {
+        // abgezogen wird der Betrag der gespeicherten Transaktion: eine gleiche IncomingTransfer
+        // und OutgoingTransfer unterscheiden sich im Vorzeichen von calculate()
+        Transaction stored = transactions.remove(transaction);
+        if (stored == null) return false;
+        modCount++;
+        accumulate(-stored.calculate());
+        dateIndex = null;
+        return true;
+    }
+
+    /**
+     * Liefert den Kontostand. Darf unter dem Lesezugriff aufgerufen werden: eine nötige
+     * Neuberechnung erfolgt synchronisiert und wird erst danach veröffentlicht.
+     *
+     * @return aktueller Kontostand in O(1), nach einer Invalidierung einmalig O(n)
+     */
+    double balance() {
+        if (!balanceValid) {
+            synchronized (this) {
+                if (!balanceValid) recalculateBalance();
+            }
+        }
+        return balance + balanceCompensation;
+    }
+
+    /**
+     * Verwirft den mitgeführten Kontostand, z.B. wenn sich die Berechnung der Beträge
+     * geändert hat. Er wird beim nächsten Lesen neu berechnet.
+     */
+    void invalidateBalance() {
+        balanceValid = false;
+        dateIndex = null;
+        transactions.invalidateAmounts();
+    }
+
+    /**
+     * @param fromDay erster Tag als Epochentag (einschließlich)
+     * @param toDay   letzter Tag als Epochentag (einschließlich)
+     * @return Transaktionen im Zeitraum, nach Datum sortiert
+     */
+    List<Transaction> between(int fromDay, int toDay) {
+        return dateIndex().between(fromDay, toDay);
+    }
+
+    /**
+     * @param day Stichtag als Epochentag (einschließlich)
+     * @return Summe der berechneten Beträge aller Transaktionen bis zum Stichtag
+     */
+    double balanceAsOf(int day) {
+        return dateIndex().sumUpTo(day);
+    }
+
+    /** Baut den Datumsindex bei Bedarf; darf wie {@link #balance()} unter dem Lesezugriff laufen. */
+    private DateIndex dateIndex() {
+        DateIndex index = dateIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = dateIndex;
+                if (index == null) {
+                    index = DateIndex.build(transactions);
+                    dateIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /** Große Konten werden über {@link BalanceSum} parallel summiert. */
+    private void recalculateBalance() {
+        double[] sum = BalanceSum.of(transactions.calculatedAmounts());
+        balance = sum[0];
+        balanceCompensation = sum[1];
+        balanceValid = true;
+    }
+
+    private void accumulate(double value) {
+        if (!balanceValid) return;
+
+        double sum = balance + value;
+        if (Math.abs(balance) >= Math.abs(value)) {
+            balanceCompensation += (balance - sum) + value;
+        } else {
+            balanceCompensation += (value - sum) + balance;
+        }
+        balance = sum;
+    }
+
+    /** @return Lesesperre; mehrere Leser können parallel arbeiten */
+    Lock readLock() {
+        return lock.readLock();
+    }
+
+    /** @return Schreibsperre; exklusiv gegenüber allen Lesern und Schreibern dieses Kontos */
+    Lock writeLock() {
+        return lock.writeLock();
+    }
+
+    /** @return {@code true}, wenn das Konto aus der Bank entfernt wurde */
+    boolean isDeleted() {
+        return deleted;
+    }
+
+    /** Markiert das Konto als entfernt; nur unter dem {@link #writeLock()} aufrufen. */
+    void markDeleted() {
+        deleted = true;
+        modCount++;
+    }
+
+    /** @return Zähler, der sich bei jeder Änderung der Transaktionen erhöht */
+    int modCount() {
+        return modCount;
+    }
+
+    /** @return Anzahl der Transaktionen */
+    int size() {
+        return transactions.size();
+    }
+
+    /** @return Kopie der Transaktionen in Einfügereihenfolge */
+    List<Transaction> toList() {
+        return transactions.toList();
+    }
+
+    /**
+     * @param asc {@code true} für aufsteigend
+     * @return Transaktionen stabil nach {@link Transaction#calculate()} sortiert
+     */
+    List<Transaction> sorted(boolean asc) {
+        return transactions.sorted(asc);
+    }
+
+    /**
+     * @param asc {@code true} für aufsteigend
+     * @return Iterator in der Reihenfolge von {@link #sorted(boolean)}, nur bis zur nächsten Änderung gültig
+     */
+    Iterator<Transaction> sortedIterator(boolean asc) {
+        return transactions.sortedIterator(asc);
+    }
+
+    /** @return Zusammenfassung aller Transaktionen, in einem Durchlauf berechnet */
+    AccountSummary summary() {
+        SummaryCollector collector = new SummaryCollector();
+        transactions.summarize(collector);
+        return collector.toSummary();
+    }
+
+    /**
+     * @param asc {@code true} für die kleinsten, {@code false} für die größten Beträge
+     * @param k   Anzahl der gesuchten Transaktionen
+     * @return die ersten {@code k} Transaktionen von {@link #sorted(boolean)}
+     */
+    List<Transaction> top(boolean asc, int k) {
+        return transactions.top(asc, k);
+    }
+
+    /**
+     * @param offset Anzahl der zu überspringenden Transaktionen
+     * @param limit  höchstens zurückzugebende Transaktionen
+     * @return Kopie des Ausschnitts in Einfügereihenfolge
+     */
+    List<Transaction> page(int offset, int limit) {
+        return transactions.page(offset, limit);
+    }
+
+    /**
+     * @param asc    {@code true} für aufsteigend
+     * @param offset Anzahl der zu überspringenden Transaktionen
+     * @param limit  höchstens zurückzugebende Transaktionen
+     * @return Kopie des Ausschnitts in der Reihenfolge von {@link #sorted(boolean)}
+     */
+    List<Transaction> sortedPage(boolean asc, int offset, int limit) {
+        return transactions.sortedPage(asc, offset, limit);
+    }
+
+    /**
+     * @param positive {@code true} für Beträge ab 0, {@code false} für negative Beträge
+     * @return passende Transaktionen in Einfügereihenfolge
+     */
+    List<Transaction> byType(boolean positive) {
+        return transactions.byType(positive);
+    }
+
+    @Override
+    public Iterator<Transaction> iterator() {
+        return transactions.iterator();
+    }
+
+    /**
+     * Zwei Konten sind gleich, wenn sie dieselben Transaktionen in derselben Reihenfolge enthalten.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof AccountLedger other)) return false;
+        if (size() != other.size()) return false;
+
+        Iterator<Transaction> it = other.iterator();
+        for (Transaction t : transactions) {
+            if (!t.equals(it.next())) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (Transaction t : transactions) hash += t.hashCode();
+        return hash;
+    }
+}
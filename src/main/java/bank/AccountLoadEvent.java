@@ -0,0 +1,16 @@
+package bank;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Einlesen eines Kontos aus Snapshot und Journal, beim Start oder bei Bedarf.
+ * {@code bytes} ist die Größe der gelesenen Dateien, {@code transactions} die Anzahl der
+ * eingelesenen Transaktionen.
+ */
+@Name("bank.AccountLoad")
+@Label("Account Load")
+@Description("Reading an account's snapshot and journal")
+class AccountLoadEvent extends AccountEvent {
+}
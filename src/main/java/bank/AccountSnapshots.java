@@ -0,0 +1,139 @@
+package bank;
+
+import com.google.gson.stream.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Liest und schreibt die Snapshot-Dateien {@code Konto_<account>.json} eines Verzeichnisses.
+ * <p>
+ * Geschrieben wird immer zuerst in eine temporäre Datei, die anschließend atomar umbenannt
+ * wird. Ein Leser sieht dadurch entweder den alten oder den neuen Snapshot, nie eine halb
+ * geschriebene Datei.
+ * <p>
+ * Gelesen und geschrieben wird gestreamt über gepufferte Reader/Writer und den
+ * {@link TransactionSerDer}, ohne die Datei als {@code String} oder JSON-Baum im Speicher zu halten.
+ * Das Format entspricht der bisherigen formatierten Gson-Ausgabe. Für das Binärformat
+ * siehe {@link BinaryAccountSnapshots}.
+ */
+class AccountSnapshots {
+
+    /** Dateiendung der Snapshot-Dateien */
+    static final String SUFFIX = ".json";
+
+    /** Verzeichnis der Kontodateien */
+    protected final Path directory;
+    private final TransactionSerDer serDer;
+
+    /** Pool für gelesene Zeichenketten, {@code null} für keinen */
+    protected final StringPool pool;
+
+    /**
+     * @param directory Verzeichnis, in dem die Kontodateien liegen
+     */
+    AccountSnapshots(Path directory) {
+        this(directory, null);
+    }
+
+    /**
+     * @param directory Verzeichnis, in dem die Kontodateien liegen
+     * @param pool      Pool für die gelesenen Zeichenketten, {@code null} für keinen
+     */
+    AccountSnapshots(Path directory, StringPool pool) {
+        this.directory = directory;
+        this.pool = pool;
+        this.serDer = new TransactionSerDer(pool);
+    }
+
+    /**
+     * @param account Kontoname
+     * @return Pfad der Snapshot-Datei des Kontos
+     */
+    Path path(String account) {
+        return directory.resolve("Konto_" + account + suffix());
+    }
+
+    /** @return Dateiendung der Snapshot-Dateien dieses Formats */
+    String suffix() {
+        return SUFFIX;
+    }
+
+    /**
+     * Liest den Snapshot eines Kontos.
+     *
+     * @param account Kontoname
+     * @return veränderbare Liste der Transaktionen, leer wenn kein Snapshot existiert
+     * @throws IOException wenn die Datei nicht gelesen werden kann
+     */
+    List<Transaction> read(String account) throws IOException {
+        List<Transaction> list = new ArrayList<>();
+        Path file = path(account);
+        if (!Files.exists(file) || Files.size(file) == 0) return list;
+
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            if (reader.peek() == JsonToken.NULL) return list;
+
+            reader.beginArray();
+            while (reader.hasNext()) {
+                Transaction transaction = serDer.read(reader);
+                if (transaction != null) list.add(transaction);
+            }
+            reader.endArray();
+        }
+        return list;
+    }
+
+    /**
+     * Schreibt den Snapshot eines Kontos atomar (temporäre Datei + Umbenennen).
+     *
+     * @param account      Kontoname
+     * @param transactions alle Transaktionen des Kontos
+     * @throws IOException wenn die Datei nicht geschrieben werden kann
+     */
+    void write(String account, Collection<Transaction> transactions) throws IOException {
+        Path file = path(account);
+        Path tmp = tmpPath(file);
+        try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(tmp, StandardCharsets.UTF_8))) {
+            writer.setIndent("  ");
+            writer.beginArray();
+            for (Transaction transaction : transactions) serDer.write(writer, transaction);
+            writer.endArray();
+        }
+        replace(tmp, file);
+    }
+
+    /**
+     * Ersetzt eine Datei atomar durch eine fertig geschriebene temporäre Datei.
+     *
+     * @param tmp  temporäre Datei
+     * @param file Zieldatei
+     * @throws IOException wenn die Datei nicht umbenannt werden kann
+     */
+    protected static void replace(Path tmp, Path file) throws IOException {
+        try {
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @param file Snapshot-Datei
+     * @return temporäre Datei, in die vor dem Umbenennen geschrieben wird
+     */
+    protected static Path tmpPath(Path file) {
+        return file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    /**
+     * Löscht den Snapshot eines Kontos.
+     *
+     * @param account Kontoname
+     * @throws IOException wenn die Datei nicht gelöscht werden kann
+     */
+    void delete(String account) throws IOException {
+        Files.deleteIfExists(path(account));
+    }
+}
@@ -0,0 +1,42 @@
+package bank;
+
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Unveränderliche Zusammenfassung der Transaktionen eines Kontos, in einem Durchlauf
+ * berechnet, siehe {@link PrivateBank#getAccountSummary(String)}. Einnahmen und Ausgaben
+ * werden wie bei {@link Bank#getTransactionsByType(String, boolean)} nach dem Vorzeichen
+ * der berechneten Beträge getrennt.
+ *
+ * @param totals   Summen über alle Transaktionen
+ * @param min      kleinster berechneter Betrag, 0 für ein leeres Konto
+ * @param max      größter berechneter Betrag, 0 für ein leeres Konto
+ * @param months   Summen je Monat, aufsteigend; Transaktionen ohne lesbares Datum fehlen hier
+ * @param types    Summen je Transaktionstyp, z.B. {@code Payment.class}
+ */
+public record AccountSummary(TransactionTotals totals, double min, double max,
+                             SortedMap<YearMonth, TransactionTotals> months,
+                             Map<Class<? extends Transaction>, TransactionTotals> types) {
+
+    /** @return Anzahl der Transaktionen */
+    public long count() {
+        return totals.count();
+    }
+
+    /** @return Summe der berechneten Beträge ab 0 */
+    public double income() {
+        return totals.income();
+    }
+
+    /** @return Summe der negativen berechneten Beträge (höchstens 0) */
+    public double expenses() {
+        return totals.expenses();
+    }
+
+    /** @return Einnahmen plus Ausgaben, entspricht dem Kontostand */
+    public double net() {
+        return totals.net();
+    }
+}
@@ -0,0 +1,20 @@
+package bank;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Schreiben eines Kontos: die komplette Kontodatei oder, mit {@code journal}, angehängte
+ * Journal-Einträge. {@code bytes} ist die Größe der geschriebenen Datei bzw. der angehängten
+ * Einträge, {@code transactions} die Anzahl der geschriebenen Transaktionen bzw. Einträge.
+ */
+@Name("bank.AccountWrite")
+@Label("Account Write")
+@Description("Writing an account file or appending to its journal")
+class AccountWriteEvent extends AccountEvent {
+
+    @Label("Journal")
+    @Description("Records were appended to the journal instead of rewriting the account file")
+    boolean journal;
+}
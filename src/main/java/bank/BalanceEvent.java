@@ -0,0 +1,18 @@
+package bank;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Abfrage des Kontostands. Ist der zwischengespeicherte Stand ungültig, enthält die Dauer
+ * das Neuberechnen über alle Transaktionen. {@code transactions} und {@code bytes}
+ * beschreiben das Konto (Anzahl und geschätzter Speicherbedarf).
+ */
+@Name("bank.Balance")
+@Label("Balance")
+@Description("Reading or recomputing an account's balance")
+@StackTrace(false)
+class BalanceEvent extends AccountEvent {
+}
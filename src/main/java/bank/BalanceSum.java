@@ -0,0 +1,70 @@
+package bank;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Kompensierte Summe (Neumaier) über ein Array berechneter Beträge. Große Arrays werden
+ * im gemeinsamen {@link ForkJoinPool} in Teilstücke zerlegt, deren Teilsummen samt
+ * Kompensation anschließend zusammengeführt werden.
+ * <p>
+ * Ergebnis ist jeweils {@code {summe, kompensation}}; der Wert ist {@code summe + kompensation}.
+ */
+class BalanceSum extends RecursiveTask<double[]> {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Ab dieser Anzahl Beträge wird parallel summiert */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /** Größe der sequentiell summierten Teilstücke */
+    private static final int LEAF_SIZE = 1 << 14;
+
+    private final double[] values;
+    private final int from;
+    private final int to;
+
+    private BalanceSum(double[] values, int from, int to) {
+        this.values = values;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * @param values zu summierende Beträge
+     * @return {@code {summe, kompensation}}
+     */
+    static double[] of(double[] values) {
+        if (values.length < PARALLEL_THRESHOLD) return sequential(values, 0, values.length);
+        return ForkJoinPool.commonPool().invoke(new BalanceSum(values, 0, values.length));
+    }
+
+    @Override
+    protected double[] compute() {
+        if (to - from <= LEAF_SIZE) return sequential(values, from, to);
+
+        int mid = (from + to) >>> 1;
+        BalanceSum left = new BalanceSum(values, from, mid);
+        left.fork();
+        double[] right = new BalanceSum(values, mid, to).compute();
+        double[] sum = left.join();
+
+        // Teilsummen wie einen weiteren Summanden kompensiert addieren
+        double next = sum[0] + right[0];
+        double compensation = Math.abs(sum[0]) >= Math.abs(right[0])
+                ? (sum[0] - next) + right[0] : (right[0] - next) + sum[0];
+        return new double[]{next, sum[1] + right[1] + compensation};
+    }
+
+    private static double[] sequential(double[] values, int from, int to) {
+        double sum = 0;
+        double compensation = 0;
+        for (int i = from; i < to; i++) {
+            double value = values[i];
+            double next = sum + value;
+            compensation += Math.abs(sum) >= Math.abs(value) ? (sum - next) + value : (value - next) + sum;
+            sum = next;
+        }
+        return new double[]{sum, compensation};
+    }
+}
@@ -3,7 +3,10 @@ package bank;
 import bank.exceptions.*;
 
 import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interface fuer eine generische Bank. Stellt mehrere Methoden bereit, um die Interaktion
@@ -44,6 +47,20 @@ public interface Bank {
     void addTransaction(String account, Transaction transaction)
             throws TransactionAlreadyExistException, AccountDoesNotExistException, TransactionAttributeException,java.io.IOException;
 
+    /**
+         * Fuegt einem bestehenden Konto mehrere Transaktionen hinzu und persistiert das Konto
+         * nur einmal. Doppelte oder ungueltige Transaktionen brechen den Vorgang nicht ab,
+         * sondern werden im Ergebnis vermerkt.
+         *
+         * @param account      das Konto, dem die Transaktionen hinzugefuegt werden
+         * @param transactions die Transaktionen, die gespeichert werden sollen
+         * @return Ergebnis je Transaktion in Eingabereihenfolge
+         * @throws AccountDoesNotExistException falls das Konto nicht existiert
+         * @throws IOException                  falls das Konto nicht gespeichert werden kann
+     */
+    TransactionBatchResult addTransactions(String account, Collection<Transaction> transactions)
+            throws AccountDoesNotExistException, IOException;
+
     /**
          * Entfernt eine Transaktion aus einem Konto. Falls sie nicht existiert, wird eine Exception
          * ausgeloest.
@@ -89,6 +106,28 @@ public interface Bank {
      */
     List<Transaction> getTransactions(String account);
 
+    /**
+         * Liefert einen Ausschnitt der Transaktionen eines Kontos, z.B. fuer eine Bildschirmseite.
+         * Nur der Ausschnitt wird kopiert.
+         *
+         * @param account das ausgewaehlte Konto
+         * @param offset  Anzahl der zu ueberspringenden Transaktionen
+         * @param limit   hoechstens zurueckzugebende Transaktionen
+         * @return Transaktionen des Ausschnitts in Einfuegereihenfolge
+         * @throws IllegalArgumentException falls {@code offset} oder {@code limit} negativ ist
+     */
+    List<Transaction> getTransactions(String account, int offset, int limit);
+
+    /**
+         * Liefert die Transaktionen eines Kontos als {@link Stream}, ohne sie vorher zu kopieren.
+         * Wird das Konto waehrend der Verarbeitung veraendert, wirft der Stream eine
+         * {@link java.util.ConcurrentModificationException}.
+         *
+         * @param account das ausgewaehlte Konto
+         * @return Transaktionen in Einfuegereihenfolge
+     */
+    Stream<Transaction> streamTransactions(String account);
+
     /**
          * Liefert eine sortierte Liste (nach berechneten Betraegen) fuer ein Konto. Sortiert wird
          * aufsteigend oder absteigend (oder leer, falls keine Daten vorhanden sind).
@@ -99,6 +138,29 @@ public interface Bank {
      */
     List<Transaction> getTransactionsSorted(String account, boolean asc);
 
+    /**
+         * Liefert einen Ausschnitt der nach berechneten Betraegen sortierten Transaktionen.
+         *
+         * @param account das ausgewaehlte Konto
+         * @param asc     {@code true} fuer aufsteigend, {@code false} fuer absteigend
+         * @param offset  Anzahl der zu ueberspringenden Transaktionen
+         * @param limit   hoechstens zurueckzugebende Transaktionen
+         * @return sortierte Transaktionen des Ausschnitts
+         * @throws IllegalArgumentException falls {@code offset} oder {@code limit} negativ ist
+     */
+    List<Transaction> getTransactionsSorted(String account, boolean asc, int offset, int limit);
+
+    /**
+         * Liefert die nach berechneten Betraegen sortierten Transaktionen als {@link Stream}.
+         * Wird das Konto waehrend der Verarbeitung veraendert, wirft der Stream eine
+         * {@link java.util.ConcurrentModificationException}.
+         *
+         * @param account das ausgewaehlte Konto
+         * @param asc     {@code true} fuer aufsteigend, {@code false} fuer absteigend
+         * @return sortierte Transaktionen
+     */
+    Stream<Transaction> streamTransactionsSorted(String account, boolean asc);
+
     /**
          * Liefert eine Liste der positiven oder negativen Transaktionen (berechnete Betraege).
          *
@@ -108,6 +170,30 @@ public interface Bank {
      */
     List<Transaction> getTransactionsByType(String account, boolean positive);
 
+    /**
+         * Liefert die Transaktionen eines Kontos in einem Zeitraum, nach Datum sortiert.
+         * Transaktionen, deren Datum sich nicht lesen laesst, sind nicht enthalten.
+         *
+         * @param account das ausgewaehlte Konto
+         * @param from    erster Tag (einschliesslich)
+         * @param to      letzter Tag (einschliesslich)
+         * @return Transaktionen im Zeitraum
+         * @throws AccountDoesNotExistException falls das Konto nicht existiert
+     */
+    List<Transaction> getTransactionsBetween(String account, LocalDate from, LocalDate to)
+            throws AccountDoesNotExistException;
+
+    /**
+         * Berechnet den Kontostand am Ende eines Stichtags aus allen Transaktionen bis
+         * einschliesslich dieses Tages.
+         *
+         * @param account das ausgewaehlte Konto
+         * @param date    Stichtag
+         * @return Kontostand zum Stichtag
+         * @throws AccountDoesNotExistException falls das Konto nicht existiert
+     */
+    double getBalanceAsOf(String account, LocalDate date) throws AccountDoesNotExistException;
+
         /**
                  * Gibt die Liste aller derzeit vorhandenen Kontonamen in der Bank zurueck.
                  *
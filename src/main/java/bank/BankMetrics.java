@@ -0,0 +1,72 @@
+package bank;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metriken einer {@link PrivateBank}: Aufrufe und Laufzeiten je {@link BankOperation} sowie
+ * gelesene und geschriebene Bytes und Dateien.
+ * <p>
+ * Alle Zähler sind {@link LongAdder}s bzw. sperrfreie Histogramme, damit das Erfassen auch
+ * bei vielen gleichzeitig schreibenden Threads kaum etwas kostet. Ein Aufruf kostet zwei
+ * {@link System#nanoTime()} und einige Additionen.
+ */
+class BankMetrics {
+
+    private final long startNanos = System.nanoTime();
+    private final Map<BankOperation, OperationTimer> timers = new EnumMap<>(BankOperation.class);
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder filesRead = new LongAdder();
+    private final LongAdder filesWritten = new LongAdder();
+
+    BankMetrics() {
+        for (BankOperation operation : BankOperation.values()) timers.put(operation, new OperationTimer());
+    }
+
+    /**
+     * Erfasst einen abgeschlossenen Aufruf.
+     *
+     * @param operation  Operation
+     * @param startNanos {@link System#nanoTime()} beim Beginn des Aufrufs
+     * @param failed     {@code true}, wenn der Aufruf mit einer Exception endete
+     */
+    void record(BankOperation operation, long startNanos, boolean failed) {
+        timers.get(operation).record(System.nanoTime() - startNanos, failed);
+    }
+
+    /**
+     * @param bytes gelesene Bytes
+     * @param files gelesene Dateien
+     */
+    void read(long bytes, int files) {
+        bytesRead.add(bytes);
+        filesRead.add(files);
+    }
+
+    /**
+     * @param bytes in eine Datei geschriebene Bytes
+     */
+    void written(long bytes) {
+        bytesWritten.add(bytes);
+        filesWritten.increment();
+    }
+
+    /**
+     * @param accountFiles Kontodateien und Journale im Verzeichnis
+     * @param accounts     Größe je eingelesenem Konto
+     * @return aktueller Stand
+     */
+    BankMetricsSnapshot snapshot(int accountFiles, SortedMap<String, BankMetricsSnapshot.AccountSize> accounts) {
+        Map<BankOperation, OperationStatistics> operations = new EnumMap<>(BankOperation.class);
+        for (Map.Entry<BankOperation, OperationTimer> entry : timers.entrySet())
+            operations.put(entry.getKey(), entry.getValue().statistics());
+
+        return new BankMetricsSnapshot(Instant.now(), Duration.ofNanos(System.nanoTime() - startNanos),
+                Collections.unmodifiableMap(operations),
+                bytesRead.sum(), bytesWritten.sum(), filesRead.sum(), filesWritten.sum(),
+                accountFiles, Collections.unmodifiableSortedMap(accounts));
+    }
+}
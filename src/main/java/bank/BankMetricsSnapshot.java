@@ -0,0 +1,134 @@
+package bank;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Stand der Metriken einer {@link PrivateBank}, siehe {@link PrivateBank#getMetrics()}.
+ * Alle Zähler laufen seit dem Erzeugen der Bank.
+ *
+ * @param timestamp    Zeitpunkt des Stands
+ * @param uptime       Zeit seit dem Erzeugen der Bank
+ * @param operations   Aufrufe und Laufzeiten je Operation
+ * @param bytesRead    aus Kontodateien und Journalen gelesene Bytes
+ * @param bytesWritten in Kontodateien und Journale geschriebene Bytes
+ * @param filesRead    gelesene Kontodateien und Journale
+ * @param filesWritten geschriebene Kontodateien und Journal-Anhänge
+ * @param accountFiles Kontodateien und Journale im Verzeichnis, -1 wenn es nicht lesbar ist
+ * @param accounts     Größe je eingelesenem Konto, nach Kontonamen sortiert
+ */
+public record BankMetricsSnapshot(Instant timestamp, Duration uptime, Map<BankOperation, OperationStatistics> operations,
+                                  long bytesRead, long bytesWritten, long filesRead, long filesWritten,
+                                  int accountFiles, Map<String, AccountSize> accounts) {
+
+    /**
+     * Größe eines eingelesenen Kontos.
+     *
+     * @param transactions   Anzahl Transaktionen
+     * @param estimatedBytes geschätzter Speicherbedarf in Bytes
+     */
+    public record AccountSize(int transactions, long estimatedBytes) {
+    }
+
+    /**
+     * @param operation Operation
+     * @return abgeschlossene Aufrufe je Sekunde seit dem Erzeugen der Bank
+     */
+    public double throughput(BankOperation operation) {
+        long nanos = uptime.toNanos();
+        return nanos == 0 ? 0 : operations.get(operation).count() * 1e9 / nanos;
+    }
+
+    /**
+     * @param format Ausgabeformat
+     * @return Stand in diesem Format
+     */
+    public String format(MetricsFormat format) {
+        return format == MetricsFormat.JSON ? toJson() : toText();
+    }
+
+    /**
+     * Mehrzeilige Textdarstellung, Laufzeiten in Mikrosekunden. Die Konten erscheinen nur als
+     * Summe; die Größe je Konto enthält {@link #toJson()}.
+     *
+     * @return Textdarstellung
+     */
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("PrivateBank metrics ").append(timestamp).append(" uptime=").append(uptime).append('\n');
+        for (Map.Entry<BankOperation, OperationStatistics> entry : operations.entrySet()) {
+            OperationStatistics s = entry.getValue();
+            sb.append(String.format(java.util.Locale.ROOT,
+                    "%-18s count=%d errors=%d rate=%.1f/s mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus max=%.1fus%n",
+                    entry.getKey(), s.count(), s.errors(), throughput(entry.getKey()), s.meanNanos() / 1e3,
+                    s.p50Nanos() / 1e3, s.p90Nanos() / 1e3, s.p99Nanos() / 1e3, s.maxNanos() / 1e3));
+        }
+        long transactions = 0;
+        long estimatedBytes = 0;
+        for (AccountSize size : accounts.values()) {
+            transactions += size.transactions();
+            estimatedBytes += size.estimatedBytes();
+        }
+        sb.append("io read=").append(bytesRead).append("B/").append(filesRead).append(" files")
+                .append(" written=").append(bytesWritten).append("B/").append(filesWritten).append(" files")
+                .append(" accountFiles=").append(accountFiles).append('\n');
+        sb.append("accounts resident=").append(accounts.size())
+                .append(" transactions=").append(transactions)
+                .append(" estimatedBytes=").append(estimatedBytes);
+        return sb.toString();
+    }
+
+    /**
+     * JSON-Darstellung in einer Zeile, Laufzeiten in Nanosekunden.
+     *
+     * @return JSON-Objekt
+     */
+    public String toJson() {
+        StringWriter buffer = new StringWriter();
+        try (JsonWriter json = new JsonWriter(buffer)) {
+            json.beginObject();
+            json.name("timestamp").value(timestamp.toString());
+            json.name("uptimeMillis").value(uptime.toMillis());
+
+            json.name("operations").beginObject();
+            for (Map.Entry<BankOperation, OperationStatistics> entry : operations.entrySet()) {
+                OperationStatistics s = entry.getValue();
+                json.name(entry.getKey().name()).beginObject();
+                json.name("count").value(s.count());
+                json.name("errors").value(s.errors());
+                json.name("totalNanos").value(s.totalNanos());
+                json.name("maxNanos").value(s.maxNanos());
+                json.name("p50Nanos").value(s.p50Nanos());
+                json.name("p90Nanos").value(s.p90Nanos());
+                json.name("p99Nanos").value(s.p99Nanos());
+                json.endObject();
+            }
+            json.endObject();
+
+            json.name("bytesRead").value(bytesRead);
+            json.name("bytesWritten").value(bytesWritten);
+            json.name("filesRead").value(filesRead);
+            json.name("filesWritten").value(filesWritten);
+            json.name("accountFiles").value(accountFiles);
+
+            json.name("accounts").beginObject();
+            for (Map.Entry<String, AccountSize> entry : accounts.entrySet()) {
+                json.name(entry.getKey()).beginObject();
+                json.name("transactions").value(entry.getValue().transactions());
+                json.name("estimatedBytes").value(entry.getValue().estimatedBytes());
+                json.endObject();
+            }
+            json.endObject();
+            json.endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,32 @@
+package bank;
+
+/**
+ * Operationen einer {@link PrivateBank}, deren Aufrufe und Laufzeiten in
+ * {@link BankMetricsSnapshot#operations()} gezählt werden.
+ */
+public enum BankOperation {
+
+    /** {@link PrivateBank#addTransaction(String, Transaction)} einschließlich Duplikatprüfung und Persistenz */
+    ADD_TRANSACTION,
+
+    /** {@link PrivateBank#addTransactions(String, java.util.Collection)} */
+    ADD_TRANSACTIONS,
+
+    /** {@link PrivateBank#removeTransaction(String, Transaction)} einschließlich Persistenz */
+    REMOVE_TRANSACTION,
+
+    /** {@link PrivateBank#transfer(String, String, double, String, String)} */
+    TRANSFER,
+
+    /** Einlesen aller Kontodateien beim Erzeugen der Bank */
+    READ_ACCOUNTS,
+
+    /** Einlesen eines Kontos (Snapshot plus Journal), beim Start oder bei Bedarf */
+    READ_ACCOUNT,
+
+    /** Schreiben der kompletten Kontodatei eines Kontos */
+    WRITE_ACCOUNT,
+
+    /** Anhängen von Einträgen an das Journal eines Kontos */
+    APPEND_JOURNAL
+}
@@ -0,0 +1,239 @@
+package bank;
+
+import java.util.Objects;
+
+/**
+ * Konfiguration für eine {@link PrivateBank}. Alle Optionen besitzen Standardwerte,
+ * sodass {@code new BankOptions()} dem bisherigen Verhalten der Bank entspricht.
+ * Die Optionen werden beim Erzeugen der Bank ausgewertet.
+ */
+public class BankOptions {
+
+    /** Ob Änderungen als Journal-Einträge angehängt statt als komplette Datei geschrieben werden */
+    private boolean journaling;
+
+    /** Abstand der Hintergrund-Kompaktierung in Millisekunden (0 = keine Hintergrund-Kompaktierung) */
+    private long compactionIntervalMillis = 60_000;
+
+    /** Anzahl Journal-Einträge, ab der ein Konto kompaktiert wird (0 = ignorieren) */
+    private int compactionRecordThreshold = 1_000;
+
+    /** Journalgröße in Bytes, ab der ein Konto kompaktiert wird (0 = ignorieren) */
+    private long compactionByteThreshold = 1024 * 1024;
+
+    /** Anzahl Threads, mit denen die Kontodateien beim Start eingelesen werden */
+    private int loadParallelism = Runtime.getRuntime().availableProcessors();
+
+    /** Wann Änderungen geschrieben werden */
+    private DurabilityPolicy durabilityPolicy = DurabilityPolicy.EVERY_WRITE;
+
+    /** Abstand der Write-Behind-Schreibvorgänge bei {@link DurabilityPolicy#INTERVAL} */
+    private long flushIntervalMillis = 1_000;
+
+    /** Ob Konten erst beim ersten Zugriff eingelesen werden */
+    private boolean lazyLoading;
+
+    /** Ob die Transaktionen im Speicher spaltenweise abgelegt werden */
+    private boolean columnarStorage;
+
+    /** Dateiformat der Snapshots */
+    private StorageFormat storageFormat = StorageFormat.JSON;
+
+    /** Höchstens gleichzeitig eingelesene Konten (0 = unbegrenzt) */
+    private int maxResidentAccounts;
+
+    /** Höchstens geschätzte Bytes aller eingelesenen Konten (0 = unbegrenzt) */
+    private long maxResidentBytes;
+
+    /** Abstand der periodischen Metrik-Ausgabe in Millisekunden (0 = keine Ausgabe) */
+    private long metricsDumpIntervalMillis;
+
+    /** Format der periodischen Metrik-Ausgabe */
+    private MetricsFormat metricsDumpFormat = MetricsFormat.TEXT;
+
+
+    /**
+     * @return {@code true}, wenn Änderungen im Journal {@code Konto_<account>.journal} angehängt werden
+     */
+    public boolean isJournaling() { return journaling; }
+
+    /**
+     * Aktiviert oder deaktiviert die Journal-Persistenz. Ist sie aktiv, hängt jede Änderung
+     * genau einen Eintrag an das Journal des Kontos an, anstatt die komplette Kontodatei neu
+     * zu schreiben. Beim Start wird das Journal über den letzten Snapshot
+     * ({@code Konto_<account>.json}) wiederhergestellt.
+     *
+     * @param journaling {@code true} für Journal-Persistenz
+     */
+    public void setJournaling(boolean journaling) { this.journaling = journaling; }
+
+    /** @return Abstand der Hintergrund-Kompaktierung in Millisekunden */
+    public long getCompactionIntervalMillis() { return compactionIntervalMillis; }
+
+    /**
+     * Legt fest, wie oft die Journale im Hintergrund geprüft und bei Erreichen eines
+     * Schwellwerts in einen neuen Snapshot gefaltet werden. Wirkt nur mit aktivem Journal.
+     *
+     * @param compactionIntervalMillis Abstand in Millisekunden, 0 deaktiviert die Hintergrund-Kompaktierung
+     */
+    public void setCompactionIntervalMillis(long compactionIntervalMillis) {
+        this.compactionIntervalMillis = compactionIntervalMillis;
+    }
+
+    /** @return Anzahl Journal-Einträge, ab der ein Konto kompaktiert wird */
+    public int getCompactionRecordThreshold() { return compactionRecordThreshold; }
+
+    /**
+     * @param compactionRecordThreshold Anzahl Journal-Einträge, ab der ein Konto kompaktiert wird (0 = ignorieren)
+     */
+    public void setCompactionRecordThreshold(int compactionRecordThreshold) {
+        this.compactionRecordThreshold = compactionRecordThreshold;
+    }
+
+    /** @return Journalgröße in Bytes, ab der ein Konto kompaktiert wird */
+    public long getCompactionByteThreshold() { return compactionByteThreshold; }
+
+    /**
+     * @param compactionByteThreshold Journalgröße in Bytes, ab der ein Konto kompaktiert wird (0 = ignorieren)
+     */
+    public void setCompactionByteThreshold(long compactionByteThreshold) {
+        this.compactionByteThreshold = compactionByteThreshold;
+    }
+
+    /** @return Anzahl Threads, mit denen die Kontodateien beim Start eingelesen werden */
+    public int getLoadParallelism() { return loadParallelism; }
+
+    /**
+     * Legt fest, wie viele Kontodateien beim Start gleichzeitig gelesen und geparst werden.
+     *
+     * @param loadParallelism Anzahl Threads, 1 liest die Dateien nacheinander
+     */
+    public void setLoadParallelism(int loadParallelism) {
+        if (loadParallelism < 1)
+            throw new IllegalArgumentException("Load parallelism must be at least 1");
+        this.loadParallelism = loadParallelism;
+    }
+
+    /** @return wann Änderungen geschrieben werden */
+    public DurabilityPolicy getDurabilityPolicy() { return durabilityPolicy; }
+
+    /**
+     * Legt fest, ob Änderungen sofort oder gesammelt geschrieben werden. Mit
+     * {@link DurabilityPolicy#INTERVAL} oder {@link DurabilityPolicy#ON_CLOSE} muss die Bank
+     * über {@link PrivateBank#close()} geschlossen werden, damit keine Änderungen verloren gehen.
+     *
+     * @param durabilityPolicy Schreibstrategie
+     */
+    public void setDurabilityPolicy(DurabilityPolicy durabilityPolicy) {
+        this.durabilityPolicy = Objects.requireNonNull(durabilityPolicy);
+    }
+
+    /** @return Abstand der Write-Behind-Schreibvorgänge in Millisekunden */
+    public long getFlushIntervalMillis() { return flushIntervalMillis; }
+
+    /**
+     * @param flushIntervalMillis Abstand der Write-Behind-Schreibvorgänge bei
+     *                            {@link DurabilityPolicy#INTERVAL} in Millisekunden
+     */
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        if (flushIntervalMillis <= 0)
+            throw new IllegalArgumentException("Flush interval must be positive");
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /** @return {@code true}, wenn Konten erst beim ersten Zugriff eingelesen werden */
+    public boolean isLazyLoading() { return lazyLoading; }
+
+    /**
+     * Aktiviert das verzögerte Einlesen. Beim Start werden dann nur die Dateinamen im
+     * Verzeichnis erfasst (genug für {@link PrivateBank#getAllAccounts()}); die Transaktionen
+     * eines Kontos werden erst beim ersten Zugriff auf das Konto eingelesen.
+     * {@link #getLoadParallelism()} wird in diesem Fall nicht verwendet.
+     *
+     * @param lazyLoading {@code true} für Einlesen bei Bedarf
+     */
+    public void setLazyLoading(boolean lazyLoading) { this.lazyLoading = lazyLoading; }
+
+    /** @return {@code true}, wenn die Transaktionen im Speicher spaltenweise abgelegt werden */
+    public boolean isColumnarStorage() { return columnarStorage; }
+
+    /**
+     * Legt die Transaktionen jedes Kontos in parallelen Arrays primitiver Werte statt als
+     * einzelne Objekte ab. Das spart Speicher und beschleunigt Kontostand, Filter und Sortierung;
+     * dafür werden Transaktionen bei jeder Abfrage neu erzeugt und Entfernen kostet O(n).
+     *
+     * @param columnarStorage {@code true} für spaltenweise Ablage
+     */
+    public void setColumnarStorage(boolean columnarStorage) { this.columnarStorage = columnarStorage; }
+
+    /** @return Dateiformat der Snapshots */
+    public StorageFormat getStorageFormat() { return storageFormat; }
+
+    /**
+     * Wählt das Dateiformat der Snapshots. Es werden nur Dateien des gewählten Formats
+     * gelesen; ein vorhandenes Verzeichnis im anderen Format wird vorher mit
+     * {@link AccountFileConverter} umgewandelt.
+     *
+     * @param storageFormat Dateiformat
+     */
+    public void setStorageFormat(StorageFormat storageFormat) {
+        this.storageFormat = Objects.requireNonNull(storageFormat);
+    }
+
+    /** @return höchstens gleichzeitig eingelesene Konten, 0 für unbegrenzt */
+    public int getMaxResidentAccounts() { return maxResidentAccounts; }
+
+    /**
+     * Begrenzt die Anzahl der gleichzeitig im Speicher gehaltenen Konten. Wird die Grenze
+     * überschritten, werden die am längsten nicht benutzten Konten geschrieben und
+     * freigegeben; beim nächsten Zugriff werden sie aus ihren Dateien neu eingelesen.
+     *
+     * @param maxResidentAccounts Anzahl Konten, 0 für unbegrenzt
+     */
+    public void setMaxResidentAccounts(int maxResidentAccounts) {
+        if (maxResidentAccounts < 0)
+            throw new IllegalArgumentException("Max resident accounts must not be negative");
+        this.maxResidentAccounts = maxResidentAccounts;
+    }
+
+    /** @return höchstens geschätzte Bytes aller eingelesenen Konten, 0 für unbegrenzt */
+    public long getMaxResidentBytes() { return maxResidentBytes; }
+
+    /**
+     * Begrenzt den geschätzten Speicherbedarf aller eingelesenen Konten, sonst wie
+     * {@link #setMaxResidentAccounts(int)}. Das zuletzt benutzte Konto bleibt immer eingelesen,
+     * auch wenn es allein größer ist.
+     *
+     * @param maxResidentBytes Bytes, 0 für unbegrenzt
+     */
+    public void setMaxResidentBytes(long maxResidentBytes) {
+        if (maxResidentBytes < 0)
+            throw new IllegalArgumentException("Max resident bytes must not be negative");
+        this.maxResidentBytes = maxResidentBytes;
+    }
+
+    /** @return Abstand der periodischen Metrik-Ausgabe in Millisekunden, 0 für keine */
+    public long getMetricsDumpIntervalMillis() { return metricsDumpIntervalMillis; }
+
+    /**
+     * Gibt die Metriken der Bank ({@link PrivateBank#getMetrics()}) periodisch in einem
+     * Daemon-Thread auf {@code System.out} aus, bis die Bank geschlossen wird.
+     *
+     * @param metricsDumpIntervalMillis Abstand in Millisekunden, 0 für keine Ausgabe
+     */
+    public void setMetricsDumpIntervalMillis(long metricsDumpIntervalMillis) {
+        if (metricsDumpIntervalMillis < 0)
+            throw new IllegalArgumentException("Metrics dump interval must not be negative");
+        this.metricsDumpIntervalMillis = metricsDumpIntervalMillis;
+    }
+
+    /** @return Format der periodischen Metrik-Ausgabe */
+    public MetricsFormat getMetricsDumpFormat() { return metricsDumpFormat; }
+
+    /**
+     * @param metricsDumpFormat Format der periodischen Metrik-Ausgabe
+     */
+    public void setMetricsDumpFormat(MetricsFormat metricsDumpFormat) {
+        this.metricsDumpFormat = Objects.requireNonNull(metricsDumpFormat);
+    }
+}
@@ -0,0 +1,405 @@
+package bank;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Snapshot-Dateien im Binärformat {@code Konto_<account>.bin}.
+ * <p>
+ * Aufbau (alle Zahlen big-endian):
+ * <pre>
+ * Kopf       int Kennung "PBK1", int Version, int Anzahl Datensätze, int Anzahl Zeichenketten
+ * Datensatz  byte Typ, byte Datumsform, int Datum, double Betrag, int Beschreibung,
+ *            Payment:  double Zins Einzahlung, double Zins Auszahlung, int Zinsversion
+ *            Transfer: int Sender, int Empfänger, 12 Byte Füllung
+ * Tabelle    je Zeichenkette int Länge in Bytes, UTF-8-Bytes
+ * </pre>
+ * Das Datum steht als Epochentag im Datensatz; die Datumsform merkt sich, ob es als
+ * {@code dd.MM.yyyy} oder ISO geschrieben war, damit es beim Lesen unverändert zurückkommt.
+ * Nur Datumsangaben, die sich so nicht darstellen lassen, stehen als Index in der Tabelle.
+ * Alle übrigen Zeichenketten werden als Index in die Tabelle gespeichert, {@code -1} steht
+ * für {@code null}. Jede Zeichenkette (z.B. ein wiederkehrender Empfänger) steht nur einmal
+ * in der Datei.
+ * <p>
+ * Gelesen wird über {@link FileChannel#map}, siehe {@link Mapped}: die Datensätze haben feste
+ * Länge und werden je Zeile direkt aus der Abbildung gelesen, die Tabelle erst beim ersten
+ * Zugriff auf eine Zeichenkette. Das Betriebssystem lädt nur die tatsächlich gelesenen Seiten.
+ */
+class BinaryAccountSnapshots extends AccountSnapshots {
+
+    /** Dateiendung der binären Snapshot-Dateien */
+    static final String SUFFIX = ".bin";
+
+    private static final int MAGIC = 0x50424B31;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 1 + 1 + 4 + 8 + 4 + 20;
+
+    static final byte PAYMENT = 0;
+    static final byte TRANSFER = 1;
+    static final byte INCOMING_TRANSFER = 2;
+    static final byte OUTGOING_TRANSFER = 3;
+
+    /** Datumsform: Index in die Tabelle */
+    private static final byte DATE_STRING = 0;
+    /** Datumsform: Epochentag, geschrieben als {@code dd.MM.yyyy} */
+    private static final byte DATE_GERMAN = 1;
+    /** Datumsform: Epochentag, geschrieben als {@code yyyy-MM-dd} */
+    private static final byte DATE_ISO = 2;
+
+    /**
+     * @param directory Verzeichnis, in dem die Kontodateien liegen
+     */
+    BinaryAccountSnapshots(Path directory) {
+        super(directory);
+    }
+
+    /**
+     * @param directory Verzeichnis, in dem die Kontodateien liegen
+     * @param pool      Pool für die gelesenen Zeichenketten, {@code null} für keinen
+     */
+    BinaryAccountSnapshots(Path directory, StringPool pool) {
+        super(directory, pool);
+    }
+
+    @Override
+    String suffix() {
+        return SUFFIX;
+    }
+
+    @Override
+    List<Transaction> read(String account) throws IOException {
+        Mapped snapshot = map(account);
+        if (snapshot == null) return new ArrayList<>();
+
+        List<Transaction> list = new ArrayList<>(snapshot.size());
+        try {
+            for (int row = 0; row < snapshot.size(); row++) list.add(snapshot.transaction(row));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return list;
+    }
+
+    /**
+     * Blendet den Snapshot eines Kontos ein, ohne Transaktionen zu erzeugen. Geprüft werden
+     * Kopf und Datensätze; die Tabelle erst beim ersten Zugriff auf eine Zeichenkette.
+     *
+     * @param account Kontoname
+     * @return eingeblendeter Snapshot, {@code null} wenn keiner existiert
+     * @throws IOException wenn die Datei nicht gelesen werden kann oder beschädigt ist
+     */
+    Mapped map(String account) throws IOException {
+        Path file = path(account);
+        if (!Files.exists(file)) return null;
+
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() == 0) return null;
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Kontodatei zu groß: " + file);
+            // die Abbildung bleibt nach dem Schließen des Kanals gültig
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return new Mapped(buffer, file, pool);
+    }
+
+    @Override
+    void write(String account, Collection<Transaction> transactions) throws IOException {
+        Path file = path(account);
+        Path tmp = tmpPath(file);
+
+        // Datumsform je Transaktion, Zeichenkettentabelle in Reihenfolge des ersten Vorkommens
+        byte[] forms = new byte[transactions.size()];
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        int n = 0;
+        for (Transaction t : transactions) {
+            forms[n] = dateForm(t);
+            if (forms[n++] == DATE_STRING) index(strings, t.getDate());
+            index(strings, t.getDescription());
+            if (t instanceof Transfer transfer) {
+                index(strings, transfer.getSender());
+                index(strings, transfer.getRecipient());
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(transactions.size());
+            out.writeInt(strings.size());
+
+            n = 0;
+            for (Transaction t : transactions) {
+                byte form = forms[n++];
+                out.writeByte(type(t));
+                out.writeByte(form);
+                out.writeInt(form == DATE_STRING ? index(strings, t.getDate()) : t.epochDay());
+                out.writeDouble(t.getAmount());
+                out.writeInt(index(strings, t.getDescription()));
+                if (t instanceof Transfer transfer) {
+                    out.writeInt(index(strings, transfer.getSender()));
+                    out.writeInt(index(strings, transfer.getRecipient()));
+                    out.writeLong(0);
+                    out.writeInt(0);
+                } else {
+                    Payment p = (Payment) t;
+                    out.writeDouble(p.getIncomingInterest());
+                    out.writeDouble(p.getOutgoingInterest());
+                    out.writeInt(p.getRateVersion());
+                }
+            }
+
+            for (String s : strings.keySet()) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+        replace(tmp, file);
+    }
+
+    /**
+     * @return {@link #DATE_GERMAN} oder {@link #DATE_ISO}, wenn sich das Datum aus dem
+     *         Epochentag genau so wieder erzeugen lässt, sonst {@link #DATE_STRING}
+     */
+    private static byte dateForm(Transaction t) {
+        int day = t.epochDay();
+        if (day == TransactionDates.UNKNOWN) return DATE_STRING;
+        if (t.getDate().equals(TransactionDates.format(day, false))) return DATE_GERMAN;
+        if (t.getDate().equals(TransactionDates.format(day, true))) return DATE_ISO;
+        return DATE_STRING;
+    }
+
+    private static int index(Map<String, Integer> strings, String s) {
+        if (s == null) return -1;
+        return strings.computeIfAbsent(s, k -> strings.size());
+    }
+
+    private static byte type(Transaction t) {
+        if (t instanceof IncomingTransfer) return INCOMING_TRANSFER;
+        if (t instanceof OutgoingTransfer) return OUTGOING_TRANSFER;
+        if (t instanceof Transfer) return TRANSFER;
+        if (t instanceof Payment) return PAYMENT;
+        throw new IllegalArgumentException("Unbekannter Transaktionstyp: " + t.getClass().getSimpleName());
+    }
+
+    /**
+     * Über {@link FileChannel#map} eingeblendete Snapshot-Datei.
+     * <p>
+     * Die Felder einer Zeile werden bei jedem Zugriff direkt aus der Abbildung gelesen. Die
+     * Tabelle wird erst beim ersten Zugriff auf eine Zeichenkette einmal durchlaufen; jede
+     * Zeichenkette wird beim ersten Lesen dekodiert und danach wiederverwendet. Wer nur Typ,
+     * Betrag, Zinsen und Epochentag liest (z.B. für den Kontostand), berührt die Tabelle nicht.
+     * <p>
+     * Nur lesend; mehrere Threads dürfen gleichzeitig lesen.
+     */
+    static final class Mapped {
+
+        private final ByteBuffer buffer;
+        private final Path file;
+        private final StringPool pool;
+        private final int size;
+        private final int tableStart;
+
+        /** Beginn jeder Zeichenkette in der Tabelle, {@code null} bis zum ersten Zugriff */
+        private volatile int[] offsets;
+
+        /** Bereits dekodierte Zeichenketten je Index */
+        private final String[] strings;
+
+        /** Zuletzt erzeugtes Datum; aufeinanderfolgende Transaktionen haben oft dasselbe */
+        private FormattedDate lastDate;
+
+        private record FormattedDate(int day, byte form, String date) {
+        }
+
+        private Mapped(ByteBuffer buffer, Path file, StringPool pool) throws IOException {
+            this.buffer = buffer;
+            this.file = file;
+            this.pool = pool;
+
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+                throw new IOException("Keine binäre Kontodatei: " + file);
+            if (buffer.getInt(4) != VERSION)
+                throw new IOException("Unbekannte Version " + buffer.getInt(4) + " in " + file);
+
+            size = buffer.getInt(8);
+            int stringCount = buffer.getInt(12);
+            if (size < 0 || stringCount < 0
+                    || (long) HEADER_SIZE + (long) size * RECORD_SIZE > buffer.capacity())
+                throw new IOException("Kontodatei ist beschädigt: " + file);
+            tableStart = HEADER_SIZE + size * RECORD_SIZE;
+            strings = new String[stringCount];
+
+            for (int row = 0; row < size; row++) {
+                int at = HEADER_SIZE + row * RECORD_SIZE;
+                byte type = buffer.get(at);
+                if (type < PAYMENT || type > OUTGOING_TRANSFER)
+                    throw new IOException("Unbekannter Transaktionstyp " + type + " in " + file);
+                byte form = buffer.get(at + 1);
+                if (form < DATE_STRING || form > DATE_ISO)
+                    throw new IOException("Unbekannte Datumsform " + form + " in " + file);
+
+                boolean valid = (form != DATE_STRING || checkIndex(buffer.getInt(at + 2)))
+                        && checkIndex(buffer.getInt(at + 14))
+                        && (type == PAYMENT || checkIndex(buffer.getInt(at + 18)) && checkIndex(buffer.getInt(at + 22)));
+                if (!valid) throw new IOException("Kontodatei ist beschädigt: " + file);
+            }
+        }
+
+        private boolean checkIndex(int index) {
+            return index >= -1 && index < strings.length;
+        }
+
+        /** @return Anzahl der Datensätze */
+        int size() {
+            return size;
+        }
+
+        /**
+         * @param row Zeile
+         * @return {@link #PAYMENT}, {@link #TRANSFER}, {@link #INCOMING_TRANSFER} oder
+         *         {@link #OUTGOING_TRANSFER}
+         */
+        byte type(int row) {
+            return buffer.get(at(row));
+        }
+
+        double amount(int row) {
+            return buffer.getDouble(at(row) + 6);
+        }
+
+        /** @return gebuchter Zinssatz für Einzahlungen, 0 für Transfers */
+        double incomingInterest(int row) {
+            return type(row) == PAYMENT ? buffer.getDouble(at(row) + 18) : 0;
+        }
+
+        /** @return gebuchter Zinssatz für Auszahlungen, 0 für Transfers */
+        double outgoingInterest(int row) {
+            return type(row) == PAYMENT ? buffer.getDouble(at(row) + 26) : 0;
+        }
+
+        /** @return gespeicherte Zinsversion, 0 für Transfers */
+        int rateVersion(int row) {
+            return type(row) == PAYMENT ? buffer.getInt(at(row) + 34) : 0;
+        }
+
+        /**
+         * Liest den Epochentag aus dem Datensatz; nur nicht darstellbare Datumsangaben werden
+         * aus der Tabelle gelesen und geparst.
+         *
+         * @param row Zeile
+         * @return Epochentag oder {@link TransactionDates#UNKNOWN}
+         */
+        int epochDay(int row) {
+            int at = at(row);
+            if (buffer.get(at + 1) != DATE_STRING) return buffer.getInt(at + 2);
+            String date = string(buffer.getInt(at + 2));
+            return date == null ? TransactionDates.UNKNOWN : TransactionDates.epochDay(date);
+        }
+
+        /**
+         * @param row Zeile
+         * @return Datum in der ursprünglichen Schreibweise
+         * @throws UncheckedIOException wenn die Tabelle beschädigt ist
+         */
+        String date(int row) {
+            int at = at(row);
+            byte form = buffer.get(at + 1);
+            int field = buffer.getInt(at + 2);
+            if (form == DATE_STRING) return string(field);
+
+            FormattedDate last = lastDate;
+            if (last != null && last.day() == field && last.form() == form) return last.date();
+            String formatted = TransactionDates.format(field, form == DATE_ISO);
+            if (pool != null) formatted = pool.intern(formatted);
+            lastDate = new FormattedDate(field, form, formatted);
+            return formatted;
+        }
+
+        /** @throws UncheckedIOException wenn die Tabelle beschädigt ist */
+        String description(int row) {
+            return string(buffer.getInt(at(row) + 14));
+        }
+
+        /** @return Sender, {@code null} für Payments */
+        String sender(int row) {
+            return type(row) == PAYMENT ? null : string(buffer.getInt(at(row) + 18));
+        }
+
+        /** @return Empfänger, {@code null} für Payments */
+        String recipient(int row) {
+            return type(row) == PAYMENT ? null : string(buffer.getInt(at(row) + 22));
+        }
+
+        /**
+         * @param row Zeile
+         * @return neu erzeugte Transaktion der Zeile; Payments tragen die gespeicherte Zinsversion
+         * @throws UncheckedIOException wenn die Tabelle beschädigt ist
+         */
+        Transaction transaction(int row) {
+            String date = date(row);
+            double amount = amount(row);
+            String description = description(row);
+            return switch (type(row)) {
+                case PAYMENT -> {
+                    Payment payment = new Payment(date, amount, description, incomingInterest(row), outgoingInterest(row));
+                    payment.setStoredRateVersion(rateVersion(row));
+                    yield payment;
+                }
+                case INCOMING_TRANSFER -> new IncomingTransfer(date, amount, description, sender(row), recipient(row));
+                case OUTGOING_TRANSFER -> new OutgoingTransfer(date, amount, description, sender(row), recipient(row));
+                default -> new Transfer(date, amount, description, sender(row), recipient(row));
+            };
+        }
+
+        private int at(int row) {
+            return HEADER_SIZE + row * RECORD_SIZE;
+        }
+
+        private String string(int index) {
+            if (index < 0) return null;
+            // Zeichenketten sind unveränderlich und dürfen ohne Sperre veröffentlicht werden
+            String s = strings[index];
+            if (s == null) {
+                int at = offsets()[index];
+                byte[] bytes = new byte[buffer.getInt(at)];
+                buffer.get(at + 4, bytes);
+                s = new String(bytes, StandardCharsets.UTF_8);
+                if (pool != null) s = pool.intern(s);
+                strings[index] = s;
+            }
+            return s;
+        }
+
+        /** Durchläuft die Tabelle beim ersten Zugriff einmal und merkt sich, wo jede Zeichenkette beginnt. */
+        private int[] offsets() {
+            int[] result = offsets;
+            if (result != null) return result;
+            synchronized (this) {
+                if (offsets != null) return offsets;
+
+                result = new int[strings.length];
+                long at = tableStart;
+                for (int i = 0; i < strings.length; i++) {
+                    if (at + 4 > buffer.capacity()) throw corrupt();
+                    int length = buffer.getInt((int) at);
+                    if (length < 0 || at + 4 + length > buffer.capacity()) throw corrupt();
+                    result[i] = (int) at;
+                    at += 4 + length;
+                }
+                offsets = result;
+                return result;
+            }
+        }
+
+        private UncheckedIOException corrupt() {
+            return new UncheckedIOException(new IOException("Kontodatei ist beschädigt: " + file));
+        }
+    }
+}
@@ -0,0 +1,586 @@
+package bank;
+
+import java.util.*;
+
+/**
+ * Spaltenweiser {@link TransactionStore}: statt eines Objekts je Transaktion liegen die
+ * Attribute in parallelen Arrays primitiver Werte, Zeichenketten werden über ein
+ * Wörterbuch als {@code int} kodiert.
+ * <ul>
+ *     <li>{@code byte[] types} Typ der Transaktion</li>
+ *     <li>{@code int[] dates} Datum als Code im Datumswörterbuch, das zu jedem Datum auch
+ *         den Epochentag führt (der Originaltext bleibt so unverändert erhalten)</li>
+ *     <li>{@code double[] amounts}, {@code incomingInterest}, {@code outgoingInterest}</li>
+ *     <li>{@code RateVersion[] rateVersions} Zinsversion der Payments, siehe {@link InterestRateTable}</li>
+ *     <li>{@code int[] descriptions}, {@code senders}, {@code recipients} als Wörterbuch-Codes</li>
+ * </ul>
+ * Kontostand, Filter nach Vorzeichen und Sortierung rechnen direkt auf den Spalten;
+ * {@link Transaction}-Objekte werden nur für die zurückgegebenen Ergebnisse erzeugt.
+ * Zurückgegebene Transaktionen sind deshalb gleiche, aber nicht dieselben Instanzen wie
+ * die hinzugefügten.
+ * <p>
+ * Die Duplikatprüfung nutzt eine offene Hashtabelle über die Zeilennummern. Entfernen
+ * verschiebt die nachfolgenden Zeilen und baut die Hashtabelle neu auf (O(n)).
+ * <p>
+ * Ein binärer Snapshot kann auch eingeblendet übernommen werden
+ * ({@link #loadMapped(BinaryAccountSnapshots.Mapped, InterestRateTable)}): die Zeilen werden
+ * dann direkt aus den Datensätzen der Datei gelesen, Zeichenketten erst, wenn eine
+ * Transaktion erzeugt wird. Erst beim ersten Einfügen oder Entfernen werden die Zeilen in
+ * die Spalten übernommen.
+ */
+class ColumnarTransactionStore implements TransactionStore {
+
+    // dieselbe Kodierung wie in der Binärdatei, damit eingeblendete Zeilen direkt passen
+    private static final byte PAYMENT = BinaryAccountSnapshots.PAYMENT;
+    private static final byte TRANSFER = BinaryAccountSnapshots.TRANSFER;
+    private static final byte INCOMING_TRANSFER = BinaryAccountSnapshots.INCOMING_TRANSFER;
+    private static final byte OUTGOING_TRANSFER = BinaryAccountSnapshots.OUTGOING_TRANSFER;
+
+    /** Geschätzte Bytes je Zeile über alle Spalten */
+    private static final int ROW_BYTES = 1 + 4 + 8 + 8 + 8 + 4 + 4 + 4 + 4 + 4;
+
+    private int size;
+    private byte[] types;
+    private int[] dates;
+    private double[] amounts;
+    private double[] incomingInterest;
+    private double[] outgoingInterest;
+    /** Zinsversion je Zeile, {@code null} für Transfers und unverknüpfte Payments */
+    private RateVersion[] rateVersions;
+    private int[] descriptions;
+    private int[] senders;
+    private int[] recipients;
+    /** {@link Transaction#hashCode()} je Zeile, für Hashtabelle und schnellen Vergleich */
+    private int[] hashes;
+
+    /** Offene Hashtabelle: Zeile + 1, 0 für leer */
+    private int[] slots;
+
+    private final Dictionary dateDictionary = new Dictionary();
+    private final Dictionary strings = new Dictionary();
+
+    /** Epochentag je Code in {@link #dateDictionary} */
+    private int[] epochDays = new int[16];
+
+    /**
+     * Eingeblendeter Snapshot, aus dem die Zeilen gelesen werden, solange sie nicht in die
+     * Spalten übernommen sind; bis dahin ist nur {@link #rateVersions} belegt
+     */
+    private BinaryAccountSnapshots.Mapped mapped;
+
+    ColumnarTransactionStore() {
+        allocate(16);
+    }
+
+    private void allocate(int capacity) {
+        types = new byte[capacity];
+        dates = new int[capacity];
+        amounts = new double[capacity];
+        incomingInterest = new double[capacity];
+        outgoingInterest = new double[capacity];
+        rateVersions = new RateVersion[capacity];
+        descriptions = new int[capacity];
+        senders = new int[capacity];
+        recipients = new int[capacity];
+        hashes = new int[capacity];
+        slots = new int[capacity * 2];
+    }
+
+    /**
+     * Übernimmt einen eingeblendeten Snapshot, ohne Transaktionen zu erzeugen. Die Payments
+     * werden sofort mit ihrer Zinsversion verknüpft. Bisherige Zeilen werden verworfen.
+     *
+     * @param snapshot eingeblendeter Snapshot; Duplikate enthält er nicht, er wurde aus einem
+     *                 Speicher ohne Duplikate geschrieben
+     * @param rates    Zinstabelle der Bank
+     */
+    void loadMapped(BinaryAccountSnapshots.Mapped snapshot, InterestRateTable rates) {
+        clear();
+        RateVersion[] versions = new RateVersion[snapshot.size()];
+        RateVersion last = null;
+        for (int row = 0; row < versions.length; row++) {
+            if (snapshot.type(row) != BinaryAccountSnapshots.PAYMENT) continue;
+            int number = snapshot.rateVersion(row);
+            RateVersion.Rates booked = new RateVersion.Rates(snapshot.incomingInterest(row), snapshot.outgoingInterest(row));
+            // aufeinanderfolgende Payments wurden meist mit derselben Version gebucht
+            if (last == null || last.number() != number || !last.booked().equals(booked))
+                last = rates.versionFor(number, booked.incoming(), booked.outgoing());
+            versions[row] = last;
+        }
+        rateVersions = versions;
+        mapped = snapshot;
+        size = snapshot.size();
+    }
+
+    /**
+     * Übernimmt die Zeilen eines eingeblendeten Snapshots in die Spalten. Nur von
+     * verändernden Methoden aufrufen, die unter der Schreibsperre des Kontos laufen.
+     */
+    private void inflate() {
+        if (mapped == null) return;
+
+        BinaryAccountSnapshots.Mapped snapshot = mapped;
+        RateVersion[] versions = rateVersions;
+        int rows = size;
+        int capacity = 16;
+        while (capacity < rows) capacity <<= 1;
+
+        mapped = null;
+        size = 0;
+        allocate(capacity);
+        for (int row = 0; row < rows; row++) {
+            Transaction t = snapshot.transaction(row);
+            if (t instanceof Payment p) p.linkRateVersion(versions[row]);
+            add(t);
+        }
+    }
+
+    /**
+     * Solange ein Snapshot eingeblendet ist, werden die Zeilen linear verglichen, damit ein
+     * Aufruf unter der Lesesperre nichts verändert.
+     */
+    @Override
+    public boolean contains(Transaction transaction) {
+        if (mapped == null) return find(transaction) >= 0;
+
+        double amount = transaction.getAmount();
+        for (int row = 0; row < size; row++) {
+            if (mapped.amount(row) == amount && materialize(row).equals(transaction)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean add(Transaction transaction) {
+        byte type = type(transaction);
+        inflate();
+        if (find(transaction) >= 0) return false;
+
+        if (size == types.length) grow();
+        int row = size++;
+        types[row] = type;
+        dates[row] = dateCode(transaction.getDate());
+        amounts[row] = transaction.getAmount();
+        descriptions[row] = strings.code(transaction.getDescription());
+        if (transaction instanceof Transfer t) {
+            senders[row] = strings.code(t.getSender());
+            recipients[row] = strings.code(t.getRecipient());
+            incomingInterest[row] = 0;
+            outgoingInterest[row] = 0;
+            rateVersions[row] = null;
+        } else {
+            Payment p = (Payment) transaction;
+            incomingInterest[row] = p.getIncomingInterest();
+            outgoingInterest[row] = p.getOutgoingInterest();
+            rateVersions[row] = p.rateVersion();
+            senders[row] = -1;
+            recipients[row] = -1;
+        }
+        hashes[row] = transaction.hashCode();
+        insertSlot(row);
+        return true;
+    }
+
+    @Override
+    public Transaction remove(Transaction transaction) {
+        inflate();
+        int row = find(transaction);
+        if (row < 0) return null;
+
+        Transaction stored = materialize(row);
+        int tail = size - row - 1;
+        System.arraycopy(types, row + 1, types, row, tail);
+        System.arraycopy(dates, row + 1, dates, row, tail);
+        System.arraycopy(amounts, row + 1, amounts, row, tail);
+        System.arraycopy(incomingInterest, row + 1, incomingInterest, row, tail);
+        System.arraycopy(outgoingInterest, row + 1, outgoingInterest, row, tail);
+        System.arraycopy(rateVersions, row + 1, rateVersions, row, tail);
+        rateVersions[size - 1] = null;
+        System.arraycopy(descriptions, row + 1, descriptions, row, tail);
+        System.arraycopy(senders, row + 1, senders, row, tail);
+        System.arraycopy(recipients, row + 1, recipients, row, tail);
+        System.arraycopy(hashes, row + 1, hashes, row, tail);
+        size--;
+        rebuildSlots();
+        return stored;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        mapped = null;
+        size = 0;
+        allocate(16);
+        dateDictionary.clear();
+        strings.clear();
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return (long) types.length * ROW_BYTES + slots.length * 4L
+                + dateDictionary.estimatedBytes() + strings.estimatedBytes() + epochDays.length * 4L
+                + (mapped == null ? 0 : rateVersions.length * 4L);
+    }
+
+    @Override
+    public List<Transaction> toList() {
+        List<Transaction> list = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) list.add(materialize(row));
+        return list;
+    }
+
+    @Override
+    public Iterator<Transaction> iterator() {
+        return new Iterator<>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return row < size;
+            }
+
+            @Override
+            public Transaction next() {
+                if (row >= size) throw new NoSuchElementException();
+                return materialize(row++);
+            }
+        };
+    }
+
+    /**
+     * Berechnet die Beträge wie die jeweilige {@link Transaction#calculate()}-Methode, aber
+     * direkt aus den Spalten.
+     */
+    @Override
+    public double[] calculatedAmounts() {
+        double[] values = new double[size];
+        for (int row = 0; row < size; row++) values[row] = calculate(row);
+        return values;
+    }
+
+    /** Liest die Epochentage aus dem Datumswörterbuch, ohne Daten erneut zu parsen. */
+    @Override
+    public int[] epochDays() {
+        int[] days = new int[size];
+        for (int row = 0; row < size; row++) days[row] = epochDay(row);
+        return days;
+    }
+
+    /**
+     * Sortiert Zeilennummern über die berechneten Beträge (stabil wie {@link List#sort}) und
+     * erzeugt erst danach die Transaktionen.
+     */
+    @Override
+    public List<Transaction> sorted(boolean asc) {
+        List<Transaction> list = new ArrayList<>(size);
+        for (int row : sortedRows(asc)) list.add(materialize(row));
+        return list;
+    }
+
+    /** @return Zeilennummern stabil nach berechnetem Betrag sortiert */
+    private int[] sortedRows(boolean asc) {
+        double[] values = calculatedAmounts();
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        mergeSort(order, new int[size], values, asc);
+        return order;
+    }
+
+    /** Sortiert nur die Zeilennummern; Transaktionen entstehen erst beim Lesen. */
+    @Override
+    public Iterator<Transaction> sortedIterator(boolean asc) {
+        int[] order = sortedRows(asc);
+        return new Iterator<>() {
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < order.length;
+            }
+
+            @Override
+            public Transaction next() {
+                if (i >= order.length) throw new NoSuchElementException();
+                return materialize(order[i++]);
+            }
+        };
+    }
+
+    /** Liest Betrag, Datum und Typ direkt aus den Spalten, ohne Transaktionen zu erzeugen. */
+    @Override
+    public void summarize(SummaryCollector collector) {
+        for (int row = 0; row < size; row++) {
+            Class<? extends Transaction> type = switch (type(row)) {
+                case PAYMENT -> Payment.class;
+                case INCOMING_TRANSFER -> IncomingTransfer.class;
+                case OUTGOING_TRANSFER -> OutgoingTransfer.class;
+                default -> Transfer.class;
+            };
+            collector.add(calculate(row), epochDay(row), type);
+        }
+    }
+
+    /** Wählt Zeilennummern direkt aus den Spalten aus und erzeugt nur die {@code k} Ergebnisse. */
+    @Override
+    public List<Transaction> top(boolean asc, int k) {
+        TopK<Void> top = new TopK<>(k, size, asc);
+        for (int row = 0; row < size; row++) top.offer(calculate(row), row, null);
+
+        int[] rows = top.sortedPositions();
+        List<Transaction> list = new ArrayList<>(rows.length);
+        for (int row : rows) list.add(materialize(row));
+        return list;
+    }
+
+    /** Erzeugt nur die Transaktionen des Ausschnitts. */
+    @Override
+    public List<Transaction> page(int offset, int limit) {
+        int from = Math.min(offset, size);
+        int to = (int) Math.min((long) from + limit, size);
+        List<Transaction> page = new ArrayList<>(to - from);
+        for (int row = from; row < to; row++) page.add(materialize(row));
+        return page;
+    }
+
+    /** Sortiert die Zeilennummern und erzeugt nur die Transaktionen des Ausschnitts. */
+    @Override
+    public List<Transaction> sortedPage(boolean asc, int offset, int limit) {
+        int[] order = sortedRows(asc);
+        int from = Math.min(offset, size);
+        int to = (int) Math.min((long) from + limit, size);
+        List<Transaction> page = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) page.add(materialize(order[i]));
+        return page;
+    }
+
+    @Override
+    public List<Transaction> byType(boolean positive) {
+        List<Transaction> result = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            double value = calculate(row);
+            if (positive && value >= 0) result.add(materialize(row));
+            if (!positive && value < 0) result.add(materialize(row));
+        }
+        return result;
+    }
+
+    private double calculate(int row) {
+        double amount = mapped == null ? amounts[row] : mapped.amount(row);
+        return switch (type(row)) {
+            case PAYMENT -> {
+                RateVersion version = rateVersions[row];
+                if (version == null) {
+                    double incoming = mapped == null ? incomingInterest[row] : mapped.incomingInterest(row);
+                    double outgoing = mapped == null ? outgoingInterest[row] : mapped.outgoingInterest(row);
+                    yield amount > 0 ? amount * (1 + incoming) : amount * (1 + outgoing);
+                }
+                RateVersion.Rates rates = version.effective();
+                yield amount * (1 + (amount > 0 ? rates.incoming() : rates.outgoing()));
+            }
+            case OUTGOING_TRANSFER -> -amount;
+            default -> amount;
+        };
+    }
+
+    private Transaction materialize(int row) {
+        if (mapped != null) {
+            Transaction t = mapped.transaction(row);
+            if (t instanceof Payment p) p.linkRateVersion(rateVersions[row]);
+            return t;
+        }
+
+        String date = dateDictionary.value(dates[row]);
+        String description = strings.value(descriptions[row]);
+        return switch (types[row]) {
+            case PAYMENT -> {
+                Payment p = new Payment(date, amounts[row], description, incomingInterest[row], outgoingInterest[row]);
+                p.linkRateVersion(rateVersions[row]);
+                yield p;
+            }
+            case INCOMING_TRANSFER -> new IncomingTransfer(date, amounts[row], description,
+                    strings.value(senders[row]), strings.value(recipients[row]));
+            case OUTGOING_TRANSFER -> new OutgoingTransfer(date, amounts[row], description,
+                    strings.value(senders[row]), strings.value(recipients[row]));
+            default -> new Transfer(date, amounts[row], description,
+                    strings.value(senders[row]), strings.value(recipients[row]));
+        };
+    }
+
+    /** @return Zeile einer gleichen Transaktion oder -1 */
+    private int find(Transaction transaction) {
+        int hash = transaction.hashCode();
+        int mask = slots.length - 1;
+        for (int i = mix(hash) & mask; slots[i] != 0; i = (i + 1) & mask) {
+            int row = slots[i] - 1;
+            if (hashes[row] == hash && rowEquals(row, transaction)) return row;
+        }
+        return -1;
+    }
+
+    /** Vergleicht wie {@link Payment#equals(Object)} bzw. {@link Transfer#equals(Object)}. */
+    private boolean rowEquals(int row, Transaction t) {
+        if (amounts[row] != t.getAmount()) return false;
+        if (dates[row] != dateDictionary.find(t.getDate())) return false;
+        if (descriptions[row] != strings.find(t.getDescription())) return false;
+
+        if (t instanceof Payment p) {
+            return types[row] == PAYMENT
+                    && Double.compare(incomingInterest[row], p.getIncomingInterest()) == 0
+                    && Double.compare(outgoingInterest[row], p.getOutgoingInterest()) == 0;
+        }
+        Transfer transfer = (Transfer) t;
+        return types[row] != PAYMENT
+                && senders[row] == strings.find(transfer.getSender())
+                && recipients[row] == strings.find(transfer.getRecipient());
+    }
+
+    private void insertSlot(int row) {
+        // slots ist immer mindestens doppelt so groß wie die Spalten, siehe rebuildSlots()
+        int mask = slots.length - 1;
+        int i = mix(hashes[row]) & mask;
+        while (slots[i] != 0) i = (i + 1) & mask;
+        slots[i] = row + 1;
+    }
+
+    private void rebuildSlots() {
+        int capacity = 16;
+        while (capacity < size * 2) capacity <<= 1;
+        slots = new int[Math.max(capacity, types.length * 2)];
+        int mask = slots.length - 1;
+        for (int row = 0; row < size; row++) {
+            int i = mix(hashes[row]) & mask;
+            while (slots[i] != 0) i = (i + 1) & mask;
+            slots[i] = row + 1;
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private void grow() {
+        int capacity = types.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        dates = Arrays.copyOf(dates, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        incomingInterest = Arrays.copyOf(incomingInterest, capacity);
+        outgoingInterest = Arrays.copyOf(outgoingInterest, capacity);
+        rateVersions = Arrays.copyOf(rateVersions, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        senders = Arrays.copyOf(senders, capacity);
+        recipients = Arrays.copyOf(recipients, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        rebuildSlots();
+    }
+
+    private int dateCode(String date) {
+        int known = dateDictionary.size();
+        int code = dateDictionary.code(date);
+        if (dateDictionary.size() > known) {
+            if (code >= epochDays.length) epochDays = Arrays.copyOf(epochDays, epochDays.length * 2);
+            epochDays[code] = TransactionDates.epochDay(date);
+        }
+        return code;
+    }
+
+    /**
+     * @param row Zeile
+     * @return Epochentag des Datums oder {@link TransactionDates#UNKNOWN}
+     */
+    int epochDay(int row) {
+        if (mapped != null) return mapped.epochDay(row);
+        return dates[row] < 0 ? TransactionDates.UNKNOWN : epochDays[dates[row]];
+    }
+
+    /** @return Typ der Zeile, aus den Spalten oder dem eingeblendeten Snapshot */
+    private byte type(int row) {
+        return mapped == null ? types[row] : mapped.type(row);
+    }
+
+    private static byte type(Transaction t) {
+        if (t instanceof IncomingTransfer) return INCOMING_TRANSFER;
+        if (t instanceof OutgoingTransfer) return OUTGOING_TRANSFER;
+        if (t instanceof Transfer) return TRANSFER;
+        if (t instanceof Payment) return PAYMENT;
+        throw new IllegalArgumentException("Unbekannter Transaktionstyp: " + t.getClass().getSimpleName());
+    }
+
+    /**
+     * Stabile Mergesort-Variante über Zeilennummern; Gleichstände behalten die
+     * Einfügereihenfolge, absteigend wie {@code Double.compare(b, a)}.
+     */
+    private static void mergeSort(int[] order, int[] buffer, double[] values, boolean asc) {
+        int n = order.length;
+        int[] from = order;
+        int[] to = buffer;
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n; lo += 2 * width) {
+                int mid = Math.min(lo + width, n);
+                int hi = Math.min(lo + 2 * width, n);
+                int left = lo;
+                int right = mid;
+                for (int k = lo; k < hi; k++) {
+                    boolean takeLeft = right >= hi || (left < mid && compare(values[from[left]], values[from[right]], asc) <= 0);
+                    to[k] = takeLeft ? from[left++] : from[right++];
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != order) System.arraycopy(from, 0, order, 0, n);
+    }
+
+    private static int compare(double a, double b, boolean asc) {
+        return asc ? Double.compare(a, b) : Double.compare(b, a);
+    }
+
+    /** Wörterbuch für Zeichenketten; Codes werden fortlaufend vergeben und nie wiederverwendet. */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private long estimatedBytes;
+
+        /** @return Code der Zeichenkette, neu vergeben falls nötig; -1 für {@code null} */
+        int code(String value) {
+            if (value == null) return -1;
+            Integer code = codes.get(value);
+            if (code != null) return code;
+
+            codes.put(value, values.size());
+            values.add(value);
+            estimatedBytes += 40 + value.length() + 48;
+            return values.size() - 1;
+        }
+
+        /** @return Code der Zeichenkette, -1 für {@code null}, -2 wenn sie nicht vorkommt */
+        int find(String value) {
+            if (value == null) return -1;
+            Integer code = codes.get(value);
+            return code == null ? -2 : code;
+        }
+
+        String value(int code) {
+            return code < 0 ? null : values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        long estimatedBytes() {
+            return estimatedBytes;
+        }
+
+        void clear() {
+            codes.clear();
+            values.clear();
+            estimatedBytes = 0;
+        }
+    }
+}
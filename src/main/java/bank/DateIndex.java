@@ -0,0 +1,114 @@
+package bank;
+
+import java.util.*;
+
+/**
+ * Nach Datum sortierter Index über die Transaktionen eines Kontos mit Präfixsummen der
+ * berechneten Beträge. Zeitraumabfragen und Kontostände zu einem Stichtag kosten damit
+ * O(log n) für die Suche (plus die Größe des Ergebnisses).
+ * <p>
+ * Transaktionen mit gleichem Datum bleiben in Einfügereihenfolge. Transaktionen, deren
+ * Datum sich nicht lesen lässt, werden nicht aufgenommen.
+ * <p>
+ * Der Index wird vom {@link AccountLedger} bei Bedarf gebaut. Transaktionen, die nicht vor
+ * der letzten liegen (der übliche Fall), hängt er in O(1) an; jede andere Änderung
+ * verwirft den Index.
+ */
+class DateIndex {
+
+    private Transaction[] transactions;
+    private int[] days;
+    /** prefix[i] = Summe der berechneten Beträge der ersten i Transaktionen */
+    private double[] prefix;
+    private int size;
+
+    private DateIndex(int capacity) {
+        transactions = new Transaction[Math.max(capacity, 16)];
+        days = new int[transactions.length];
+        prefix = new double[transactions.length + 1];
+    }
+
+    /**
+     * Baut den Index über die Transaktionen eines Speichers.
+     *
+     * @param store Transaktionen in Einfügereihenfolge
+     * @return neuer Index
+     */
+    static DateIndex build(TransactionStore store) {
+        List<Transaction> list = store.toList();
+        int[] epochDays = store.epochDays();
+        double[] values = store.calculatedAmounts();
+
+        // Epochentag und Einfügeposition in einem long: sortiert nach Datum, dann stabil
+        long[] keys = new long[list.size()];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (epochDays[i] != TransactionDates.UNKNOWN) keys[n++] = ((long) epochDays[i] << 32) | i;
+        }
+        Arrays.sort(keys, 0, n);
+
+        DateIndex index = new DateIndex(n);
+        for (int k = 0; k < n; k++) {
+            int i = (int) keys[k];
+            index.append(list.get(i), epochDays[i], values[i]);
+        }
+        return index;
+    }
+
+    /**
+     * Hängt eine Transaktion an, sofern sie nicht vor der letzten liegt.
+     *
+     * @param transaction Transaktion
+     * @param epochDay    ihr Datum als Epochentag
+     * @param value       ihr berechneter Betrag
+     * @return {@code false}, wenn sie nicht angehängt werden kann und der Index neu gebaut werden muss
+     */
+    boolean append(Transaction transaction, int epochDay, double value) {
+        if (epochDay == TransactionDates.UNKNOWN) return true;
+        if (size > 0 && epochDay < days[size - 1]) return false;
+
+        if (size == transactions.length) {
+            int capacity = transactions.length * 2;
+            transactions = Arrays.copyOf(transactions, capacity);
+            days = Arrays.copyOf(days, capacity);
+            prefix = Arrays.copyOf(prefix, capacity + 1);
+        }
+        transactions[size] = transaction;
+        days[size] = epochDay;
+        prefix[size + 1] = prefix[size] + value;
+        size++;
+        return true;
+    }
+
+    /**
+     * @param fromDay erster Tag (einschließlich)
+     * @param toDay   letzter Tag (einschließlich)
+     * @return Transaktionen im Zeitraum, nach Datum sortiert
+     */
+    List<Transaction> between(int fromDay, int toDay) {
+        if (fromDay > toDay) return new ArrayList<>();
+        int from = lowerBound(fromDay);
+        int to = lowerBound((long) toDay + 1);
+        return new ArrayList<>(Arrays.asList(transactions).subList(from, to));
+    }
+
+    /**
+     * @param day Stichtag (einschließlich)
+     * @return Summe der berechneten Beträge aller Transaktionen bis zum Stichtag
+     */
+    double sumUpTo(int day) {
+        return prefix[lowerBound((long) day + 1)];
+    }
+
+    /** @return erste Position mit einem Datum ab {@code day} */
+    private int lowerBound(long day) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (days[mid] < day) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
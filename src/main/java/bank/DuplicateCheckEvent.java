@@ -0,0 +1,26 @@
+package bank;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Duplikatprüfung beim Hinzufügen, einschließlich des Einfügens in den Index des Kontos.
+ * {@code transactions} und {@code bytes} beschreiben das Konto (Anzahl und geschätzter
+ * Speicherbedarf) nach der Prüfung.
+ */
+@Name("bank.DuplicateCheck")
+@Label("Duplicate Check")
+@Description("Checking new transactions against an account and inserting them")
+@StackTrace(false)
+class DuplicateCheckEvent extends AccountEvent {
+
+    @Label("Checked")
+    @Description("Transactions checked in this call")
+    int checked;
+
+    @Label("Duplicates")
+    @Description("Checked transactions that already existed")
+    int duplicates;
+}
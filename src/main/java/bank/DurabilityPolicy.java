@@ -0,0 +1,24 @@
+package bank;
+
+/**
+ * Legt fest, wann Änderungen an Konten auf die Platte geschrieben werden.
+ */
+public enum DurabilityPolicy {
+
+    /** Jede Änderung wird sofort im Thread des Aufrufers geschrieben (Standard). */
+    EVERY_WRITE,
+
+    /**
+     * Änderungen markieren das Konto nur als geändert; ein Hintergrund-Thread schreibt alle
+     * geänderten Konten im Abstand von {@link BankOptions#getFlushIntervalMillis()}, je Konto
+     * mit einem Schreibvorgang. Bei einem Absturz gehen höchstens die Änderungen eines
+     * Intervalls verloren.
+     */
+    INTERVAL,
+
+    /**
+     * Änderungen werden nur bei {@link PrivateBank#flush()} oder {@link PrivateBank#close()}
+     * geschrieben.
+     */
+    ON_CLOSE
+}
@@ -0,0 +1,213 @@
+package bank;
+
+import java.util.*;
+
+/**
+ * Objektbasierter {@link TransactionStore}: die Transaktionen liegen in einer
+ * {@link LinkedHashMap} (Transaktion auf gespeicherte Instanz), die zugleich Liste und
+ * Hash-Index ist. Duplikatprüfung, Einfügen und Entfernen laufen in konstanter Zeit.
+ * Transaktionen dürfen nicht verändert werden, solange sie gespeichert sind, da sich sonst
+ * ihr {@link Transaction#hashCode()} ändert.
+ * <p>
+ * Für {@link #sorted(boolean)} wird beim ersten Aufruf eine nach berechnetem Betrag
+ * sortierte Sicht aufgebaut und danach bei jedem Einfügen und Entfernen in O(log n)
+ * mitgeführt. Sortierte Abfragen kopieren dann nur noch in O(n), ohne zu vergleichen oder
+ * {@link Transaction#calculate()} aufzurufen.
+ */
+class HashTransactionStore implements TransactionStore {
+
+    private final LinkedHashMap<Transaction, Transaction> transactions = new LinkedHashMap<>();
+
+    /** Geschätzter Speicherbedarf der Transaktionen in Bytes */
+    private long estimatedBytes;
+
+    /** Nach berechnetem Betrag und Einfügereihenfolge sortierte Sicht, {@code null} bis zur ersten Abfrage */
+    private volatile TreeMap<SortKey, Transaction> byAmount;
+
+    /**
+     * Schlüssel jeder gespeicherten Instanz in {@link #byAmount}, damit {@link #remove(Transaction)}
+     * den Eintrag direkt findet; wird zusammen mit der sortierten Sicht aufgebaut und verworfen
+     */
+    private IdentityHashMap<Transaction, SortKey> sortKeys;
+
+    /** Nächste Einfügenummer für {@link #byAmount} */
+    private long nextSequence;
+
+    /**
+     * Schlüssel der sortierten Sicht: gleiche Beträge bleiben in Einfügereihenfolge, wie bei
+     * einer stabilen Sortierung der Liste.
+     */
+    private record SortKey(double value, long sequence) implements Comparable<SortKey> {
+        @Override
+        public int compareTo(SortKey other) {
+            int c = Double.compare(value, other.value);
+            return c != 0 ? c : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    @Override
+    public boolean contains(Transaction transaction) {
+        return transactions.containsKey(transaction);
+    }
+
+    @Override
+    public boolean add(Transaction transaction) {
+        if (transactions.putIfAbsent(transaction, transaction) != null) return false;
+        estimatedBytes += estimateBytes(transaction);
+
+        TreeMap<SortKey, Transaction> view = byAmount;
+        if (view != null) {
+            SortKey key = new SortKey(transaction.calculate(), nextSequence++);
+            view.put(key, transaction);
+            sortKeys.put(transaction, key);
+        }
+        return true;
+    }
+
+    @Override
+    public Transaction remove(Transaction transaction) {
+        Transaction stored = transactions.remove(transaction);
+        if (stored == null) return null;
+        estimatedBytes -= estimateBytes(stored);
+
+        TreeMap<SortKey, Transaction> view = byAmount;
+        if (view != null) view.remove(sortKeys.remove(stored));
+        return stored;
+    }
+
+    @Override
+    public int size() {
+        return transactions.size();
+    }
+
+    @Override
+    public void clear() {
+        transactions.clear();
+        estimatedBytes = 0;
+        byAmount = null;
+        sortKeys = null;
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    @Override
+    public List<Transaction> toList() {
+        return new ArrayList<>(transactions.keySet());
+    }
+
+    /** Verwirft die sortierte Sicht; sie wird bei der nächsten Abfrage neu aufgebaut. */
+    @Override
+    public void invalidateAmounts() {
+        byAmount = null;
+        sortKeys = null;
+    }
+
+    /** Kopiert die mitgeführte sortierte Sicht, siehe {@link #sortedIterator(boolean)}. */
+    @Override
+    public List<Transaction> sorted(boolean asc) {
+        if (asc) return new ArrayList<>(sortedView().values());
+
+        List<Transaction> sorted = new ArrayList<>(size());
+        sortedIterator(false).forEachRemaining(sorted::add);
+        return sorted;
+    }
+
+    /** Liest die sortierte Sicht, falls sie schon aufgebaut ist, sonst über einen beschränkten Heap. */
+    @Override
+    public List<Transaction> top(boolean asc, int k) {
+        return byAmount != null ? sortedPage(asc, 0, k) : TransactionStore.super.top(asc, k);
+    }
+
+    /**
+     * Liest die mitgeführte sortierte Sicht ohne Kopie. Absteigend wird sie rückwärts gelesen,
+     * wobei gleiche Beträge wie bei {@code Double.compare(b, a)} in Einfügereihenfolge bleiben.
+     */
+    @Override
+    public Iterator<Transaction> sortedIterator(boolean asc) {
+        TreeMap<SortKey, Transaction> view = sortedView();
+        if (asc) return Collections.unmodifiableCollection(view.values()).iterator();
+
+        Iterator<Map.Entry<SortKey, Transaction>> entries = view.descendingMap().entrySet().iterator();
+        return new Iterator<>() {
+            /** Gleiche Beträge in absteigender Einfügereihenfolge, wird von hinten gelesen */
+            private final List<Transaction> run = new ArrayList<>();
+            private int next = -1;
+            private Map.Entry<SortKey, Transaction> pending = entries.hasNext() ? entries.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0 || pending != null;
+            }
+
+            @Override
+            public Transaction next() {
+                if (next < 0) {
+                    if (pending == null) throw new NoSuchElementException();
+                    double value = pending.getKey().value();
+                    run.clear();
+                    run.add(pending.getValue());
+                    pending = null;
+                    while (entries.hasNext()) {
+                        Map.Entry<SortKey, Transaction> entry = entries.next();
+                        if (Double.compare(entry.getKey().value(), value) != 0) {
+                            pending = entry;
+                            break;
+                        }
+                        run.add(entry.getValue());
+                    }
+                    next = run.size() - 1;
+                }
+                return run.get(next--);
+            }
+        };
+    }
+
+    /** Baut die sortierte Sicht bei Bedarf; darf von mehreren Lesern gleichzeitig aufgerufen werden. */
+    private TreeMap<SortKey, Transaction> sortedView() {
+        TreeMap<SortKey, Transaction> view = byAmount;
+        if (view == null) {
+            synchronized (this) {
+                view = byAmount;
+                if (view == null) {
+                    view = new TreeMap<>();
+                    IdentityHashMap<Transaction, SortKey> keys = new IdentityHashMap<>(transactions.size());
+                    for (Transaction t : transactions.keySet()) {
+                        SortKey key = new SortKey(t.calculate(), nextSequence++);
+                        view.put(key, t);
+                        keys.put(t, key);
+                    }
+                    sortKeys = keys;
+                    byAmount = view;
+                }
+            }
+        }
+        return view;
+    }
+
+    @Override
+    public Iterator<Transaction> iterator() {
+        return Collections.unmodifiableSet(transactions.keySet()).iterator();
+    }
+
+    /**
+     * Grobe Schätzung des Speicherbedarfs einer Transaktion samt Map-Eintrag: feste Anteile
+     * für Objektköpfe und Felder, dazu je ein String mit einem Byte pro Zeichen.
+     *
+     * @param transaction Transaktion
+     * @return geschätzte Bytes
+     */
+    static long estimateBytes(Transaction transaction) {
+        long bytes = 96 + stringBytes(transaction.getDate()) + stringBytes(transaction.getDescription());
+        if (transaction instanceof Transfer t) {
+            bytes += stringBytes(t.getSender()) + stringBytes(t.getRecipient());
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String s) {
+        return s == null ? 0 : 40 + s.length();
+    }
+}
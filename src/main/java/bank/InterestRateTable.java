@@ -0,0 +1,187 @@
+package bank;
+
+import com.google.gson.stream.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Versionierte Zinstabelle einer {@link PrivateBank}, gespeichert in {@code Zinssaetze.json}.
+ * <p>
+ * Eine Version steht für ein Paar gebuchter Zinssätze. Payments speichern die Nummer ihrer
+ * Version in der Kontodatei; Payments aus Dateien, die vor der Zinstabelle geschrieben wurden,
+ * gehören zur ersten Version mit ihren gebuchten Zinssätzen.
+ * <p>
+ * Eine Zinsänderung legt eine neue aktuelle Version an, eine Neubewertung setzt die gültigen
+ * Zinssätze aller älteren Versionen auf die aktuellen. Beides schreibt nur diese kleine Datei,
+ * die Kontodateien bleiben unverändert. Wird ein neu bewertetes Zinspaar erneut gesetzt,
+ * entsteht eine neue Version, damit neue Payments wieder mit den gebuchten Zinssätzen rechnen.
+ * Alle Methoden sind synchronisiert.
+ */
+class InterestRateTable {
+
+    /** Dateiname der Zinstabelle im Verzeichnis der Kontodateien */
+    static final String FILE_NAME = "Zinssaetze.json";
+
+    /** Datei der Tabelle, {@code null} wenn sie nur im Speicher geführt wird */
+    private final Path file;
+
+    /** Erste Version je gebuchtem Zinspaar, für Payments ohne gespeicherte Versionsnummer */
+    private final Map<RateVersion.Rates, RateVersion> byBooked = new HashMap<>();
+    private final List<RateVersion> versions = new ArrayList<>();
+    private RateVersion current;
+
+    /**
+     * @param file Datei der Tabelle, {@code null} um sie nur im Speicher zu führen
+     */
+    InterestRateTable(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Liest die Tabelle aus einem Verzeichnis; fehlt die Datei, ist sie leer.
+     *
+     * @param directory Verzeichnis der Kontodateien
+     * @return eingelesene Tabelle
+     * @throws IOException wenn die Datei nicht gelesen werden kann
+     */
+    static InterestRateTable load(Path directory) throws IOException {
+        InterestRateTable table = new InterestRateTable(directory.resolve(FILE_NAME));
+        if (!Files.exists(table.file)) return table;
+
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(table.file, StandardCharsets.UTF_8))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                double incoming = 0, outgoing = 0, effectiveIncoming = 0, effectiveOutgoing = 0;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                        case "incomingInterest" -> incoming = reader.nextDouble();
+                        case "outgoingInterest" -> outgoing = reader.nextDouble();
+                        case "effectiveIncomingInterest" -> effectiveIncoming = reader.nextDouble();
+                        case "effectiveOutgoingInterest" -> effectiveOutgoing = reader.nextDouble();
+                        default -> reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                table.add(new RateVersion.Rates(incoming, outgoing),
+                        new RateVersion.Rates(effectiveIncoming, effectiveOutgoing));
+            }
+            reader.endArray();
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new IOException("Zinstabelle ist beschädigt: " + table.file, e);
+        }
+        return table;
+    }
+
+    /** @return Version, mit der neue Payments gebucht werden */
+    synchronized RateVersion current() {
+        return current;
+    }
+
+    /**
+     * Macht die Version der angegebenen Zinssätze zur aktuellen. Wiederverwendet wird nur die
+     * letzte Version dieses Zinspaars und nur, solange sie nicht neu bewertet wurde; sonst wird
+     * eine neue Version angelegt. Die gültigen Zinssätze bestehender Versionen bleiben
+     * unverändert, sie ändert nur {@link #repriceToCurrent()}.
+     *
+     * @param incoming Zinssatz für Einzahlungen
+     * @param outgoing Zinssatz für Auszahlungen
+     * @throws UncheckedIOException wenn die Tabelle nicht geschrieben werden kann
+     */
+    synchronized void setCurrent(double incoming, double outgoing) {
+        RateVersion.Rates rates = new RateVersion.Rates(incoming, outgoing);
+        RateVersion version = null;
+        for (int i = versions.size() - 1; i >= 0 && version == null; i--) {
+            if (versions.get(i).booked().equals(rates)) version = versions.get(i);
+        }
+        if (version == null || !version.effective().equals(rates)) version = add(rates, rates);
+
+        if (version != current) {
+            current = version;
+            write();
+        }
+    }
+
+    /**
+     * @param number   in der Kontodatei gespeicherte Versionsnummer, 0 wenn keine
+     * @param incoming gebuchter Zinssatz für Einzahlungen
+     * @param outgoing gebuchter Zinssatz für Auszahlungen
+     * @return die Version mit dieser Nummer, wenn sie diese Zinssätze gebucht hat, sonst die
+     *         erste Version dieser Zinssätze, bei Bedarf neu angelegt
+     * @throws UncheckedIOException wenn die Tabelle nicht geschrieben werden kann
+     */
+    synchronized RateVersion versionFor(int number, double incoming, double outgoing) {
+        RateVersion.Rates rates = new RateVersion.Rates(incoming, outgoing);
+        if (number > 0 && number <= versions.size() && versions.get(number - 1).booked().equals(rates))
+            return versions.get(number - 1);
+
+        RateVersion version = byBooked.get(rates);
+        if (version == null) {
+            version = add(rates, rates);
+            write();
+        }
+        return version;
+    }
+
+    /**
+     * Setzt die gültigen Zinssätze aller Versionen auf die der aktuellen Version.
+     *
+     * @return Anzahl der Versionen, deren gültige Zinssätze sich geändert haben
+     * @throws UncheckedIOException wenn die Tabelle nicht geschrieben werden kann
+     */
+    synchronized int repriceToCurrent() {
+        int changed = 0;
+        for (RateVersion version : versions) {
+            if (!version.effective().equals(current.booked())) {
+                version.setEffective(current.booked());
+                changed++;
+            }
+        }
+        if (changed > 0) write();
+        return changed;
+    }
+
+    /** @return alle Versionen in der Reihenfolge ihrer Nummern */
+    synchronized List<InterestRateVersion> versions() {
+        List<InterestRateVersion> list = new ArrayList<>(versions.size());
+        for (RateVersion v : versions) {
+            list.add(new InterestRateVersion(v.number(), v.booked().incoming(), v.booked().outgoing(),
+                    v.effective().incoming(), v.effective().outgoing(), v == current));
+        }
+        return list;
+    }
+
+    private RateVersion add(RateVersion.Rates booked, RateVersion.Rates effective) {
+        RateVersion version = new RateVersion(versions.size() + 1, booked, effective);
+        versions.add(version);
+        byBooked.putIfAbsent(booked, version);
+        return version;
+    }
+
+    private void write() {
+        if (file == null) return;
+
+        Path tmp = AccountSnapshots.tmpPath(file);
+        try {
+            try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(tmp, StandardCharsets.UTF_8))) {
+                writer.setIndent("  ");
+                writer.beginArray();
+                for (RateVersion v : versions) {
+                    writer.beginObject();
+                    writer.name("version").value(v.number());
+                    writer.name("incomingInterest").value(v.booked().incoming());
+                    writer.name("outgoingInterest").value(v.booked().outgoing());
+                    writer.name("effectiveIncomingInterest").value(v.effective().incoming());
+                    writer.name("effectiveOutgoingInterest").value(v.effective().outgoing());
+                    writer.endObject();
+                }
+                writer.endArray();
+            }
+            AccountSnapshots.replace(tmp, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Zinstabelle konnte nicht geschrieben werden: " + file, e);
+        }
+    }
+}
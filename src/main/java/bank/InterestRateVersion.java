@@ -0,0 +1,17 @@
+package bank;
+
+/**
+ * Eintrag der versionierten Zinstabelle einer {@link PrivateBank}, siehe
+ * {@link PrivateBank#getInterestRateVersions()}.
+ *
+ * @param version                   fortlaufende Nummer ab 1, siehe {@link Payment#getRateVersion()}
+ * @param incomingInterest          gebuchter Zinssatz für Einzahlungen
+ * @param outgoingInterest          gebuchter Zinssatz für Auszahlungen
+ * @param effectiveIncomingInterest gültiger Zinssatz für Einzahlungen nach einer Neubewertung
+ * @param effectiveOutgoingInterest gültiger Zinssatz für Auszahlungen nach einer Neubewertung
+ * @param current                   ob neue Payments mit dieser Version gebucht werden
+ */
+public record InterestRateVersion(int version, double incomingInterest, double outgoingInterest,
+                                  double effectiveIncomingInterest, double effectiveOutgoingInterest,
+                                  boolean current) {
+}
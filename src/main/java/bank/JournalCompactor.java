@@ -0,0 +1,123 @@
+package bank;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Faltet die Journale der Konten im Hintergrund in neue Snapshots.
+ * <p>
+ * Die Kompaktierung arbeitet ausschließlich auf den Dateien: Snapshot lesen, Journal abspielen,
+ * neuen Snapshot atomar schreiben, Journal verwerfen. Sie hängt dadurch nicht vom
+ * In-Memory-Zustand der Bank ab und läuft unter der Dateisperre des Kontos
+ * ({@link AccountJournal#lock(String)}).
+ */
+class JournalCompactor implements AutoCloseable {
+
+    private final AccountJournal journal;
+    private final AccountSnapshots snapshots;
+    private final int recordThreshold;
+    private final long byteThreshold;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param journal         Journal der Bank
+     * @param snapshots       Snapshot-Dateien der Bank
+     * @param recordThreshold Anzahl Einträge, ab der ein Konto kompaktiert wird (0 = ignorieren)
+     * @param byteThreshold   Journalgröße in Bytes, ab der ein Konto kompaktiert wird (0 = ignorieren)
+     */
+    JournalCompactor(AccountJournal journal, AccountSnapshots snapshots, int recordThreshold, long byteThreshold) {
+        this.journal = journal;
+        this.snapshots = snapshots;
+        this.recordThreshold = recordThreshold;
+        this.byteThreshold = byteThreshold;
+    }
+
+    /**
+     * Startet die periodische Kompaktierung in einem Daemon-Thread.
+     *
+     * @param intervalMillis Abstand zwischen zwei Durchläufen in Millisekunden
+     */
+    void start(long intervalMillis) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> compactAll(false),
+                intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Kompaktiert alle Konten, deren Journal einen Schwellwert erreicht hat.
+     *
+     * @param force {@code true}, um jedes Konto mit Journal-Einträgen zu kompaktieren
+     * @return Anzahl der kompaktierten Konten
+     */
+    int compactAll(boolean force) {
+        int compacted = 0;
+        for (String account : journal.accountsWithRecords()) {
+            try {
+                if ((force || needsCompaction(account)) && compact(account)) {
+                    compacted++;
+                }
+            } catch (IOException e) {
+                System.out.println("Kompaktierung von Konto " + account + " fehlgeschlagen: " + e.getMessage());
+            }
+        }
+        return compacted;
+    }
+
+    /**
+     * @param account Kontoname
+     * @return {@code true}, wenn das Journal des Kontos einen Schwellwert erreicht hat
+     * @throws IOException wenn die Journalgröße nicht ermittelt werden kann
+     */
+    boolean needsCompaction(String account) throws IOException {
+        if (recordThreshold > 0 && journal.recordCount(account) >= recordThreshold) return true;
+        if (byteThreshold > 0) {
+            Path file = journal.path(account);
+            return Files.exists(file) && Files.size(file) >= byteThreshold;
+        }
+        return false;
+    }
+
+    /**
+     * Faltet das Journal eines Kontos in einen neuen Snapshot.
+     *
+     * @param account Kontoname
+     * @return {@code false}, wenn das Konto inzwischen gelöscht wurde
+     * @throws IOException wenn Snapshot oder Journal nicht gelesen bzw. geschrieben werden können
+     */
+    boolean compact(String account) throws IOException {
+        synchronized (journal.lock(account)) {
+            if (!Files.exists(snapshots.path(account)) && !Files.exists(journal.path(account))) {
+                journal.reset(account);
+                return false;
+            }
+
+            Set<Transaction> transactions = new LinkedHashSet<>(snapshots.read(account));
+            journal.replay(account, transactions);
+            snapshots.write(account, transactions);
+            journal.reset(account);
+            return true;
+        }
+    }
+
+    /**
+     * Beendet die periodische Kompaktierung und wartet auf einen laufenden Durchlauf.
+     */
+    @Override
+    public void close() {
+        if (scheduler == null) return;
+
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package bank;
+
+/**
+ * Ausgabeformat der periodischen Metrik-Ausgabe, siehe
+ * {@link BankOptions#setMetricsDumpIntervalMillis(long)}.
+ */
+public enum MetricsFormat {
+
+    /** Mehrzeiliger Text, eine Zeile je Operation (Standard) */
+    TEXT,
+
+    /** Ein JSON-Objekt pro Ausgabe in einer Zeile */
+    JSON
+}
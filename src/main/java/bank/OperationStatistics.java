@@ -0,0 +1,23 @@
+package bank;
+
+/**
+ * Aufrufe und Laufzeiten einer {@link BankOperation}. Die Perzentile stammen aus einem
+ * Histogramm mit acht Stufen je Zweierpotenz und sind auf höchstens 12,5 % genau
+ * (nach oben gerundet, begrenzt durch {@code maxNanos}).
+ *
+ * @param count      abgeschlossene Aufrufe, auch fehlgeschlagene
+ * @param errors     davon mit einer Exception beendete Aufrufe
+ * @param totalNanos Summe der Laufzeiten in Nanosekunden
+ * @param maxNanos   längste Laufzeit in Nanosekunden
+ * @param p50Nanos   Median der Laufzeiten in Nanosekunden
+ * @param p90Nanos   90. Perzentil der Laufzeiten in Nanosekunden
+ * @param p99Nanos   99. Perzentil der Laufzeiten in Nanosekunden
+ */
+public record OperationStatistics(long count, long errors, long totalNanos, long maxNanos,
+                                  long p50Nanos, long p90Nanos, long p99Nanos) {
+
+    /** @return mittlere Laufzeit in Nanosekunden, 0 ohne Aufrufe */
+    public double meanNanos() {
+        return count == 0 ? 0 : (double) totalNanos / count;
+    }
+}
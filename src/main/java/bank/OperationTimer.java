@@ -0,0 +1,85 @@
+package bank;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zähler und Laufzeit-Histogramm einer {@link BankOperation}.
+ * <p>
+ * Das Histogramm ist log-linear: Laufzeiten unter 8 ns haben je eine Stufe, darüber wird
+ * jede Zweierpotenz in acht gleich breite Stufen geteilt. Damit reichen 488 Zähler für den
+ * gesamten {@code long}-Bereich, und {@link #record(long, boolean)} kommt ohne Sperre und
+ * ohne Allokation aus.
+ */
+class OperationTimer {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BITS) * SUB_BUCKETS;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    /**
+     * @param nanos  Laufzeit eines Aufrufs in Nanosekunden
+     * @param failed {@code true}, wenn der Aufruf mit einer Exception endete
+     */
+    void record(long nanos, boolean failed) {
+        if (nanos < 0) nanos = 0;
+        count.increment();
+        if (failed) errors.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        buckets.incrementAndGet(bucket(nanos));
+    }
+
+    /**
+     * @return aktueller Stand; die einzelnen Werte werden nacheinander gelesen und können
+     *         gleichzeitig laufende Aufrufe teilweise enthalten
+     */
+    OperationStatistics statistics() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        long max = maxNanos.get();
+        return new OperationStatistics(count.sum(), errors.sum(), totalNanos.sum(), max,
+                percentile(counts, total, 0.50, max),
+                percentile(counts, total, 0.90, max),
+                percentile(counts, total, 0.99, max));
+    }
+
+    private static long percentile(long[] counts, long total, double quantile, long max) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    /** @return Stufe einer Laufzeit ({@code nanos >= 0}) */
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) nanos;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - SUB_BITS) * SUB_BUCKETS + sub;
+    }
+
+    /** @return größte Laufzeit, die in die Stufe fällt */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + sub) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
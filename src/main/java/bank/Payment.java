@@ -2,6 +2,11 @@ package bank;
 
 /**
  * Repräsentiert eine Ein- oder Auszahlung inklusive Zinsberechnung.
+ * <p>
+ * Die Zinssätze sind die bei der Buchung gültigen und bestimmen Gleichheit und Dateiinhalt.
+ * Eine {@link PrivateBank} verknüpft jedes Payment zusätzlich mit einer Version ihrer
+ * Zinstabelle; nach {@link PrivateBank#repricePayments(boolean)} rechnet {@link #calculate()}
+ * mit den neu bewerteten Zinssätzen dieser Version.
  *
  * @author MinosCodes
  */
@@ -17,6 +22,18 @@ public class Payment extends Transaction  {
      */
     private double outgoingInterest;
 
+    /**
+     * Version der Zinstabelle, {@code null} solange das Payment zu keiner Bank gehört oder
+     * seine Zinssätze direkt gesetzt wurden.
+     */
+    private transient RateVersion rateVersion;
+
+    /**
+     * Aus einer Datei gelesene Nummer der Zinsversion, bis das Payment mit ihr verknüpft wird;
+     * 0 wenn keine gespeichert ist.
+     */
+    private transient int storedRateVersion;
+
     /**
      * Konstruktor für ein Payment-Objekt.
      *
@@ -42,6 +59,8 @@ public class Payment extends Transaction  {
         super(payment.getDate(), payment.getAmount(), payment.getDescription());
         this.incomingInterest = payment.getIncomingInterest();
         this.outgoingInterest = payment.getOutgoingInterest();
+        this.rateVersion = payment.rateVersion;
+        this.storedRateVersion = payment.storedRateVersion;
     }
 
     /**
@@ -55,6 +74,8 @@ public class Payment extends Transaction  {
      * @param incomingInterest neuer Zinssatz für Einzahlungen (0-1)
      */
     public void setIncomingInterest(double incomingInterest) {
+        rateVersion = null;
+        storedRateVersion = 0;
         if (incomingInterest >= 0 && incomingInterest <= 1)
             this.incomingInterest = incomingInterest;
         else
@@ -72,6 +93,8 @@ public class Payment extends Transaction  {
      * @param outgoingInterest neuer Zinssatz für Auszahlungen (0-1)
      */
     public void setOutgoingInterest(double outgoingInterest) {
+        rateVersion = null;
+        storedRateVersion = 0;
         if (outgoingInterest >= 0 && outgoingInterest <= 1)
             this.outgoingInterest = outgoingInterest;
         else {
@@ -81,12 +104,52 @@ public class Payment extends Transaction  {
     }
 
     /**
-     * Berechnet den endgültigen Betrag nach Zinsen.
+     * @return Nummer der Zinsversion, mit der das Payment gebucht wurde, 0 wenn es mit keiner
+     *         verknüpft ist und keine aus einer Datei gelesen wurde
+     */
+    public int getRateVersion() {
+        RateVersion version = rateVersion;
+        return version == null ? storedRateVersion : version.number();
+    }
+
+    /**
+     * Merkt sich die in einer Datei gespeicherte Nummer der Zinsversion, bis die Bank das
+     * Payment mit seiner Version verknüpft.
+     *
+     * @param number Versionsnummer, 0 wenn keine gespeichert ist
+     */
+    void setStoredRateVersion(int number) {
+        this.storedRateVersion = number;
+    }
+
+    /**
+     * Verknüpft das Payment mit einer Version der Zinstabelle, deren gebuchte Zinssätze
+     * seinen eigenen entsprechen.
+     *
+     * @param rateVersion Version oder {@code null}
+     */
+    void linkRateVersion(RateVersion rateVersion) {
+        this.rateVersion = rateVersion;
+    }
+
+    /** @return verknüpfte Version der Zinstabelle oder {@code null} */
+    RateVersion rateVersion() {
+        return rateVersion;
+    }
+
+    /**
+     * Berechnet den endgültigen Betrag nach Zinsen, mit den gültigen Zinssätzen der
+     * verknüpften Zinsversion bzw. den eigenen.
      *
      * @return finaler Betrag
      */
     @Override
     public double calculate() {
+        RateVersion version = rateVersion;
+        if (version != null) {
+            RateVersion.Rates rates = version.effective();
+            return this.getAmount() * (1 + (this.getAmount() > 0 ? rates.incoming() : rates.outgoing()));
+        }
         if (this.getAmount() > 0) {
             return this.getAmount() * (1 + this.incomingInterest);
         } else {
@@ -123,5 +186,18 @@ public class Payment extends Transaction  {
         return Double.compare(incomingInterest, payment.incomingInterest) == 0 &&
                 Double.compare(outgoingInterest, payment.outgoingInterest) == 0 ;
     }
+
+    /**
+     * Berechnet den Hashwert passend zu {@link #equals(Object)} inklusive der Zinssätze.
+     *
+     * @return Hashwert des Payments
+     */
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + Double.hashCode(incomingInterest);
+        result = 31 * result + Double.hashCode(outgoingInterest);
+        return result;
+    }
 }
 
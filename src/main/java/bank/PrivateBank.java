@@ -1,10 +1,14 @@
 package bank;
 
 import bank.exceptions.*;
-import com.google.gson.*;
 import java.io.*;
 import java.nio.file.*;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Die Klasse {@code PrivateBank} implementiert das Interface {@link Bank} und stellt
@@ -13,23 +17,76 @@ import java.util.*;
  * Für jedes Konto wird eine Liste von Transaktionen gespeichert. Die Bank definiert die
  * globalen Zinssätze für Ein- und Auszahlungen, welche automatisch auf alle
  * {@link Payment}-Transaktionen angewendet werden.
+ * <p>
+ * Die Bank ist threadsicher. Jedes Konto besitzt eine eigene Lese-/Schreibsperre: Änderungen
+ * an verschiedenen Konten laufen parallel, Änderungen an einem Konto werden nacheinander
+ * ausgeführt. Jede Operation auf einem Konto ist linearisierbar, d.h. sie wirkt zu einem
+ * Zeitpunkt zwischen Aufruf und Rückkehr vollständig, einschließlich Duplikatprüfung und
+ * Persistierung. Lesende Methoden sehen nie eine halb ausgeführte Änderung und laufen
+ * untereinander parallel. Über mehrere Konten hinweg gibt es keine gemeinsame Sperre;
+ * {@link #getAllAccounts()} liefert z.B. nur einen schwach konsistenten Stand.
  */
-public class PrivateBank implements Bank {
+public class PrivateBank implements Bank, Closeable {
 
     /** Name der Bank */
     private String name;
 
     /** Zinsrate für Einzahlungen (Wert zwischen 0 und 1) */
-    private double incomingInterest;
+    private volatile double incomingInterest;
 
     /** Zinsrate für Auszahlungen (Wert zwischen 0 und 1) */
-    private double outgoingInterest;
+    private volatile double outgoingInterest;
 
-    /** Zuordnung von Kontonamen zu Listen ihrer Transaktionen */
-    private Map<String, List<Transaction>> accountsToTransactions = new HashMap<>();
+    /** Zuordnung von Kontonamen zu ihren Transaktionen (mit Hash-Index für Duplikatprüfung) */
+    private Map<String, AccountLedger> accountsToTransactions = new ConcurrentHashMap<>();
 
     private String directoryName;
 
+    /** Konfiguration der Bank */
+    private BankOptions options = new BankOptions();
+
+    /** Snapshot-Dateien der Konten */
+    private AccountSnapshots snapshots;
+
+    /** Journal für Änderungen, falls {@link BankOptions#isJournaling()} aktiv ist */
+    private AccountJournal journal;
+
+    /** Faltet die Journale in neue Snapshots */
+    private JournalCompactor compactor;
+
+    /** Dauer des letzten {@link #readAccounts()} */
+    private Duration loadDuration = Duration.ZERO;
+
+    /** Noch nicht geschriebene Änderungen im Write-Behind-Betrieb */
+    private WriteBehindBuffer writeBehind;
+
+    /** Schreibt bei {@link DurabilityPolicy#INTERVAL} periodisch die geänderten Konten */
+    private ScheduledExecutorService flusher;
+
+    /** Serialisiert alle Write-Behind-Schreibvorgänge, damit Journal-Einträge in Reihenfolge bleiben */
+    private final Object flushLock = new Object();
+
+    /** Gemeinsame Instanzen für wiederkehrende Zeichenketten der Transaktionen */
+    private final StringPool stringPool = new StringPool();
+
+    /** Zugriffsreihenfolge und Zähler der eingelesenen Konten */
+    private AccountCache cache = new AccountCache(0, 0);
+
+    /** Versionierte Zinssätze, mit denen die Payments verknüpft sind */
+    private InterestRateTable interestRates = new InterestRateTable(null);
+
+    /** Absichtsprotokoll für {@link #transfer(String, String, double, String, String)} */
+    private TransferLog transferLog;
+
+    /** Zähler und Laufzeiten der Operationen, siehe {@link #getMetrics()} */
+    private final BankMetrics metrics = new BankMetrics();
+
+    /** Gibt bei {@link BankOptions#getMetricsDumpIntervalMillis()} periodisch die Metriken aus */
+    private ScheduledExecutorService metricsDumper;
+
+    /** Serialisiert Zinsänderungen, damit Ein- und Auszahlungszins als Paar in die Zinstabelle gehen */
+    private final Object rateLock = new Object();
+
 
     /**
      * Konstruktor für eine neue Bankinstanz.
@@ -44,17 +101,61 @@ public class PrivateBank implements Bank {
                         double incomingInterest,
                         double outgoingInterest,
                         String directoryName) throws TransactionAttributeException, IOException {
+        this(name, incomingInterest, outgoingInterest, directoryName, new BankOptions());
+    }
+
+    /**
+     * Konstruktor für eine neue Bankinstanz mit eigener Konfiguration.
+     *
+     * @param name Name der Bank
+     * @param incomingInterest Zinsrate für Einzahlungen (0–1)
+     * @param outgoingInterest Zinsrate für Auszahlungen (0–1)
+     * @param directoryName Verzeichnis der Kontodateien
+     * @param options Konfiguration, z.B. Journal-Persistenz
+     * @throws TransactionAttributeException wenn die Zinssätze ungültig sind
+     * @throws IOException wenn directory nicht gefuncden ist
+     */
+    public PrivateBank(String name,
+                        double incomingInterest,
+                        double outgoingInterest,
+                        String directoryName,
+                        BankOptions options) throws TransactionAttributeException, IOException {
 
         setName(name);
-        setIncomingInterest(incomingInterest);
-        setOutgoingInterest(outgoingInterest);
+        setInterest(incomingInterest, outgoingInterest);
         this.directoryName = directoryName;
+        this.options = options;
 
         // ensure directory exists
         Files.createDirectories(Paths.get(directoryName));
+        interestRates = InterestRateTable.load(Paths.get(directoryName));
+        interestRates.setCurrent(this.incomingInterest, this.outgoingInterest);
+        snapshots = options.getStorageFormat() == StorageFormat.BINARY
+                ? new BinaryAccountSnapshots(Paths.get(directoryName), stringPool)
+                : new AccountSnapshots(Paths.get(directoryName), stringPool);
+        journal = new AccountJournal(Paths.get(directoryName), stringPool);
+        compactor = new JournalCompactor(journal, snapshots,
+                options.getCompactionRecordThreshold(), options.getCompactionByteThreshold());
+        cache = new AccountCache(options.getMaxResidentAccounts(), options.getMaxResidentBytes());
+        writeBehind = new WriteBehindBuffer(options.isJournaling());
+
+        transferLog = new TransferLog(Paths.get(directoryName), stringPool);
 
         // load existing accounts from JSON
         readAccounts();
+        recoverTransfers();
+
+        if (options.isJournaling() && options.getCompactionIntervalMillis() > 0) {
+            compactor.start(options.getCompactionIntervalMillis());
+        }
+
+        if (options.getDurabilityPolicy() == DurabilityPolicy.INTERVAL) {
+            startFlusher(options.getFlushIntervalMillis());
+        }
+
+        if (options.getMetricsDumpIntervalMillis() > 0) {
+            startMetricsDump(options.getMetricsDumpIntervalMillis(), options.getMetricsDumpFormat());
+        }
     }
 
     /**
@@ -67,6 +168,7 @@ public class PrivateBank implements Bank {
         this.name = other.name;
         this.incomingInterest = other.incomingInterest;
         this.outgoingInterest = other.outgoingInterest;
+        interestRates.setCurrent(incomingInterest, outgoingInterest);
     }
 
 
@@ -74,6 +176,46 @@ public class PrivateBank implements Bank {
     // Getter und Setter
     // -----------------------------------------------------
 
+    /**
+     * @return wie lange das Einlesen der Kontodateien beim Erzeugen der Bank gedauert hat
+     */
+    public Duration getLoadDuration() { return loadDuration; }
+
+    /**
+     * @return Treffer, Fehlzugriffe und Auslagerungen des Kontospeichers sowie die aktuell
+     *         eingelesenen Konten
+     */
+    public AccountCacheStatistics getCacheStatistics() { return cache.statistics(); }
+
+    /**
+     * @return Anzahl aller gelesenen bzw. hinzugefügten Zeichenketten und der davon
+     *         verschiedenen, die sich eine Instanz teilen
+     */
+    public StringPoolStatistics getStringPoolStatistics() { return stringPool.statistics(); }
+
+    /**
+     * Liefert den aktuellen Stand der Metriken: Aufrufe und Laufzeiten je
+     * {@link BankOperation}, gelesene und geschriebene Bytes und Dateien, die Kontodateien im
+     * Verzeichnis und die Größe der eingelesenen Konten.
+     *
+     * @return Stand seit dem Erzeugen der Bank
+     */
+    public BankMetricsSnapshot getMetrics() {
+        SortedMap<String, BankMetricsSnapshot.AccountSize> accounts = new TreeMap<>();
+        for (Map.Entry<String, AccountLedger> entry : accountsToTransactions.entrySet()) {
+            AccountLedger ledger = entry.getValue();
+            ledger.readLock().lock();
+            try {
+                if (ledger.isLoaded() && !ledger.isDeleted())
+                    accounts.put(entry.getKey(),
+                            new BankMetricsSnapshot.AccountSize(ledger.size(), ledger.estimatedBytes()));
+            } finally {
+                ledger.readLock().unlock();
+            }
+        }
+        return metrics.snapshot(countAccountFiles(), accounts);
+    }
+
     /** @return Name der Bank */
     public String getName() { return name; }
 
@@ -84,32 +226,113 @@ public class PrivateBank implements Bank {
     public double getIncomingInterest() { return incomingInterest; }
 
     /**
-     * Setzt den Zinssatz für Einzahlungen.
+     * Setzt den Zinssatz für Einzahlungen, siehe {@link #setInterest(double, double)}.
      *
      * @param incomingInterest Wert zwischen 0 und 1
      * @throws TransactionAttributeException wenn der Wert ungültig ist
+     * @throws UncheckedIOException          wenn die Zinstabelle nicht geschrieben werden kann
      */
     public void setIncomingInterest(double incomingInterest) throws TransactionAttributeException {
         if (incomingInterest < 0 || incomingInterest > 1)
             throw new TransactionAttributeException("Incoming interest must be between 0 and 1");
 
-        this.incomingInterest = incomingInterest;
+        synchronized (rateLock) {
+            this.incomingInterest = incomingInterest;
+            interestRates.setCurrent(this.incomingInterest, outgoingInterest);
+        }
     }
 
     /** @return Zinsrate für Auszahlungen */
     public double getOutgoingInterest() { return outgoingInterest; }
 
     /**
-     * Setzt den Zinssatz für Auszahlungen.
+     * Setzt den Zinssatz für Auszahlungen, siehe {@link #setInterest(double, double)}.
      *
      * @param outgoingInterest Wert zwischen 0 und 1
      * @throws TransactionAttributeException wenn der Wert ungültig ist
+     * @throws UncheckedIOException          wenn die Zinstabelle nicht geschrieben werden kann
      */
     public void setOutgoingInterest(double outgoingInterest) throws TransactionAttributeException {
         if (outgoingInterest < 0 || outgoingInterest > 1)
             throw new TransactionAttributeException("Outgoing interest must be between 0 and 1");
 
-        this.outgoingInterest = outgoingInterest;
+        synchronized (rateLock) {
+            this.outgoingInterest = outgoingInterest;
+            interestRates.setCurrent(incomingInterest, this.outgoingInterest);
+        }
+    }
+
+    /**
+     * Setzt beide Zinssätze zusammen. Neue Payments werden mit der Version der Zinstabelle zu
+     * diesem Paar gebucht, die bei Bedarf angelegt wird; anders als zwei einzelne Aufrufe
+     * entsteht keine Version für ein Zwischenpaar. Bestehende Payments und Kontostände bleiben
+     * unverändert, bis sie mit {@link #repricePayments(boolean)} neu bewertet werden.
+     *
+     * @param incomingInterest Zinssatz für Einzahlungen, zwischen 0 und 1
+     * @param outgoingInterest Zinssatz für Auszahlungen, zwischen 0 und 1
+     * @throws TransactionAttributeException wenn ein Wert ungültig ist
+     * @throws UncheckedIOException          wenn die Zinstabelle nicht geschrieben werden kann
+     */
+    public void setInterest(double incomingInterest, double outgoingInterest) throws TransactionAttributeException {
+        if (incomingInterest < 0 || incomingInterest > 1)
+            throw new TransactionAttributeException("Incoming interest must be between 0 and 1");
+        if (outgoingInterest < 0 || outgoingInterest > 1)
+            throw new TransactionAttributeException("Outgoing interest must be between 0 and 1");
+
+        synchronized (rateLock) {
+            this.incomingInterest = incomingInterest;
+            this.outgoingInterest = outgoingInterest;
+            interestRates.setCurrent(incomingInterest, outgoingInterest);
+        }
+    }
+
+    /**
+     * Bewertet alle bestehenden Payments mit den aktuellen Zinssätzen neu. Geändert werden nur
+     * die gültigen Zinssätze der älteren Versionen in der Zinstabelle; die Payments und ihre
+     * Kontodateien bleiben unverändert, die gebuchten Zinssätze bleiben erhalten.
+     * <p>
+     * Die mitgeführten Kontostände werden danach verworfen. Mit {@code recomputeBalances}
+     * werden die Kontostände der eingelesenen Konten sofort parallel neu berechnet (wie bei
+     * {@link #getAllBalances()}), sonst jeweils beim nächsten Lesen. Während der Neubewertung
+     * können Leser anderer Konten kurzzeitig noch alte Kontostände sehen.
+     *
+     * @param recomputeBalances {@code true}, um die Kontostände sofort neu zu berechnen
+     * @return Anzahl der neu bewerteten Zinsversionen
+     * @throws UncheckedIOException wenn die Zinstabelle nicht geschrieben werden kann
+     */
+    public int repricePayments(boolean recomputeBalances) {
+        int repriced;
+        synchronized (rateLock) {
+            repriced = interestRates.repriceToCurrent();
+        }
+        if (repriced == 0) return 0;
+
+        invalidateBalances();
+        if (recomputeBalances) {
+            List<Map.Entry<String, AccountLedger>> accounts = new ArrayList<>(accountsToTransactions.entrySet());
+            ForkJoinPool.commonPool().invoke(new BalanceTask(accounts, new double[accounts.size()], 0, accounts.size(), true));
+        }
+        return repriced;
+    }
+
+    /** @return alle Versionen der Zinstabelle, die aktuelle ist markiert */
+    public List<InterestRateVersion> getInterestRateVersions() {
+        return interestRates.versions();
+    }
+
+    /**
+     * Verwirft die mitgeführten Kontostände aller Konten. Sie werden beim nächsten Lesen
+     * über {@link Transaction#calculate()} neu berechnet.
+     */
+    private void invalidateBalances() {
+        for (AccountLedger ledger : accountsToTransactions.values()) {
+            ledger.writeLock().lock();
+            try {
+                ledger.invalidateBalance();
+            } finally {
+                ledger.writeLock().unlock();
+            }
+        }
     }
 
 
@@ -148,7 +371,22 @@ public class PrivateBank implements Bank {
         return Objects.equals(this.name, other.name)
                 && this.incomingInterest == other.incomingInterest
                 && this.outgoingInterest == other.outgoingInterest
-                && Objects.equals(this.accountsToTransactions, other.accountsToTransactions);
+                && sameAccounts(other);
+    }
+
+    /**
+     * Vergleicht die Konten zweier Banken; ungeladene Konten werden dafür eingelesen.
+     *
+     * @param other andere Bank
+     * @return {@code true}, wenn beide dieselben Konten mit denselben Transaktionen enthalten
+     */
+    private boolean sameAccounts(PrivateBank other) {
+        if (!accountsToTransactions.keySet().equals(other.accountsToTransactions.keySet())) return false;
+
+        for (String account : accountsToTransactions.keySet()) {
+            if (!snapshot(account).equals(other.snapshot(account))) return false;
+        }
+        return true;
     }
 
 
@@ -165,15 +403,20 @@ public class PrivateBank implements Bank {
      */
     @Override
     public void createAccount(String account) throws AccountAlreadyExistException , java.io.IOException{
-        if (accountsToTransactions.containsKey(account))
+        if (accountsToTransactions.putIfAbsent(account, new AccountLedger(options.isColumnarStorage())) != null)
             throw new AccountAlreadyExistException("Account already exists: " + account);
 
-        accountsToTransactions.put(account, new ArrayList<>());
+        cache.register(account, 0);
         writeAccount(account);
+        evictIfNeeded();
     }
 
     /**
      * Erstellt ein Konto und fügt eine Liste von Transaktionen hinzu.
+     * <p>
+     * Die Transaktionen werden über {@link #addTransactions(String, Collection)} in einem
+     * Schritt gespeichert. Alle gültigen Transaktionen bleiben im Konto; danach wird für die
+     * erste abgelehnte Transaktion die passende Exception geworfen.
      *
      * @param account Kontoname
      * @param transactions Liste von Transaktionen
@@ -187,11 +430,19 @@ public class PrivateBank implements Bank {
 
         createAccount(account);
 
-        for (Transaction transaction : transactions) {
-            try {
-                addTransaction(account, transaction);
-            } catch (AccountDoesNotExistException e) {
-                System.out.println(e.getMessage());
+        TransactionBatchResult result;
+        try {
+            result = addTransactions(account, transactions);
+        } catch (AccountDoesNotExistException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+
+        for (TransactionBatchResult.Item item : result.getItems()) {
+            switch (item.status()) {
+                case DUPLICATE -> throw new TransactionAlreadyExistException(item.message());
+                case INVALID -> throw new TransactionAttributeException(item.message());
+                default -> { }
             }
         }
     }
@@ -202,7 +453,9 @@ public class PrivateBank implements Bank {
     // -----------------------------------------------------
 
     /**
-     * Fügt einer Konto eine Transaktion hinzu.
+     * Fügt einer Konto eine Transaktion hinzu. Gespeichert wird die übergebene Instanz selbst:
+     * sie erhält die Zinssätze der Bank, und nach dem Hinzufügen werden ihre Zeichenketten
+     * durch gleiche Instanzen aus dem Pool ersetzt.
      *
      * @param account Kontoname
      * @param transaction hinzuzufügende Transaktion
@@ -215,20 +468,349 @@ public class PrivateBank implements Bank {
     public void addTransaction(String account, Transaction transaction)
             throws TransactionAlreadyExistException, AccountDoesNotExistException, TransactionAttributeException,IOException{
 
-        List<Transaction> list = accountsToTransactions.get(account);
-        if (list == null)
-            throw new AccountDoesNotExistException("Konto nicht gefunden: " + account);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            AccountLedger ledger = accountsToTransactions.get(account);
+            if (ledger == null)
+                throw new AccountDoesNotExistException("Konto nicht gefunden: " + account);
+
+            validate(transaction);
+            applyInterest(transaction);
+
+            ledger.writeLock().lock();
+            boolean miss = false;
+            try {
+                if (ledger.isDeleted())
+                    throw new AccountDoesNotExistException("Konto nicht gefunden: " + account);
+                miss = ensureLoaded(account, ledger);
+                DuplicateCheckEvent check = new DuplicateCheckEvent();
+                check.begin();
+                boolean added = ledger.add(transaction);
+                check.checked = 1;
+                check.duplicates = added ? 0 : 1;
+                check.commit(account, ledger.size(), ledger.estimatedBytes());
+                if (!added)
+                    throw new TransactionAlreadyExistException("Transaktion existiert bereits im Konto " + account);
+                stringPool.intern(transaction);
+
+                persist(account, AccountJournal.Operation.ADD, transaction);
+            } finally {
+                touch(account, ledger, miss);
+                ledger.writeLock().unlock();
+            }
+            evictIfNeeded();
+            failed = false;
+        } finally {
+            metrics.record(BankOperation.ADD_TRANSACTION, start, failed);
+        }
+    }
+
+    /**
+     * Fügt einem Konto mehrere Transaktionen hinzu. Jede Transaktion wird wie bei
+     * {@link #addTransaction(String, Transaction)} validiert, mit den Zinssätzen der Bank
+     * versehen und auf Duplikate geprüft; das Konto wird danach nur einmal persistiert
+     * (bzw. mit aktivem Journal in einem Schreibvorgang angehängt).
+     *
+     * @param account Kontoname
+     * @param transactions hinzuzufügende Transaktionen
+     * @return Ergebnis je Transaktion in Eingabereihenfolge
+     * @throws AccountDoesNotExistException wenn das Konto nicht existiert
+     * @throws IOException wenn das Konto nicht im Dateisystem gespeichert werden kann
+     */
+    @Override
+    public TransactionBatchResult addTransactions(String account, Collection<Transaction> transactions)
+            throws AccountDoesNotExistException, IOException {
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            AccountLedger ledger = accountsToTransactions.get(account);
+            if (ledger == null)
+                throw new AccountDoesNotExistException("Konto nicht gefunden: " + account);
+
+            List<TransactionBatchResult.Item> items = new ArrayList<>(transactions.size());
+            List<AccountJournal.Record> added = new ArrayList<>();
+            ledger.writeLock().lock();
+            boolean miss = false;
+            try {
+                if (ledger.isDeleted())
+                    throw new AccountDoesNotExistException("Konto nicht gefunden: " + account);
+                miss = ensureLoaded(account, ledger);
+
+                DuplicateCheckEvent check = new DuplicateCheckEvent();
+                check.begin();
+                int duplicates = 0;
+                for (Transaction transaction : transactions) {
+                    try {
+                        validate(transaction);
+                    } catch (TransactionAttributeException e) {
+                        items.add(new TransactionBatchResult.Item(transaction, TransactionBatchResult.Status.INVALID, e.getMessage()));
+                        continue;
+                    }
+                    applyInterest(transaction);
+
+                    if (ledger.add(transaction)) {
+                        stringPool.intern(transaction);
+                        added.add(new AccountJournal.Record(AccountJournal.Operation.ADD, transaction));
+                        items.add(new TransactionBatchResult.Item(transaction, TransactionBatchResult.Status.ADDED, null));
+                    } else {
+                        items.add(new TransactionBatchResult.Item(transaction, TransactionBatchResult.Status.DUPLICATE,
+                                "Transaktion existiert bereits im Konto " + account));
+                        duplicates++;
+                    }
+                }
+                check.checked = transactions.size();
+                check.duplicates = duplicates;
+                check.commit(account, ledger.size(), ledger.estimatedBytes());
+
+                persist(account, added);
+            } finally {
+                touch(account, ledger, miss);
+                ledger.writeLock().unlock();
+            }
+            evictIfNeeded();
+            failed = false;
+            return new TransactionBatchResult(items);
+        } finally {
+            metrics.record(BankOperation.ADD_TRANSACTIONS, start, failed);
+        }
+    }
+
+    /**
+     * Prüft die Attribute einer Transaktion, bevor sie einem Konto hinzugefügt wird.
+     *
+     * @param transaction zu prüfende Transaktion
+     * @throws TransactionAttributeException wenn Pflichtangaben fehlen oder der Betrag einer Überweisung nicht positiv ist
+     */
+    private void validate(Transaction transaction) throws TransactionAttributeException {
+        if (transaction == null)
+            throw new TransactionAttributeException("Transaction must not be null");
+        if (transaction.getDate() == null || transaction.getDate().isBlank())
+            throw new TransactionAttributeException("Date must not be empty");
+        if (transaction.getDescription() == null)
+            throw new TransactionAttributeException("Description must not be null");
+
+        if (transaction instanceof Transfer t) {
+            if (t.getAmount() <= 0)
+                throw new TransactionAttributeException("Transfer amount must be positive");
+            if (t.getSender() == null || t.getRecipient() == null)
+                throw new TransactionAttributeException("Transfer needs sender and recipient");
+        }
+    }
 
+    /**
+     * Überträgt die Zinssätze der Bank auf ein {@link Payment}.
+     *
+     * @param transaction Transaktion, die hinzugefügt werden soll
+     */
+    private void applyInterest(Transaction transaction) {
         if (transaction instanceof Payment p) {
-            p.setIncomingInterest(this.incomingInterest);
-            p.setOutgoingInterest(this.outgoingInterest);
+            // Zinssätze und Version aus derselben Version, auch wenn sich die Zinsen gerade ändern
+            RateVersion version = interestRates.current();
+            p.setIncomingInterest(version.booked().incoming());
+            p.setOutgoingInterest(version.booked().outgoing());
+            p.linkRateVersion(version);
         }
+    }
 
-        if (containsTransaction(account, transaction))
-            throw new TransactionAlreadyExistException("Transaktion existiert bereits im Konto " + account);
 
-        list.add(transaction);
-        writeAccount(account);
+    // -----------------------------------------------------
+    // Umbuchung zwischen zwei Konten
+    // -----------------------------------------------------
+
+    /**
+     * Bucht einen Betrag atomar von einem Konto auf ein anderes: {@code from} erhält eine
+     * {@link OutgoingTransfer}, {@code to} eine {@link IncomingTransfer}, beide oder keine.
+     * <p>
+     * Beide Konten werden in der globalen Reihenfolge ihrer Namen gesperrt, damit gleichzeitige
+     * Umbuchungen in entgegengesetzter Richtung sich nicht gegenseitig blockieren. Umbuchungen
+     * zwischen verschiedenen Kontenpaaren laufen parallel; gemeinsam ist nur das Anhängen an das
+     * {@link TransferLog}, das gleichzeitige Einträge mit einem Schreibvorgang anhängt. Dessen
+     * {@code COMMIT}-Eintrag schreibt die Umbuchung fest, bevor die Konten geschrieben werden;
+     * bricht das Programm dazwischen ab, wird die fehlende Seite beim nächsten Start nachgebucht.
+     * <p>
+     * Scheitert das Schreiben eines Kontos, wird zuerst ein {@code ROLLBACK}-Eintrag geschrieben
+     * und danach die Umbuchung im Speicher und in den Konten zurückgenommen. Was davon nicht
+     * geschrieben werden kann, entfernt der nächste Start; eine mit {@code IOException}
+     * gescheiterte Umbuchung ist damit nie gebucht. Nur wenn schon der {@code ROLLBACK}-Eintrag
+     * nicht geschrieben werden kann, bleibt die Umbuchung festgeschrieben und gebucht und wird
+     * beim nächsten Start vervollständigt; die {@code IOException} enthält diesen Fehler dann
+     * als unterdrückten.
+     *
+     * @param from        belastetes Konto
+     * @param to          begünstigtes Konto
+     * @param amount      Betrag, größer als 0
+     * @param date        Datum der Umbuchung
+     * @param description Beschreibung
+     * @throws AccountDoesNotExistException     falls eines der Konten nicht existiert
+     * @throws TransactionAlreadyExistException falls eine der beiden Buchungen bereits existiert
+     * @throws TransactionAttributeException    falls die Attribute ungültig sind oder beide Konten gleich sind
+     * @throws IOException                      falls das Protokoll oder die Konten nicht geschrieben werden können
+     */
+    public void transfer(String from, String to, double amount, String date, String description)
+            throws AccountDoesNotExistException, TransactionAlreadyExistException, TransactionAttributeException,
+            IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            if (from == null || to == null)
+                throw new TransactionAttributeException("Transfer needs sender and recipient");
+            if (from.equals(to))
+                throw new TransactionAttributeException("Sender and recipient must be different accounts");
+
+            AccountLedger fromLedger = accountsToTransactions.get(from);
+            if (fromLedger == null)
+                throw new AccountDoesNotExistException("Konto nicht gefunden: " + from);
+            AccountLedger toLedger = accountsToTransactions.get(to);
+            if (toLedger == null)
+                throw new AccountDoesNotExistException("Konto nicht gefunden: " + to);
+
+            OutgoingTransfer outgoing = new OutgoingTransfer(date, amount, description, from, to);
+            IncomingTransfer incoming = new IncomingTransfer(date, amount, description, from, to);
+            validate(outgoing);
+            validate(incoming);
+            stringPool.intern(outgoing);
+            stringPool.intern(incoming);
+
+            // globale Sperrreihenfolge nach Kontoname
+            AccountLedger first = from.compareTo(to) < 0 ? fromLedger : toLedger;
+            AccountLedger second = first == fromLedger ? toLedger : fromLedger;
+            first.writeLock().lock();
+            second.writeLock().lock();
+            boolean fromMiss = false;
+            boolean toMiss = false;
+            try {
+                if (fromLedger.isDeleted())
+                    throw new AccountDoesNotExistException("Konto nicht gefunden: " + from);
+                if (toLedger.isDeleted())
+                    throw new AccountDoesNotExistException("Konto nicht gefunden: " + to);
+                fromMiss = ensureLoaded(from, fromLedger);
+                toMiss = ensureLoaded(to, toLedger);
+                if (fromLedger.contains(outgoing))
+                    throw new TransactionAlreadyExistException("Transaktion existiert bereits im Konto " + from);
+                if (toLedger.contains(incoming))
+                    throw new TransactionAlreadyExistException("Transaktion existiert bereits im Konto " + to);
+
+                long id = transferLog.commit(from, to, outgoing, incoming);
+                fromLedger.add(outgoing);
+                toLedger.add(incoming);
+                boolean fromWritten = false;
+                try {
+                    persist(from, AccountJournal.Operation.ADD, outgoing);
+                    fromWritten = true;
+                    persist(to, AccountJournal.Operation.ADD, incoming);
+                } catch (IOException | RuntimeException e) {
+                    rollbackTransfer(id, from, fromLedger, outgoing, to, toLedger, incoming, fromWritten, e);
+                    throw e;
+                }
+
+                if (options.getDurabilityPolicy() == DurabilityPolicy.EVERY_WRITE) transferLog.applied(id);
+                else transferLog.defer(id);
+            } finally {
+                touch(from, fromLedger, fromMiss);
+                touch(to, toLedger, toMiss);
+                second.writeLock().unlock();
+                first.writeLock().unlock();
+            }
+            evictIfNeeded();
+            failed = false;
+        } finally {
+            metrics.record(BankOperation.TRANSFER, start, failed);
+        }
+    }
+
+    /**
+     * Bucht beim Start die Seiten festgeschriebener Umbuchungen nach, die vor einem Abbruch
+     * nicht mehr geschrieben wurden, entfernt die Seiten zurückgenommener Umbuchungen und leert
+     * danach das {@link TransferLog}.
+     *
+     * @throws IOException wenn Protokoll oder Konten nicht gelesen oder geschrieben werden können
+     */
+    private void recoverTransfers() throws IOException {
+        List<TransferLog.Entry> pending = transferLog.pending();
+        if (pending.isEmpty()) return;
+
+        for (TransferLog.Entry entry : pending) {
+            if (entry.rolledBack()) {
+                rollbackTransferSide(entry.from(), entry.outgoing());
+                rollbackTransferSide(entry.to(), entry.incoming());
+            } else {
+                recoverTransferSide(entry.from(), entry.outgoing());
+                recoverTransferSide(entry.to(), entry.incoming());
+            }
+        }
+        flush();
+        for (TransferLog.Entry entry : pending) transferLog.applied(entry.id());
+        transferLog.reset();
+    }
+
+    /**
+     * Nimmt eine Umbuchung zurück, deren Konten nicht geschrieben werden konnten. Beide Konten
+     * sind vom Aufrufer gesperrt; Fehler werden an {@code cause} angehängt.
+     * <p>
+     * Der {@code ROLLBACK}-Eintrag wird vor allem anderen geschrieben. Danach wird in beiden
+     * Konten zurückgenommen, was geschrieben worden sein kann; erst wenn das gelungen ist, gilt
+     * die Umbuchung im Protokoll als erledigt, sonst entfernt der nächste Start die Seiten.
+     *
+     * @param id          Nummer der Umbuchung im Protokoll
+     * @param from        belastetes Konto
+     * @param fromLedger  Transaktionen des belasteten Kontos
+     * @param outgoing    Buchung im belasteten Konto
+     * @param to          begünstigtes Konto
+     * @param toLedger    Transaktionen des begünstigten Kontos
+     * @param incoming    Buchung im begünstigten Konto
+     * @param fromWritten ob das belastete Konto bereits geschrieben ist
+     * @param cause       Fehler beim Schreiben
+     */
+    private void rollbackTransfer(long id, String from, AccountLedger fromLedger, Transaction outgoing,
+                                  String to, AccountLedger toLedger, Transaction incoming, boolean fromWritten,
+                                  Exception cause) {
+        try {
+            transferLog.rollback(id);
+        } catch (IOException e) {
+            // die Umbuchung bleibt festgeschrieben und wird beim nächsten Start vervollständigt
+            cause.addSuppressed(e);
+            return;
+        }
+
+        fromLedger.remove(outgoing);
+        toLedger.remove(incoming);
+        boolean undone = true;
+        // das gescheiterte Konto kann trotzdem geschrieben sein, z.B. wenn erst das Nachbereiten scheiterte
+        try {
+            persist(from, AccountJournal.Operation.REMOVE, outgoing);
+        } catch (IOException | RuntimeException e) {
+            cause.addSuppressed(e);
+            undone = false;
+        }
+        if (fromWritten) {
+            try {
+                persist(to, AccountJournal.Operation.REMOVE, incoming);
+            } catch (IOException | RuntimeException e) {
+                cause.addSuppressed(e);
+                undone = false;
+            }
+        }
+        if (undone) transferLog.applied(id);
+    }
+
+    private void rollbackTransferSide(String account, Transaction transaction) throws IOException {
+        try {
+            removeTransaction(account, transaction);
+        } catch (TransactionDoesNotExistException | AccountDoesNotExistException e) {
+            // diese Seite war nicht geschrieben
+        }
+    }
+
+    private void recoverTransferSide(String account, Transaction transaction) throws IOException {
+        try {
+            addTransaction(account, transaction);
+        } catch (TransactionAlreadyExistException e) {
+            // diese Seite war bereits geschrieben
+        } catch (AccountDoesNotExistException | TransactionAttributeException e) {
+            System.out.println("Umbuchung in Konto " + account + " nicht nachgebucht: " + e.getMessage());
+        }
     }
 
 
@@ -249,12 +831,33 @@ public class PrivateBank implements Bank {
     public void removeTransaction(String account, Transaction transaction)
             throws AccountDoesNotExistException, TransactionDoesNotExistException ,IOException {
 
-        if (!accountsToTransactions.containsKey(account))
-            throw new AccountDoesNotExistException("Account does not exist.");
-
-        if (!accountsToTransactions.get(account).remove(transaction))
-            throw new TransactionDoesNotExistException("Transaction does not exist.");
-        writeAccount(account);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            AccountLedger ledger = accountsToTransactions.get(account);
+            if (ledger == null)
+                throw new AccountDoesNotExistException("Account does not exist.");
+            // sonst könnte ein Neustart eine angewendete Umbuchung wieder nachbuchen
+            transferLog.syncApplied();
+
+            ledger.writeLock().lock();
+            boolean miss = false;
+            try {
+                if (ledger.isDeleted())
+                    throw new AccountDoesNotExistException("Account does not exist.");
+                miss = ensureLoaded(account, ledger);
+                if (!ledger.remove(transaction))
+                    throw new TransactionDoesNotExistException("Transaction does not exist.");
+                persist(account, AccountJournal.Operation.REMOVE, transaction);
+            } finally {
+                touch(account, ledger, miss);
+                ledger.writeLock().unlock();
+            }
+            evictIfNeeded();
+            failed = false;
+        } finally {
+            metrics.record(BankOperation.REMOVE_TRANSACTION, start, failed);
+        }
     }
 
     // -----------------------------------------------------
@@ -264,13 +867,26 @@ public class PrivateBank implements Bank {
     /** {@inheritDoc} */
     @Override
     public void deleteAccount(String account) throws AccountDoesNotExistException, IOException {
-        if (!accountsToTransactions.containsKey(account)) {
-            throw new AccountDoesNotExistException("Account does not exist: " + account);
+        // ein laufender Write-Behind-Schreibvorgang darf die Dateien nicht wieder anlegen
+        synchronized (flushLock) {
+            AccountLedger ledger = accountsToTransactions.remove(account);
+            if (ledger == null)
+                throw new AccountDoesNotExistException("Account does not exist: " + account);
+
+            // laufende Änderungen am Konto abwarten, spätere schlagen fehl
+            ledger.writeLock().lock();
+            try {
+                ledger.markDeleted();
+                cache.remove(account);
+                writeBehind.discard(account);
+                synchronized (journal.lock(account)) {
+                    snapshots.delete(account);
+                    journal.reset(account);
+                }
+            } finally {
+                ledger.writeLock().unlock();
+            }
         }
-
-        accountsToTransactions.remove(account);
-        Path file = Paths.get(directoryName, "Konto_" + account + ".json");
-        Files.deleteIfExists(file);
     }
 
 
@@ -281,54 +897,486 @@ public class PrivateBank implements Bank {
     /** {@inheritDoc} */
     @Override
     public boolean containsTransaction(String account, Transaction transaction) {
-        if (!accountsToTransactions.containsKey(account)) return false;
-        return accountsToTransactions.get(account).contains(transaction);
+        AccountLedger ledger = accountsToTransactions.get(account);
+        if (ledger == null) return false;
+
+        boolean contained;
+        lockForRead(account, ledger);
+        try {
+            contained = ledger.contains(transaction);
+        } finally {
+            ledger.readLock().unlock();
+        }
+        evictIfNeeded();
+        return contained;
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Der Kontostand wird bei jeder Änderung des Kontos mitgeführt, das Lesen kostet O(1).
+     */
     @Override
     public double getAccountBalance(String account) {
-        if (!accountsToTransactions.containsKey(account)) return 0;
-
-        double balance = 0;
-        for (Transaction t : accountsToTransactions.get(account))
-            balance += t.calculate();
+        AccountLedger ledger = accountsToTransactions.get(account);
+        if (ledger == null) return 0;
+
+        double balance;
+        lockForRead(account, ledger);
+        try {
+            balance = balance(account, ledger);
+        } finally {
+            ledger.readLock().unlock();
+        }
+        evictIfNeeded();
+        return balance;
+    }
 
+    /**
+     * Liest den Kontostand unter der Lesesperre und zeichnet ihn als {@link BalanceEvent} auf.
+     */
+    private static double balance(String account, AccountLedger ledger) {
+        BalanceEvent event = new BalanceEvent();
+        event.begin();
+        double balance = ledger.balance();
+        event.commit(account, ledger.size(), ledger.estimatedBytes());
         return balance;
     }
 
     /** {@inheritDoc} */
     @Override
     public List<Transaction> getTransactions(String account) {
-        return new ArrayList<>(accountsToTransactions.get(account));
+        return snapshot(account);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<Transaction> getTransactions(String account, int offset, int limit) {
+        checkPage(offset, limit);
+        return read(account, ledger -> ledger.page(offset, limit));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Gelesen wird blockweise über einen {@link TransactionSpliterator}; die Lesesperre wird
+     * nur während eines Blocks gehalten.
+     */
+    @Override
+    public Stream<Transaction> streamTransactions(String account) {
+        return read(account, ledger -> stream(account, ledger, ledger.iterator()));
     }
 
     /** {@inheritDoc} */
     @Override
     public List<Transaction> getTransactionsSorted(String account, boolean asc) {
-        List<Transaction> sorted = new ArrayList<>(accountsToTransactions.get(account));
+        return read(account, ledger -> sorted(account, ledger, asc, () -> ledger.sorted(asc)));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<Transaction> getTransactionsSorted(String account, boolean asc, int offset, int limit) {
+        checkPage(offset, limit);
+        return read(account, ledger -> sorted(account, ledger, asc, () -> ledger.sortedPage(asc, offset, limit)));
+    }
 
-        sorted.sort((a, b) ->
-                asc ? Double.compare(a.calculate(), b.calculate())
-                        : Double.compare(b.calculate(), a.calculate()));
+    /**
+     * Führt eine sortierte Abfrage unter der Lesesperre aus und zeichnet sie als
+     * {@link SortEvent} auf.
+     */
+    private static List<Transaction> sorted(String account, AccountLedger ledger, boolean asc,
+                                            java.util.function.Supplier<List<Transaction>> query) {
+        SortEvent event = new SortEvent();
+        event.begin();
+        List<Transaction> result = query.get();
+        event.ascending = asc;
+        event.returned = result.size();
+        event.commit(account, ledger.size(), ledger.estimatedBytes());
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Liest direkt aus der mitgeführten sortierten Sicht des Kontos, siehe
+     * {@link #streamTransactions(String)}.
+     */
+    @Override
+    public Stream<Transaction> streamTransactionsSorted(String account, boolean asc) {
+        return read(account, ledger -> stream(account, ledger, ledger.sortedIterator(asc)));
+    }
+
+    /**
+     * Liefert die {@code k} Transaktionen mit den kleinsten bzw. größten berechneten Beträgen,
+     * also den Anfang von {@link #getTransactionsSorted(String, boolean)}, ohne das Konto zu
+     * sortieren: über die mitgeführte sortierte Sicht, falls sie schon aufgebaut ist, sonst
+     * mit einem auf {@code k} Einträge beschränkten Heap in O(n log k).
+     *
+     * @param account das ausgewählte Konto
+     * @param k       Anzahl der gesuchten Transaktionen
+     * @param asc     {@code true} für die kleinsten (z.B. größte Ausgaben), {@code false} für die größten Beträge
+     * @return höchstens {@code k} Transaktionen in sortierter Reihenfolge
+     * @throws IllegalArgumentException falls {@code k} negativ ist
+     */
+    public List<Transaction> getTopTransactions(String account, int k, boolean asc) {
+        if (k < 0) throw new IllegalArgumentException("k must not be negative: " + k);
+        return read(account, ledger -> ledger.top(asc, k));
+    }
+
+    /** Nur unter der Lesesperre des Kontos aufrufen. */
+    private Stream<Transaction> stream(String account, AccountLedger ledger, Iterator<Transaction> source) {
+        return StreamSupport.stream(
+                new TransactionSpliterator(ledger, source, () -> touch(account, ledger, false)), false);
+    }
 
-        return sorted;
+    private static void checkPage(int offset, int limit) {
+        if (offset < 0 || limit < 0)
+            throw new IllegalArgumentException("Offset and limit must not be negative: " + offset + ", " + limit);
     }
 
     /** {@inheritDoc} */
     @Override
     public List<Transaction> getTransactionsByType(String account, boolean positive) {
-        List<Transaction> result = new ArrayList<>();
+        return read(account, ledger -> ledger.byType(positive));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Nutzt den nach Datum sortierten Index des Kontos: O(log n) plus die Größe des Ergebnisses.
+     */
+    @Override
+    public List<Transaction> getTransactionsBetween(String account, LocalDate from, LocalDate to)
+            throws AccountDoesNotExistException {
+        requireAccount(account);
+        int fromDay = (int) Math.max(from.toEpochDay(), Integer.MIN_VALUE + 1L);
+        int toDay = (int) Math.min(to.toEpochDay(), Integer.MAX_VALUE);
+        return read(account, ledger -> ledger.between(fromDay, toDay));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Nutzt die Präfixsummen des nach Datum sortierten Index: O(log n).
+     */
+    @Override
+    public double getBalanceAsOf(String account, LocalDate date) throws AccountDoesNotExistException {
+        requireAccount(account);
+        int day = (int) Math.max(Math.min(date.toEpochDay(), Integer.MAX_VALUE), Integer.MIN_VALUE + 1L);
+        return read(account, ledger -> ledger.balanceAsOf(day));
+    }
+
+    /**
+     * Liefert die Kontostände aller Konten. Die Konten werden im gemeinsamen
+     * {@link ForkJoinPool} in Blöcken parallel gelesen; Konten, deren Kontostand nach einer
+     * Zinsänderung neu berechnet werden muss, summieren große Kontenauszüge ihrerseits
+     * parallel (siehe {@link BalanceSum}). Ungeladene Konten werden dafür eingelesen; das
+     * Einlesen und Auslagern blockiert und läuft deshalb als {@link ForkJoinPool.ManagedBlocker},
+     * damit der gemeinsame Pool währenddessen Ersatzthreads starten kann.
+     * <p>
+     * Wie {@link #getAllAccounts()} schwach konsistent: jeder Kontostand ist für sich
+     * aktuell, zusammen bilden sie aber keinen gemeinsamen Stichpunkt.
+     *
+     * @return unveränderliche Zuordnung von Kontoname zu Kontostand, nicht sortiert
+     */
+    public Map<String, Double> getAllBalances() {
+        List<Map.Entry<String, AccountLedger>> accounts = new ArrayList<>(accountsToTransactions.entrySet());
+        double[] balances = balances(accounts);
+
+        Map<String, Double> result = new HashMap<>(accounts.size() * 4 / 3 + 1);
+        for (int i = 0; i < balances.length; i++) {
+            if (!Double.isNaN(balances[i])) result.put(accounts.get(i).getKey(), balances[i]);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Summiert die Kontostände aller Konten, parallel wie {@link #getAllBalances()} und
+     * kompensiert wie die Kontostände selbst.
+     *
+     * @return Gesamtvermögen der Bank
+     */
+    public double getTotalAssets() {
+        double[] balances = balances(new ArrayList<>(accountsToTransactions.entrySet()));
+        for (int i = 0; i < balances.length; i++) {
+            if (Double.isNaN(balances[i])) balances[i] = 0;
+        }
+        double[] sum = BalanceSum.of(balances);
+        return sum[0] + sum[1];
+    }
 
-        for (Transaction t : accountsToTransactions.get(account)) {
-            double value = t.calculate();
-            if (positive && value >= 0) result.add(t);
-            if (!positive && value < 0) result.add(t);
+    /**
+     * @param accounts Konten
+     * @return Kontostände in der Reihenfolge von {@code accounts}, {@code NaN} für inzwischen gelöschte Konten
+     */
+    private double[] balances(List<Map.Entry<String, AccountLedger>> accounts) {
+        double[] balances = new double[accounts.size()];
+        ForkJoinPool.commonPool().invoke(new BalanceTask(accounts, balances, 0, balances.length, false));
+        return balances;
+    }
+
+    /**
+     * Liest die Kontostände eines Bereichs der Konten; teilt den Bereich, solange er größer
+     * als {@link #LEAF_SIZE} ist. Mit {@code residentOnly} werden ungeladene Konten
+     * übersprungen statt eingelesen.
+     */
+    private final class BalanceTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final int LEAF_SIZE = 256;
+
+        private final List<Map.Entry<String, AccountLedger>> accounts;
+        private final double[] balances;
+        private final int from;
+        private final int to;
+        private final boolean residentOnly;
+
+        BalanceTask(List<Map.Entry<String, AccountLedger>> accounts, double[] balances, int from, int to,
+                    boolean residentOnly) {
+            this.accounts = accounts;
+            this.balances = balances;
+            this.from = from;
+            this.to = to;
+            this.residentOnly = residentOnly;
         }
 
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BalanceTask(accounts, balances, from, mid, residentOnly),
+                        new BalanceTask(accounts, balances, mid, to, residentOnly));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                String account = accounts.get(i).getKey();
+                AccountLedger ledger = accounts.get(i).getValue();
+                if (residentOnly) {
+                    ledger.readLock().lock();
+                    try {
+                        balances[i] = ledger.isLoaded() && !ledger.isDeleted() ? balance(account, ledger) : Double.NaN;
+                    } finally {
+                        ledger.readLock().unlock();
+                    }
+                    continue;
+                }
+                // isLoaded() ohne Sperre ist nur ein Hinweis, ob gelesen werden muss; nur
+                // dann lohnt ein Ersatzthread, für geladene Konten wäre er reiner Aufwand
+                if (ledger.isLoaded()) lockForRead(account, ledger);
+                else blocking(() -> lockForRead(account, ledger));
+                try {
+                    balances[i] = ledger.isDeleted() ? Double.NaN : balance(account, ledger);
+                } finally {
+                    ledger.readLock().unlock();
+                }
+            }
+            // einmal je Block, damit eingelesene Konten den Speicher nicht über die Grenze füllen
+            if (cache.isBounded()) blocking(PrivateBank.this::evictIfNeeded);
+        }
+    }
+
+    /**
+     * Führt Dateizugriffe aus einer Aufgabe im {@link ForkJoinPool} als
+     * {@link ForkJoinPool.ManagedBlocker} aus: der Pool kann für die Dauer einen Ersatzthread
+     * starten, statt dass der gemeinsame Pool für andere Aufgaben ausgehungert wird. Außerhalb
+     * eines Pools wird {@code io} einfach ausgeführt.
+     *
+     * @param io blockierende Arbeit, läuft im aufrufenden Thread
+     */
+    private static void blocking(Runnable io) {
+        ForkJoinPool.ManagedBlocker blocker = new ForkJoinPool.ManagedBlocker() {
+            private boolean done;
+
+            @Override
+            public boolean block() {
+                io.run();
+                done = true;
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return done;
+            }
+        };
+        try {
+            ForkJoinPool.managedBlock(blocker);
+        } catch (InterruptedException e) {
+            // block() wartet nicht unterbrechbar, der Status bleibt trotzdem erhalten
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Berechnet Einnahmen, Ausgaben, Saldo, Anzahl, kleinsten und größten Betrag sowie Summen
+     * je Monat und je Transaktionstyp in einem einzigen Durchlauf über das Konto, statt
+     * {@link #getTransactionsByType(String, boolean)} und {@link #getAccountBalance(String)}
+     * einzeln aufzurufen.
+     *
+     * @param account das ausgewählte Konto
+     * @return unveränderliche Zusammenfassung
+     * @throws AccountDoesNotExistException falls das Konto nicht existiert
+     */
+    public AccountSummary getAccountSummary(String account) throws AccountDoesNotExistException {
+        requireAccount(account);
+        return read(account, AccountLedger::summary);
+    }
+
+    /**
+     * @param account Kontoname
+     * @throws AccountDoesNotExistException wenn das Konto nicht existiert
+     */
+    private void requireAccount(String account) throws AccountDoesNotExistException {
+        if (!accountsToTransactions.containsKey(account))
+            throw new AccountDoesNotExistException("Account does not exist: " + account);
+    }
+
+    /**
+     * Kopiert die Transaktionen eines Kontos unter dessen Lesesperre.
+     *
+     * @param account Kontoname
+     * @return Kopie der Transaktionen in Einfügereihenfolge
+     */
+    private List<Transaction> snapshot(String account) {
+        return read(account, AccountLedger::toList);
+    }
+
+    /**
+     * Führt eine lesende Abfrage unter der Lesesperre eines Kontos aus; das Ergebnis darf
+     * keine ungeschützte Sicht auf das Konto sein, sondern muss eine Kopie sein oder wie
+     * {@link TransactionSpliterator} selbst sperren.
+     *
+     * @param account Kontoname
+     * @param query   Abfrage auf dem eingelesenen Konto
+     * @param <T>     Ergebnistyp
+     * @return Ergebnis der Abfrage
+     */
+    private <T> T read(String account, java.util.function.Function<AccountLedger, T> query) {
+        AccountLedger ledger = accountsToTransactions.get(account);
+        T result;
+        lockForRead(account, ledger);
+        try {
+            result = query.apply(ledger);
+        } finally {
+            ledger.readLock().unlock();
+        }
+        evictIfNeeded();
         return result;
     }
 
+    /**
+     * Sperrt ein Konto zum Lesen und liest es vorher ein, falls das noch nicht geschehen ist.
+     * Der Aufrufer gibt anschließend die Lesesperre frei.
+     *
+     * @param account Kontoname
+     * @param ledger  Konto
+     * @throws UncheckedIOException wenn die Kontodateien nicht gelesen werden können
+     */
+    private void lockForRead(String account, AccountLedger ledger) {
+        ledger.readLock().lock();
+        if (ledger.isLoaded()) {
+            touch(account, ledger, false);
+            return;
+        }
+
+        // die Lesesperre lässt sich nicht in eine Schreibsperre umwandeln, umgekehrt schon
+        ledger.readLock().unlock();
+        ledger.writeLock().lock();
+        try {
+            touch(account, ledger, ensureLoaded(account, ledger));
+            ledger.readLock().lock();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Konto " + account + " konnte nicht gelesen werden", e);
+        } finally {
+            ledger.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Liest ein ungeladenes Konto aus Snapshot und Journal ein. Nur unter der Schreibsperre
+     * des Kontos aufrufen.
+     *
+     * @param account Kontoname
+     * @param ledger  Konto
+     * @return {@code true}, wenn das Konto eingelesen wurde, {@code false} wenn es schon geladen war
+     * @throws IOException wenn die Kontodateien nicht gelesen werden können
+     */
+    private boolean ensureLoaded(String account, AccountLedger ledger) throws IOException {
+        if (ledger.isLoaded() || ledger.isDeleted()) return false;
+        readAccount(account, ledger);
+        return true;
+    }
+
+    /**
+     * Vermerkt einen Zugriff auf ein eingelesenes Konto im {@link AccountCache}. Nur unter
+     * einer Sperre des Kontos aufrufen.
+     *
+     * @param account Kontoname
+     * @param ledger  Konto
+     * @param miss    {@code true}, wenn das Konto für diesen Zugriff eingelesen wurde
+     */
+    private void touch(String account, AccountLedger ledger, boolean miss) {
+        if (ledger.isLoaded() && !ledger.isDeleted())
+            cache.access(account, ledger.estimatedBytes(), miss);
+    }
+
+    /**
+     * Lagert die am längsten nicht benutzten Konten aus, solange die Grenzen aus
+     * {@link BankOptions#getMaxResidentAccounts()} und {@link BankOptions#getMaxResidentBytes()}
+     * überschritten sind. Darf nur ohne gehaltene Kontosperre aufgerufen werden.
+     */
+    private void evictIfNeeded() {
+        if (!cache.isBounded()) return;
+
+        for (String account : cache.evictionCandidates()) {
+            try {
+                evict(account);
+            } catch (IOException e) {
+                System.out.println("Konto " + account + " konnte nicht ausgelagert werden: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Schreibt ein Konto über {@link #writeAccount(String)}, falls noch Änderungen im
+     * Write-Behind-Puffer liegen, und gibt anschließend seine Transaktionen frei. Beim nächsten
+     * Zugriff wird es wieder aus seinen Dateien eingelesen.
+     *
+     * @param account Kontoname
+     * @throws IOException wenn das Konto nicht geschrieben werden kann; es bleibt dann eingelesen
+     */
+    private void evict(String account) throws IOException {
+        // wie beim Löschen: ein laufender flush() darf keine älteren Einträge nachschreiben
+        synchronized (flushLock) {
+            AccountLedger ledger = accountsToTransactions.get(account);
+            if (ledger == null) {
+                cache.remove(account);
+                return;
+            }
+
+            ledger.writeLock().lock();
+            try {
+                if (!ledger.isLoaded() || ledger.isDeleted()) return;
+
+                // ohne vorgemerkte Änderungen entsprechen die Dateien bereits dem Konto
+                List<AccountJournal.Record> pending = writeBehind.discard(account);
+                if (pending != null) {
+                    try {
+                        writeAccount(account);
+                    } catch (IOException e) {
+                        writeBehind.restore(account, pending);
+                        throw e;
+                    }
+                }
+                ledger.unload();
+                cache.evicted(account);
+            } finally {
+                ledger.writeLock().unlock();
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public List<String> getAllAccounts() {
@@ -336,64 +1384,205 @@ public class PrivateBank implements Bank {
         Collections.sort(accounts);
         return accounts;
     }
-    /**
-     * Erzeugt eine konfigurierte Gson-Instanz zur (De-)Serialisierung
-     * von {@link Transaction}-Objekten mit dem registrierten
-     * {@link TransactionSerDer} und formatiertem JSON-Output.
-     *
-     * @return die konfigurierte Gson-Instanz
-     */
-    private Gson createGson() {
-        return new GsonBuilder()
-                .registerTypeAdapter(Transaction.class, new TransactionSerDer())
-                .setPrettyPrinting()
-                .create();
-    }
     /**
      * Liest alle im Verzeichnis {@code directoryName} vorhandenen Kontodateien
      * (JSON) ein und baut daraus die interne Zuordnung von Kontonamen zu
      * Transaktionslisten ({@code accountsToTransactions}) auf.
      * <p>
      * Es werden nur Dateien berücksichtigt, deren Name mit {@code "Konto_"}
-     * beginnt und auf {@code ".json"} endet.
+     * beginnt und auf {@code ".json"} (bzw. {@code ".bin"} mit {@link StorageFormat#BINARY})
+     * oder {@code ".journal"} endet. Ein vorhandenes
+     * Journal wird über den Snapshot des Kontos abgespielt.
+     * <p>
+     * Die Konten werden mit {@link BankOptions#getLoadParallelism()} Threads parallel
+     * eingelesen und erst am Ende in {@code accountsToTransactions} übernommen. Mit
+     * {@link BankOptions#isLazyLoading()} werden nur die Kontonamen erfasst und die Konten
+     * erst beim ersten Zugriff eingelesen. Die Dauer liefert {@link #getLoadDuration()}.
      *
      * @throws IOException wenn beim Zugriff auf das Dateisystem ein Fehler auftritt
      */
 
     private void readAccounts() throws IOException {
-        accountsToTransactions.clear();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            accountsToTransactions.clear();
+            if (options.isLazyLoading()) {
+                for (String accountName : listAccountFiles())
+                    accountsToTransactions.put(accountName, AccountLedger.unloaded(options.isColumnarStorage()));
+            } else {
+                accountsToTransactions.putAll(loadAccounts(listAccountFiles()));
+                for (Map.Entry<String, AccountLedger> entry : accountsToTransactions.entrySet())
+                    cache.register(entry.getKey(), entry.getValue().estimatedBytes());
+                evictIfNeeded();
+            }
+            failed = false;
+        } finally {
+            loadDuration = Duration.ofNanos(System.nanoTime() - start);
+            metrics.record(BankOperation.READ_ACCOUNTS, start, failed);
+        }
+    }
+
+    /**
+     * Sammelt die Kontonamen aus den Snapshot- und Journal-Dateien in {@code directoryName}.
+     *
+     * @return sortierte Kontonamen
+     * @throws IOException wenn das Verzeichnis nicht gelesen werden kann
+     */
+    private Set<String> listAccountFiles() throws IOException {
+        Set<String> accountNames = new TreeSet<>();
 
         Path dir = Paths.get(directoryName);
         if (!Files.exists(dir)) {
-            return; // nothing to read
+            return accountNames; // nothing to read
         }
 
-        Gson gson = createGson();
-
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.json")) {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "Konto_*")) {
             for (Path file : stream) {
                 String fileName = file.getFileName().toString();      // beispiel "Konto_Adam.json"
 
-                // nur Konto_// .json
-                if (!fileName.startsWith("Konto_") || !fileName.endsWith(".json")) {
+                // nur Snapshots im eingestellten Format und Konto_*.journal
+                String suffix = fileName.endsWith(snapshots.suffix()) ? snapshots.suffix()
+                        : fileName.endsWith(AccountJournal.SUFFIX) ? AccountJournal.SUFFIX : null;
+                if (suffix == null) {
                     continue;
                 }
 
                 // extract name
-                String accountName = fileName.substring(
+                accountNames.add(fileName.substring(
                         "Konto_".length(),
-                        fileName.length() - ".json".length()
-                );
+                        fileName.length() - suffix.length()
+                ));
+            }
+        }
+
+        return accountNames;
+    }
+
+    /**
+     * @return Anzahl der Snapshot- und Journal-Dateien in {@code directoryName}, -1 wenn das
+     *         Verzeichnis nicht gelesen werden kann
+     */
+    private int countAccountFiles() {
+        if (directoryName == null) return 0;
+        Path dir = Paths.get(directoryName);
+        if (!Files.exists(dir)) return 0;
+
+        int count = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "Konto_*")) {
+            for (Path file : stream) {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(snapshots.suffix()) || fileName.endsWith(AccountJournal.SUFFIX)) count++;
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        return count;
+    }
 
-                String json = Files.readString(file);
-                Transaction[] arr = gson.fromJson(json, Transaction[].class);
+    /**
+     * Liest die angegebenen Konten ein, bei mehr als einem Thread parallel in einem
+     * eigenen {@link ForkJoinPool}.
+     *
+     * @param accountNames einzulesende Konten
+     * @return eingelesene Konten in der Reihenfolge von {@code accountNames}
+     * @throws IOException wenn eine Kontodatei nicht gelesen werden kann
+     */
+    private Map<String, AccountLedger> loadAccounts(Collection<String> accountNames) throws IOException {
+        Map<String, AccountLedger> loaded = new LinkedHashMap<>();
+        int parallelism = Math.min(options.getLoadParallelism(), accountNames.size());
+
+        if (parallelism <= 1) {
+            for (String accountName : accountNames)
+                loaded.put(accountName, loadAccount(accountName));
+            return loaded;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Callable<AccountLedger>> tasks = new ArrayList<>();
+            for (String accountName : accountNames)
+                tasks.add(() -> loadAccount(accountName));
+
+            Iterator<String> names = accountNames.iterator();
+            for (Future<AccountLedger> future : pool.invokeAll(tasks))
+                loaded.put(names.next(), future.get());
+            return loaded;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Laden der Konten unterbrochen");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IOException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Liest ein Konto aus seinem Snapshot und spielt das Journal darüber ab.
+     *
+     * @param accountName Kontoname
+     * @return eingelesenes Konto
+     * @throws IOException wenn die Kontodateien nicht gelesen werden können
+     */
+    private AccountLedger loadAccount(String accountName) throws IOException {
+        AccountLedger ledger = AccountLedger.unloaded(options.isColumnarStorage());
+        readAccount(accountName, ledger);
+        return ledger;
+    }
+
+    /**
+     * Übernimmt die Transaktionen aus dem Snapshot mit darüber abgespieltem Journal in ein
+     * ungeladenes Konto. Ein binärer Snapshot ohne Journal wird bei spaltenweisem Speicher nur
+     * eingeblendet, siehe {@link ColumnarTransactionStore}.
+     *
+     * @param accountName Kontoname
+     * @param ledger      ungeladenes Konto
+     * @throws IOException wenn die Kontodateien nicht gelesen werden können
+     */
+    private void readAccount(String accountName, AccountLedger ledger) throws IOException {
+        AccountLoadEvent event = new AccountLoadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Path snapshot = snapshots.path(accountName);
+            Path journalFile = journal.path(accountName);
+            long bytes = 0;
+            int files = 0;
+            for (Path file : List.of(snapshot, journalFile)) {
+                if (Files.exists(file)) {
+                    bytes += Files.size(file);
+                    files++;
+                }
+            }
 
-                List<Transaction> list = new ArrayList<>();
-                if (arr != null) {
-                    list.addAll(Arrays.asList(arr));
+            BinaryAccountSnapshots.Mapped mapped = null;
+            if (options.isColumnarStorage() && snapshots instanceof BinaryAccountSnapshots binary
+                    && !Files.exists(journalFile))
+                mapped = binary.map(accountName);
+
+            int count;
+            if (mapped != null) {
+                ledger.loadMapped(mapped, interestRates);
+                count = mapped.size();
+            } else {
+                Set<Transaction> transactions = new LinkedHashSet<>(snapshots.read(accountName));
+                journal.replay(accountName, transactions);
+                for (Transaction t : transactions) {
+                    if (t instanceof Payment p)
+                        p.linkRateVersion(interestRates.versionFor(p.getRateVersion(), p.getIncomingInterest(), p.getOutgoingInterest()));
                 }
-                accountsToTransactions.put(accountName, list);
+                ledger.load(transactions);
+                count = transactions.size();
             }
+            metrics.read(bytes, files);
+            event.commit(accountName, count, bytes);
+            failed = false;
+        } finally {
+            metrics.record(BankOperation.READ_ACCOUNT, start, failed);
         }
     }
 
@@ -407,18 +1596,205 @@ public class PrivateBank implements Bank {
      */
 
     private void writeAccount(String account) throws IOException {
-        List<Transaction> list = accountsToTransactions.get(account);
-        if (list == null) return;//
+        AccountLedger ledger = accountsToTransactions.get(account);
+        if (ledger == null) return;//
+
+        List<Transaction> transactions;
+        ledger.readLock().lock();
+        try {
+            // ein nie eingelesenes Konto ist unverändert, die Datei darf nicht überschrieben werden
+            if (ledger.isDeleted() || !ledger.isLoaded()) return;
+            transactions = ledger.toList();
+        } finally {
+            ledger.readLock().unlock();
+        }
 
-        Gson gson = createGson();
+        AccountWriteEvent event = new AccountWriteEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            synchronized (journal.lock(account)) {
+                snapshots.write(account, transactions);
+                long bytes = Files.size(snapshots.path(account));
+                metrics.written(bytes);
+                event.commit(account, transactions.size(), bytes);
+
+                // der Snapshot enthält jetzt alle Änderungen des Journals
+                journal.reset(account);
+            }
+            failed = false;
+        } finally {
+            metrics.record(BankOperation.WRITE_ACCOUNT, start, failed);
+        }
+    }
+
+    /**
+     * Faltet sofort alle Journale in neue Snapshots, unabhängig von den konfigurierten
+     * Schwellwerten. Die Hintergrund-Kompaktierung erledigt das sonst periodisch.
+     *
+     * @return Anzahl der kompaktierten Konten
+     */
+    public int compactJournals() {
+        return compactor.compactAll(true);
+    }
 
-        String json = gson.toJson(list.toArray(new Transaction[0]), Transaction[].class);
+    /**
+     * Schreibt alle im Write-Behind-Betrieb gesammelten Änderungen, je Konto mit einem
+     * Schreibvorgang. Mit {@link DurabilityPolicy#EVERY_WRITE} gibt es nichts zu tun.
+     *
+     * @throws IOException wenn ein Konto nicht geschrieben werden kann; die übrigen Konten
+     *                     werden trotzdem geschrieben, das fehlgeschlagene bleibt vorgemerkt
+     */
+    public void flush() throws IOException {
+        if (writeBehind == null) return;
+
+        IOException failure = null;
+        synchronized (flushLock) {
+            // vor dem Leeren des Puffers: deren Buchungen sind dann sicher im Puffer enthalten
+            List<Long> transfers = transferLog.takeDeferred();
+            for (Map.Entry<String, List<AccountJournal.Record>> entry : writeBehind.drain().entrySet()) {
+                String account = entry.getKey();
+                try {
+                    if (!accountsToTransactions.containsKey(account)) continue;
+
+                    if (options.isJournaling()) {
+                        appendJournal(account, entry.getValue());
+                    } else {
+                        writeAccount(account);
+                    }
+                } catch (IOException e) {
+                    writeBehind.restore(account, entry.getValue());
+                    if (failure == null) failure = e;
+                }
+            }
+            if (failure != null) {
+                transferLog.restoreDeferred(transfers);
+            } else {
+                for (long id : transfers) transferLog.applied(id);
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * Startet den Hintergrund-Thread für {@link DurabilityPolicy#INTERVAL}.
+     *
+     * @param intervalMillis Abstand zwischen zwei Schreibvorgängen in Millisekunden
+     */
+    private void startFlusher(long intervalMillis) {
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "bank-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (IOException e) {
+                System.out.println("Schreiben der Konten fehlgeschlagen: " + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Startet den Hintergrund-Thread, der die Metriken periodisch auf {@code System.out} ausgibt.
+     *
+     * @param intervalMillis Abstand zwischen zwei Ausgaben in Millisekunden
+     * @param format         Ausgabeformat
+     */
+    private void startMetricsDump(long intervalMillis, MetricsFormat format) {
+        metricsDumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "bank-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        metricsDumper.scheduleWithFixedDelay(() -> System.out.println(getMetrics().format(format)),
+                intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
 
-        String fileName = "Konto_" + account + ".json";
-        Path file = Paths.get(directoryName, fileName);
-        Files.writeString(file, json);
+    /**
+     * Beendet den Write-Behind-Thread und die Hintergrund-Kompaktierung und schreibt alle
+     * noch ausstehenden Änderungen. Die Bank bleibt danach benutzbar; ausstehende Änderungen
+     * werden dann nur noch über {@link #flush()} geschrieben, Journale nur noch über
+     * {@link #compactJournals()} gefaltet.
+     *
+     * @throws IOException wenn ausstehende Änderungen nicht geschrieben werden können
+     */
+    @Override
+    public void close() throws IOException {
+        if (metricsDumper != null) metricsDumper.shutdownNow();
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            flush();
+        } finally {
+            if (compactor != null) compactor.close();
+            if (transferLog != null) transferLog.close();
+        }
     }
 
+    /**
+     * Persistiert eine einzelne Änderung eines Kontos.
+     *
+     * @param account     Kontoname
+     * @param operation   Art der Änderung
+     * @param transaction betroffene Transaktion
+     * @throws IOException wenn die Änderung nicht gespeichert werden kann
+     */
+    private void persist(String account, AccountJournal.Operation operation, Transaction transaction)
+            throws IOException {
+        persist(account, List.of(new AccountJournal.Record(operation, transaction)));
+    }
 
+    /**
+     * Persistiert Änderungen eines Kontos gemäß {@link BankOptions#getDurabilityPolicy()}.
+     * Mit {@link DurabilityPolicy#EVERY_WRITE} werden sie sofort geschrieben: mit aktivem
+     * Journal als angehängte Einträge, sonst als komplette Kontodatei. Andernfalls wird das
+     * Konto nur vorgemerkt und später von {@link #flush()} geschrieben.
+     *
+     * @param account Kontoname
+     * @param records Änderungen in Reihenfolge
+     * @throws IOException wenn die Änderungen nicht gespeichert werden können
+     */
+    private void persist(String account, List<AccountJournal.Record> records) throws IOException {
+        if (records.isEmpty()) return;
+
+        if (options.getDurabilityPolicy() != DurabilityPolicy.EVERY_WRITE) {
+            writeBehind.add(account, records);
+        } else if (options.isJournaling()) {
+            appendJournal(account, records);
+        } else {
+            writeAccount(account);
+        }
+    }
 
+    /**
+     * Hängt Änderungen an das Journal eines Kontos an und erfasst Laufzeit und Bytes.
+     *
+     * @param account Kontoname
+     * @param records Änderungen in Reihenfolge
+     * @throws IOException wenn das Journal nicht geschrieben werden kann
+     */
+    private void appendJournal(String account, List<AccountJournal.Record> records) throws IOException {
+        AccountWriteEvent event = new AccountWriteEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            long bytes = journal.append(account, records);
+            metrics.written(bytes);
+            event.journal = true;
+            event.commit(account, records.size(), bytes);
+            failed = false;
+        } finally {
+            metrics.record(BankOperation.APPEND_JOURNAL, start, failed);
+        }
+    }
 }
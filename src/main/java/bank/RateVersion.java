@@ -0,0 +1,50 @@
+package bank;
+
+/**
+ * Version der Zinssätze einer {@link PrivateBank}, siehe {@link InterestRateTable}.
+ * <p>
+ * Jedes {@link Payment} wird bei der Buchung mit der aktuellen Version verknüpft und behält
+ * die gebuchten Zinssätze für Gleichheit und Dateien. {@link Payment#calculate()} rechnet mit
+ * den gültigen Zinssätzen der Version; eine Neubewertung ändert nur diese, nicht die Payments.
+ */
+final class RateVersion {
+
+    /** Zinssätze für Ein- und Auszahlungen, gemeinsam gelesen und ersetzt */
+    record Rates(double incoming, double outgoing) {
+    }
+
+    private final int number;
+    private final Rates booked;
+    private volatile Rates effective;
+
+    /**
+     * @param number    fortlaufende Nummer ab 1
+     * @param booked    Zinssätze, mit denen die Payments dieser Version gebucht wurden
+     * @param effective Zinssätze, mit denen sie aktuell berechnet werden
+     */
+    RateVersion(int number, Rates booked, Rates effective) {
+        this.number = number;
+        this.booked = booked;
+        this.effective = effective;
+    }
+
+    /** @return fortlaufende Nummer ab 1 */
+    int number() {
+        return number;
+    }
+
+    /** @return gebuchte Zinssätze */
+    Rates booked() {
+        return booked;
+    }
+
+    /** @return gültige Zinssätze */
+    Rates effective() {
+        return effective;
+    }
+
+    /** @param effective neue gültige Zinssätze */
+    void setEffective(Rates effective) {
+        this.effective = effective;
+    }
+}
@@ -0,0 +1,24 @@
+package bank;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Sortierte Abfrage der Transaktionen eines Kontos nach Betrag. {@code transactions} und
+ * {@code bytes} beschreiben das Konto (Anzahl und geschätzter Speicherbedarf).
+ */
+@Name("bank.Sort")
+@Label("Sort")
+@Description("Listing an account's transactions sorted by amount")
+@StackTrace(false)
+class SortEvent extends AccountEvent {
+
+    @Label("Ascending")
+    boolean ascending;
+
+    @Label("Returned")
+    @Description("Transactions in the result")
+    int returned;
+}
@@ -0,0 +1,20 @@
+package bank;
+
+/**
+ * Dateiformat der Kontodateien einer {@link PrivateBank}, siehe
+ * {@link BankOptions#setStorageFormat(StorageFormat)}. Vorhandene Verzeichnisse lassen sich
+ * mit {@link AccountFileConverter} in beide Richtungen umwandeln.
+ */
+public enum StorageFormat {
+
+    /** Formatiertes JSON in {@code Konto_<account>.json} (Standard) */
+    JSON,
+
+    /**
+     * Binärformat in {@code Konto_<account>.bin}: Datensätze fester Breite für Datum
+     * (als Epochentag), Betrag und Zinsen sowie eine Tabelle der vorkommenden Zeichenketten.
+     * Gelesen wird über eine Speicherabbildung; mit spaltenweisem Speicher werden Datensätze
+     * und Zeichenketten erst bei Bedarf dekodiert.
+     */
+    BINARY
+}
@@ -0,0 +1,75 @@
+package bank;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bankweiter Pool für die Zeichenketten der Transaktionen (Datum, Beschreibung, Sender,
+ * Empfänger). Gleiche Zeichenketten aus verschiedenen Transaktionen und Dateien teilen sich
+ * dadurch eine Instanz.
+ * <p>
+ * Der Pool hält seine Einträge nur schwach: Zeichenketten, die keine Transaktion mehr
+ * benutzt (z.B. nach dem Löschen oder Auslagern eines Kontos), werden vom Garbage Collector
+ * entfernt. Er ist in Streifen aufgeteilt, damit das parallele Einlesen nicht an einer
+ * einzigen Sperre wartet.
+ */
+class StringPool {
+
+    private static final int STRIPES = 16;
+
+    private final List<Map<String, WeakReference<String>>> stripes = new ArrayList<>(STRIPES);
+
+    /** Anzahl aller angefragten Zeichenketten */
+    private final LongAdder total = new LongAdder();
+
+    StringPool() {
+        for (int i = 0; i < STRIPES; i++) stripes.add(new WeakHashMap<>());
+    }
+
+    /**
+     * @param value Zeichenkette
+     * @return die gespeicherte gleiche Instanz, sonst {@code value} selbst; {@code null} bleibt {@code null}
+     */
+    String intern(String value) {
+        if (value == null) return null;
+        total.increment();
+
+        Map<String, WeakReference<String>> stripe = stripes.get((value.hashCode() & 0x7fffffff) % STRIPES);
+        synchronized (stripe) {
+            WeakReference<String> ref = stripe.get(value);
+            String pooled = ref == null ? null : ref.get();
+            if (pooled != null) return pooled;
+
+            stripe.put(value, new WeakReference<>(value));
+            return value;
+        }
+    }
+
+    /**
+     * Ersetzt die Zeichenketten einer Transaktion durch die Instanzen aus dem Pool. Die
+     * übergebene Transaktion wird dabei über ihre Setter verändert; Gleichheit und Hashwert
+     * bleiben unverändert. Aufrufer halten die Sperre des Kontos, in dem sie gespeichert ist.
+     *
+     * @param transaction Transaktion
+     */
+    void intern(Transaction transaction) {
+        transaction.setDate(intern(transaction.getDate()));
+        transaction.setDescription(intern(transaction.getDescription()));
+        if (transaction instanceof Transfer t) {
+            t.setSender(intern(t.getSender()));
+            t.setRecipient(intern(t.getRecipient()));
+        }
+    }
+
+    /** @return Momentaufnahme der Zähler */
+    StringPoolStatistics statistics() {
+        int unique = 0;
+        for (Map<String, WeakReference<String>> stripe : stripes) {
+            synchronized (stripe) {
+                unique += stripe.size();
+            }
+        }
+        return new StringPoolStatistics(total.sum(), unique);
+    }
+}
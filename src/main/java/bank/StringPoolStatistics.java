@@ -0,0 +1,10 @@
+package bank;
+
+/**
+ * Zähler des bankweiten Zeichenkettenpools einer {@link PrivateBank}.
+ *
+ * @param totalStrings  Anzahl der seit dem Start gelesenen bzw. hinzugefügten Zeichenketten
+ * @param uniqueStrings Anzahl der aktuell im Pool gehaltenen verschiedenen Zeichenketten
+ */
+public record StringPoolStatistics(long totalStrings, int uniqueStrings) {
+}
@@ -0,0 +1,74 @@
+package bank;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Sammelt in einem Durchlauf über die Transaktionen eines Kontos die Werte einer
+ * {@link AccountSummary}. Die Speicher liefern dafür je Transaktion den berechneten Betrag,
+ * den Epochentag und den Typ, ohne Zwischenlisten anzulegen.
+ */
+class SummaryCollector {
+
+    /** Veränderliche Summen eines Teils der Transaktionen */
+    private static final class Bucket {
+        long count;
+        double income;
+        double expenses;
+
+        void add(double value) {
+            count++;
+            if (value >= 0) income += value;
+            else expenses += value;
+        }
+
+        TransactionTotals toTotals() {
+            return new TransactionTotals(count, income, expenses);
+        }
+    }
+
+    private final Bucket total = new Bucket();
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private final TreeMap<YearMonth, Bucket> months = new TreeMap<>();
+    private final Map<Class<? extends Transaction>, Bucket> types = new LinkedHashMap<>();
+
+    // Monat der letzten Transaktion: aufeinanderfolgende Transaktionen liegen meist im selben
+    private Bucket month;
+    private int monthFirstDay = 1;
+    private int monthLastDay = 0;
+
+    /**
+     * @param value    berechneter Betrag
+     * @param epochDay Datum als Epochentag oder {@link TransactionDates#UNKNOWN}
+     * @param type     Typ der Transaktion
+     */
+    void add(double value, int epochDay, Class<? extends Transaction> type) {
+        total.add(value);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        types.computeIfAbsent(type, k -> new Bucket()).add(value);
+
+        if (epochDay == TransactionDates.UNKNOWN) return;
+        if (epochDay < monthFirstDay || epochDay > monthLastDay) {
+            YearMonth key = YearMonth.from(LocalDate.ofEpochDay(epochDay));
+            month = months.computeIfAbsent(key, k -> new Bucket());
+            monthFirstDay = (int) key.atDay(1).toEpochDay();
+            monthLastDay = (int) key.atEndOfMonth().toEpochDay();
+        }
+        month.add(value);
+    }
+
+    /** @return unveränderliche Zusammenfassung der bisher gesammelten Werte */
+    AccountSummary toSummary() {
+        TreeMap<YearMonth, TransactionTotals> monthTotals = new TreeMap<>();
+        months.forEach((key, bucket) -> monthTotals.put(key, bucket.toTotals()));
+        Map<Class<? extends Transaction>, TransactionTotals> typeTotals = new LinkedHashMap<>();
+        types.forEach((key, bucket) -> typeTotals.put(key, bucket.toTotals()));
+
+        boolean empty = total.count == 0;
+        return new AccountSummary(total.toTotals(), empty ? 0 : min, empty ? 0 : max,
+                Collections.unmodifiableSortedMap(monthTotals), Collections.unmodifiableMap(typeTotals));
+    }
+}
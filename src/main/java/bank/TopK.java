@@ -0,0 +1,126 @@
+package bank;
+
+import java.util.*;
+
+/**
+ * Auswahl der {@code k} kleinsten bzw. größten berechneten Beträge in O(n log k) mit einem
+ * beschränkten Heap; belegt wird nur Platz für {@code k} Einträge.
+ * <p>
+ * Gleiche Beträge werden nach ihrer Position geordnet, sodass das Ergebnis genau dem Anfang
+ * von {@link TransactionStore#sorted(boolean)} entspricht. Die Positionen müssen deshalb
+ * aufsteigend angeboten werden.
+ *
+ * @param <T> mitgeführtes Element, z.B. die Transaktion
+ */
+final class TopK<T> {
+
+    private final boolean asc;
+    private final int capacity;
+    private final double[] values;
+    private final int[] positions;
+    private final Object[] items;
+    private int size;
+
+    /**
+     * @param k   Anzahl der gesuchten Einträge
+     * @param n   Anzahl der Kandidaten, begrenzt den belegten Platz
+     * @param asc {@code true} für die kleinsten, {@code false} für die größten Beträge
+     */
+    TopK(int k, int n, boolean asc) {
+        this.asc = asc;
+        this.capacity = Math.max(0, Math.min(k, n));
+        values = new double[capacity];
+        positions = new int[capacity];
+        items = new Object[capacity];
+    }
+
+    /**
+     * @param value    berechneter Betrag
+     * @param position Position des Kandidaten, größer als alle bisher angebotenen
+     * @param item     mitgeführtes Element
+     */
+    void offer(double value, int position, T item) {
+        if (capacity == 0) return;
+        if (size < capacity) {
+            set(size, value, position, item);
+            siftUp(size++);
+        } else if (compare(value, position, values[0], positions[0]) < 0) {
+            // die Wurzel ist der schlechteste der bisher behaltenen Einträge
+            set(0, value, position, item);
+            siftDown(0, size);
+        }
+    }
+
+    /** @return Positionen der ausgewählten Einträge in Ergebnisreihenfolge */
+    int[] sortedPositions() {
+        sortHeap();
+        return Arrays.copyOf(positions, size);
+    }
+
+    /** @return ausgewählte Elemente in Ergebnisreihenfolge */
+    @SuppressWarnings("unchecked")
+    List<T> sortedItems() {
+        sortHeap();
+        List<T> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) result.add((T) items[i]);
+        return result;
+    }
+
+    /** Heapsort: der schlechteste Eintrag wandert jeweils ans Ende. */
+    private void sortHeap() {
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+    }
+
+    /** @return negativ, wenn {@code (v1, p1)} im Ergebnis vor {@code (v2, p2)} steht */
+    private int compare(double v1, int p1, double v2, int p2) {
+        int c = asc ? Double.compare(v1, v2) : Double.compare(v2, v1);
+        return c != 0 ? c : Integer.compare(p1, p2);
+    }
+
+    private int compare(int i, int j) {
+        return compare(values[i], positions[i], values[j], positions[j]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (compare(i, parent) <= 0) return;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i, int end) {
+        while (true) {
+            int worst = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < end && compare(left, worst) > 0) worst = left;
+            if (right < end && compare(right, worst) > 0) worst = right;
+            if (worst == i) return;
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void set(int i, double value, int position, Object item) {
+        values[i] = value;
+        positions[i] = position;
+        items[i] = item;
+    }
+
+    private void swap(int i, int j) {
+        double v = values[i];
+        values[i] = values[j];
+        values[j] = v;
+        int p = positions[i];
+        positions[i] = positions[j];
+        positions[j] = p;
+        Object o = items[i];
+        items[i] = items[j];
+        items[j] = o;
+    }
+}
@@ -1,5 +1,8 @@
 package bank;
 
+import java.time.LocalDate;
+import java.util.Objects;
+
 /**
  * Basisklasse für finanzielle Transaktionen wie Überweisungen oder Ein- und Auszahlungen.
  *
@@ -22,6 +25,12 @@ public abstract class Transaction implements CalculateBill {
      */
     protected String description;
 
+    /** Gelesenes Datum, einmal je Datumstext berechnet */
+    private transient ParsedDate parsedDate;
+
+    /** Datumstext mit zugehörigem Epochentag; unveränderlich, damit es ohne Sperre geteilt werden kann */
+    private record ParsedDate(String text, int epochDay) { }
+
     /**
      * Konstruktor zur Initialisierung aller Attribute einer Transaktion.
      *
@@ -51,6 +60,30 @@ public abstract class Transaction implements CalculateBill {
         this.date = date;
     }
 
+    /**
+     * @return Datum als {@link LocalDate} ({@code dd.MM.yyyy} oder ISO), {@code null} wenn es
+     *         sich nicht lesen lässt
+     */
+    public LocalDate getLocalDate() {
+        int day = epochDay();
+        return day == TransactionDates.UNKNOWN ? null : LocalDate.ofEpochDay(day);
+    }
+
+    /**
+     * Liefert das Datum als Epochentag. Es wird nur beim ersten Aufruf je Datumstext gelesen.
+     *
+     * @return Epochentag oder {@link TransactionDates#UNKNOWN}
+     */
+    int epochDay() {
+        String current = date;
+        ParsedDate parsed = parsedDate;
+        if (parsed == null || parsed.text() != current) {
+            parsed = new ParsedDate(current, TransactionDates.epochDay(current));
+            parsedDate = parsed;
+        }
+        return parsed.epochDay();
+    }
+
     /**
      * @return Betrag der Transaktion
      */
@@ -104,4 +137,19 @@ public abstract class Transaction implements CalculateBill {
                 && amount == other.amount
                 && description.equals(other.description);
     }
+
+    /**
+     * Berechnet den Hashwert aus denselben Attributen wie {@link #equals(Object)}.
+     * Unterklassen, die weitere Attribute vergleichen, beziehen diese ebenfalls ein.
+     *
+     * @return Hashwert der Transaktion
+     */
+    @Override
+    public int hashCode() {
+        int result = Objects.hashCode(date);
+        // 0.0 und -0.0 sind für equals gleich und müssen denselben Hashwert liefern
+        result = 31 * result + Double.hashCode(amount == 0 ? 0.0 : amount);
+        result = 31 * result + Objects.hashCode(description);
+        return result;
+    }
 }
@@ -0,0 +1,70 @@
+package bank;
+
+import java.util.*;
+
+/**
+ * Ergebnis von {@link Bank#addTransactions(String, Collection)}: für jede übergebene
+ * Transaktion, in Eingabereihenfolge, ob sie hinzugefügt wurde oder warum nicht.
+ */
+public class TransactionBatchResult {
+
+    /** Ausgang für eine einzelne Transaktion */
+    public enum Status {
+        /** Transaktion wurde hinzugefügt */
+        ADDED,
+        /** Transaktion existierte bereits im Konto oder kam im Stapel doppelt vor */
+        DUPLICATE,
+        /** Validierung der Attribute ist fehlgeschlagen */
+        INVALID
+    }
+
+    /**
+     * Ergebnis für eine einzelne Transaktion.
+     *
+     * @param transaction die übergebene Transaktion
+     * @param status      Ausgang
+     * @param message     Begründung, falls die Transaktion nicht hinzugefügt wurde, sonst {@code null}
+     */
+    public record Item(Transaction transaction, Status status, String message) {
+    }
+
+    private final List<Item> items;
+
+    /**
+     * @param items Ergebnisse je Transaktion in Eingabereihenfolge
+     */
+    TransactionBatchResult(List<Item> items) {
+        this.items = List.copyOf(items);
+    }
+
+    /** @return Ergebnisse je Transaktion in Eingabereihenfolge */
+    public List<Item> getItems() { return items; }
+
+    /** @return Anzahl der hinzugefügten Transaktionen */
+    public int getAddedCount() { return count(Status.ADDED); }
+
+    /** @return Anzahl der Duplikate */
+    public int getDuplicateCount() { return count(Status.DUPLICATE); }
+
+    /** @return Anzahl der ungültigen Transaktionen */
+    public int getInvalidCount() { return count(Status.INVALID); }
+
+    /** @return {@code true}, wenn alle Transaktionen hinzugefügt wurden */
+    public boolean isComplete() { return getAddedCount() == items.size(); }
+
+    private int count(Status status) {
+        int n = 0;
+        for (Item item : items)
+            if (item.status() == status) n++;
+        return n;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionBatchResult {" +
+                "added=" + getAddedCount() +
+                ", duplicates=" + getDuplicateCount() +
+                ", invalid=" + getInvalidCount() +
+                '}';
+    }
+}
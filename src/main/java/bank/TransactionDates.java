@@ -0,0 +1,48 @@
+package bank;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+
+/**
+ * Umrechnung der Datumsangaben von Transaktionen in Epochentage
+ * ({@link LocalDate#toEpochDay()}). Die Kontodateien verwenden {@code dd.MM.yyyy}, die
+ * Oberfläche schreibt ISO-Daten ({@code yyyy-MM-dd}); beide Schreibweisen werden erkannt.
+ */
+final class TransactionDates {
+
+    /** Ergebnis für Datumsangaben, die sich nicht lesen lassen */
+    static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private static final DateTimeFormatter GERMAN = DateTimeFormatter.ofPattern("dd.MM.uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    private TransactionDates() {
+    }
+
+    /**
+     * @param epochDay Epochentag
+     * @param iso      {@code true} für {@code yyyy-MM-dd}, sonst {@code dd.MM.yyyy}
+     * @return Datumsangabe in der gewählten Schreibweise
+     */
+    static String format(int epochDay, boolean iso) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return iso ? date.format(DateTimeFormatter.ISO_LOCAL_DATE) : date.format(GERMAN);
+    }
+
+    /**
+     * @param date Datumsangabe einer Transaktion
+     * @return Epochentag oder {@link #UNKNOWN}, wenn das Datum in keiner bekannten Schreibweise vorliegt
+     */
+    static int epochDay(String date) {
+        if (date == null) return UNKNOWN;
+        try {
+            DateTimeFormatter formatter = date.indexOf('-') > 0 ? DateTimeFormatter.ISO_LOCAL_DATE : GERMAN;
+            long day = LocalDate.parse(date.trim(), formatter).toEpochDay();
+            return day > Integer.MIN_VALUE && day <= Integer.MAX_VALUE ? (int) day : UNKNOWN;
+        } catch (DateTimeParseException e) {
+            return UNKNOWN;
+        }
+    }
+}
@@ -1,72 +1,154 @@
 package bank;
 
 import com.google.gson.*;
-import java.lang.reflect.Type;
+import com.google.gson.stream.*;
+import java.io.IOException;
 
-public class TransactionSerDer implements JsonSerializer<Transaction>, JsonDeserializer<Transaction> {
+/**
+ * Streaming-(De-)Serialisierung von {@link Transaction}-Objekten.
+ * <p>
+ * Liest und schreibt direkt über {@link JsonReader}/{@link JsonWriter}, ohne pro Transaktion
+ * einen {@link JsonObject}-Baum aufzubauen. Das Format bleibt unverändert: das Feld
+ * {@code CLASSNAME} bestimmt den konkreten Typ, die Reihenfolge der Felder beim Lesen ist beliebig.
+ * Payments tragen zusätzlich die Nummer ihrer Zinsversion ({@code rateVersion}), sofern sie
+ * eine haben. Mit einem {@link StringPool} teilen sich gleiche Zeichenketten der gelesenen
+ * Transaktionen eine Instanz.
+ */
+public class TransactionSerDer extends TypeAdapter<Transaction> {
+
+    /** Pool für gelesene Zeichenketten, {@code null} für keinen */
+    private final StringPool pool;
+
+    /** Erzeugt einen SerDer ohne Zeichenkettenpool. */
+    public TransactionSerDer() {
+        this(null);
+    }
+
+    /**
+     * @param pool Pool für gelesene Zeichenketten, {@code null} für keinen
+     */
+    TransactionSerDer(StringPool pool) {
+        this.pool = pool;
+    }
 
     @Override
-    public JsonElement serialize(Transaction src, Type typeOfSrc, JsonSerializationContext context) {
-        JsonObject obj = new JsonObject();
-        obj.addProperty("CLASSNAME", src.getClass().getSimpleName());
+    public void write(JsonWriter out, Transaction src) throws IOException {
+        if (src == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("CLASSNAME").value(src.getClass().getSimpleName());
         if (src instanceof Transfer t) {
-            obj.addProperty("sender", t.getSender());
-            obj.addProperty("recipient", t.getRecipient());
+            out.name("sender").value(t.getSender());
+            out.name("recipient").value(t.getRecipient());
         } else if (src instanceof Payment p) {
-            obj.addProperty("incomingInterest", p.getIncomingInterest());
-            obj.addProperty("outgoingInterest", p.getOutgoingInterest());
+            out.name("incomingInterest").value(p.getIncomingInterest());
+            out.name("outgoingInterest").value(p.getOutgoingInterest());
+            if (p.getRateVersion() > 0) out.name("rateVersion").value(p.getRateVersion());
         }
 
-        obj.addProperty("date", src.getDate());
-        obj.addProperty("amount", src.getAmount());
-        obj.addProperty("description", src.getDescription());
-
-
-
-        return obj;
+        out.name("date").value(src.getDate());
+        out.name("amount").value(src.getAmount());
+        out.name("description").value(src.getDescription());
+        out.endObject();
     }
 
     @Override
-    public Transaction deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
-            throws JsonParseException {
+    public Transaction read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
 
-        JsonObject obj = json.getAsJsonObject();
-        String className = obj.get("CLASSNAME").getAsString();
+        String className = null;
+        String date = null;
+        String description = null;
+        String sender = null;
+        String recipient = null;
+        Double amount = null;
+        Double incomingInterest = null;
+        Double outgoingInterest = null;
+        int rateVersion = 0;
 
-        String date = obj.get("date").getAsString();
-        double amount = obj.get("amount").getAsDouble();
-        String description = obj.get("description").getAsString();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "CLASSNAME" -> className = nextString(in);
+                case "date" -> date = pooled(nextString(in));
+                case "amount" -> amount = in.nextDouble();
+                case "description" -> description = pooled(nextString(in));
+                case "sender" -> sender = pooled(nextString(in));
+                case "recipient" -> recipient = pooled(nextString(in));
+                case "incomingInterest" -> incomingInterest = in.nextDouble();
+                case "outgoingInterest" -> outgoingInterest = in.nextDouble();
+                case "rateVersion" -> rateVersion = in.nextInt();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        require(className, "CLASSNAME", in);
+        require(date, "date", in);
+        require(amount, "amount", in);
+        require(description, "description", in);
+        if (className.endsWith("Transfer")) {
+            require(sender, "sender", in);
+            require(recipient, "recipient", in);
+        }
 
         return switch (className) {
             case "IncomingTransfer" -> new IncomingTransfer(
                     date,
                     amount,
                     description,
-                    obj.get("sender").getAsString(),
-                    obj.get("recipient").getAsString()
+                    sender,
+                    recipient
             );
             case "OutgoingTransfer" -> new OutgoingTransfer(
                     date,
                     amount,
                     description,
-                    obj.get("sender").getAsString(),
-                    obj.get("recipient").getAsString()
+                    sender,
+                    recipient
             );
             case "Transfer" -> new Transfer(
                     date,
                     amount,
                     description,
-                    obj.get("sender").getAsString(),
-                    obj.get("recipient").getAsString()
-            );
-            case "Payment" -> new Payment(
-                    date,
-                    amount,
-                    description,
-                    obj.get("incomingInterest").getAsDouble(),
-                    obj.get("outgoingInterest").getAsDouble()
+                    sender,
+                    recipient
             );
+            case "Payment" -> {
+                Payment payment = new Payment(
+                        date,
+                        amount,
+                        description,
+                        require(incomingInterest, "incomingInterest", in),
+                        require(outgoingInterest, "outgoingInterest", in)
+                );
+                payment.setStoredRateVersion(rateVersion);
+                yield payment;
+            }
             default -> throw new JsonParseException("Unknown transaction type: " + className);
         };
     }
+
+    private static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    private String pooled(String value) {
+        return pool == null ? value : pool.intern(value);
+    }
+
+    private static <T> T require(T value, String field, JsonReader in) {
+        if (value == null) throw new JsonParseException("Missing " + field + " at " + in.getPath());
+        return value;
+    }
 }
@@ -0,0 +1,121 @@
+package bank;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * {@link Spliterator} über die Transaktionen eines Kontos, ohne das Konto vorher zu kopieren.
+ * <p>
+ * Die Transaktionen werden in Blöcken von höchstens {@link #BATCH_SIZE} gelesen; für jeden
+ * Block wird die Lesesperre des Kontos kurz gehalten, sodass Schreiber zwischen zwei Blöcken
+ * nicht blockiert werden. Wurde das Konto seit dem Anlegen des Spliterators verändert, entfernt
+ * oder aus dem Speicher verdrängt, wirft der nächste Block eine
+ * {@link ConcurrentModificationException}, wie die Iteratoren der Collections.
+ * <p>
+ * {@link #trySplit()} gibt wie {@link Spliterators.AbstractSpliterator} einen Vorabblock als
+ * Array ab, damit parallele Streams arbeiten können.
+ */
+class TransactionSpliterator implements Spliterator<Transaction> {
+
+    /** Transaktionen je Lesevorgang unter der Sperre */
+    static final int BATCH_SIZE = 1024;
+
+    private static final int MAX_SPLIT = 1 << 20;
+
+    private final AccountLedger ledger;
+    private final Iterator<Transaction> source;
+    private final int expectedModCount;
+    private final Runnable onBatch;
+
+    private final Transaction[] batch = new Transaction[BATCH_SIZE];
+    private int index;
+    private int count;
+    private long remaining;
+    private int splitSize = BATCH_SIZE;
+
+    /**
+     * Nur unter der Lesesperre des Kontos anlegen.
+     *
+     * @param ledger  Konto
+     * @param source  Iterator über die Transaktionen des Kontos
+     * @param onBatch wird für jeden Block unter der Lesesperre ausgeführt
+     */
+    TransactionSpliterator(AccountLedger ledger, Iterator<Transaction> source, Runnable onBatch) {
+        this.ledger = ledger;
+        this.source = source;
+        this.onBatch = onBatch;
+        this.expectedModCount = ledger.modCount();
+        this.remaining = ledger.size();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Transaction> action) {
+        Objects.requireNonNull(action);
+        if (index == count && !fill()) return false;
+        Transaction t = batch[index];
+        batch[index++] = null;
+        remaining--;
+        action.accept(t);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Transaction> action) {
+        Objects.requireNonNull(action);
+        while (index < count || fill()) {
+            while (index < count) {
+                Transaction t = batch[index];
+                batch[index++] = null;
+                remaining--;
+                action.accept(t);
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<Transaction> trySplit() {
+        if (remaining < 2) return null;
+        int n = (int) Math.min(remaining, splitSize);
+        splitSize = Math.min(splitSize * 2, MAX_SPLIT);
+
+        Transaction[] prefix = new Transaction[n];
+        int j = 0;
+        while (j < n && (index < count || fill())) {
+            prefix[j++] = batch[index];
+            batch[index++] = null;
+            remaining--;
+        }
+        return Spliterators.spliterator(prefix, 0, j, characteristics());
+    }
+
+    @Override
+    public long estimateSize() {
+        return remaining;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL;
+    }
+
+    /** @return {@code false}, wenn keine Transaktionen mehr folgen */
+    private boolean fill() {
+        if (remaining == 0) return false;
+
+        ledger.readLock().lock();
+        try {
+            if (ledger.modCount() != expectedModCount)
+                throw new ConcurrentModificationException("Konto wurde während des Lesens verändert");
+            onBatch.run();
+
+            int limit = (int) Math.min(remaining, BATCH_SIZE);
+            count = 0;
+            index = 0;
+            while (count < limit && source.hasNext()) batch[count++] = source.next();
+        } finally {
+            ledger.readLock().unlock();
+        }
+        if (count == 0) remaining = 0;
+        return count > 0;
+    }
+}
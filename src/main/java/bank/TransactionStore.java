@@ -0,0 +1,148 @@
+package bank;
+
+import java.util.*;
+
+/**
+ * Speicher für die Transaktionen eines {@link AccountLedger} in Einfügereihenfolge.
+ * <p>
+ * Gleiche Transaktionen (im Sinne von {@link Transaction#equals(Object)}) werden nur einmal
+ * gespeichert. Die Implementierungen sind nicht synchronisiert; die Sperren hält das Konto.
+ */
+interface TransactionStore extends Iterable<Transaction> {
+
+    /**
+     * @param transaction gesuchte Transaktion
+     * @return {@code true}, wenn eine gleiche Transaktion gespeichert ist
+     */
+    boolean contains(Transaction transaction);
+
+    /**
+     * @param transaction hinzuzufügende Transaktion
+     * @return {@code false}, wenn bereits eine gleiche Transaktion gespeichert ist
+     */
+    boolean add(Transaction transaction);
+
+    /**
+     * @param transaction zu entfernende Transaktion
+     * @return die gespeicherte Transaktion (mit ihrem Typ), {@code null} wenn keine gleiche gespeichert ist
+     */
+    Transaction remove(Transaction transaction);
+
+    /** @return Anzahl der Transaktionen */
+    int size();
+
+    /** Entfernt alle Transaktionen. */
+    void clear();
+
+    /** @return geschätzter Speicherbedarf in Bytes */
+    long estimatedBytes();
+
+    /** @return Kopie der Transaktionen in Einfügereihenfolge */
+    List<Transaction> toList();
+
+    /**
+     * Verwirft vom berechneten Betrag abhängige Hilfsstrukturen, nachdem sich die Berechnung
+     * geändert hat, z.B. durch eine Neubewertung der Zinsen.
+     */
+    default void invalidateAmounts() {
+    }
+
+    /** @return {@link Transaction#calculate()} aller Transaktionen in Einfügereihenfolge */
+    default double[] calculatedAmounts() {
+        double[] amounts = new double[size()];
+        int i = 0;
+        for (Transaction t : this) amounts[i++] = t.calculate();
+        return amounts;
+    }
+
+    /** @return Datum aller Transaktionen als Epochentag in Einfügereihenfolge, siehe {@link TransactionDates} */
+    default int[] epochDays() {
+        int[] days = new int[size()];
+        int i = 0;
+        for (Transaction t : this) days[i++] = t.epochDay();
+        return days;
+    }
+
+    /**
+     * @param asc {@code true} für aufsteigend
+     * @return Transaktionen stabil nach {@link Transaction#calculate()} sortiert
+     */
+    default List<Transaction> sorted(boolean asc) {
+        List<Transaction> sorted = toList();
+        sorted.sort((a, b) ->
+                asc ? Double.compare(a.calculate(), b.calculate())
+                        : Double.compare(b.calculate(), a.calculate()));
+        return sorted;
+    }
+
+    /**
+     * @param asc {@code true} für aufsteigend
+     * @return Iterator in der Reihenfolge von {@link #sorted(boolean)}; nur gültig, solange der
+     * Speicher nicht verändert wird
+     */
+    default Iterator<Transaction> sortedIterator(boolean asc) {
+        return sorted(asc).iterator();
+    }
+
+    /**
+     * @param offset Anzahl der zu überspringenden Transaktionen
+     * @param limit  höchstens zurückzugebende Transaktionen
+     * @return Ausschnitt der Transaktionen in Einfügereihenfolge
+     */
+    default List<Transaction> page(int offset, int limit) {
+        return page(iterator(), offset, limit);
+    }
+
+    /**
+     * @param asc    {@code true} für aufsteigend
+     * @param offset Anzahl der zu überspringenden Transaktionen
+     * @param limit  höchstens zurückzugebende Transaktionen
+     * @return Ausschnitt der Transaktionen in der Reihenfolge von {@link #sorted(boolean)}
+     */
+    default List<Transaction> sortedPage(boolean asc, int offset, int limit) {
+        return page(sortedIterator(asc), offset, limit);
+    }
+
+    /**
+     * Übergibt Betrag, Datum und Typ jeder Transaktion in einem Durchlauf an den Sammler.
+     *
+     * @param collector Sammler der Zusammenfassung
+     */
+    default void summarize(SummaryCollector collector) {
+        for (Transaction t : this) collector.add(t.calculate(), t.epochDay(), t.getClass());
+    }
+
+    /**
+     * @param asc {@code true} für die kleinsten, {@code false} für die größten Beträge
+     * @param k   Anzahl der gesuchten Transaktionen
+     * @return die ersten {@code k} Transaktionen von {@link #sorted(boolean)}, ermittelt mit {@link TopK}
+     */
+    default List<Transaction> top(boolean asc, int k) {
+        TopK<Transaction> top = new TopK<>(k, size(), asc);
+        int position = 0;
+        for (Transaction t : this) top.offer(t.calculate(), position++, t);
+        return top.sortedItems();
+    }
+
+    /** Überspringt {@code offset} Elemente und kopiert die nächsten {@code limit}. */
+    private static List<Transaction> page(Iterator<Transaction> it, int offset, int limit) {
+        for (int i = 0; i < offset && it.hasNext(); i++) it.next();
+        List<Transaction> page = new ArrayList<>();
+        while (page.size() < limit && it.hasNext()) page.add(it.next());
+        return page;
+    }
+
+    /**
+     * @param positive {@code true} für Beträge ab 0, {@code false} für negative Beträge
+     * @return passende Transaktionen in Einfügereihenfolge
+     */
+    default List<Transaction> byType(boolean positive) {
+        List<Transaction> result = new ArrayList<>();
+        for (Transaction t : this) {
+            double value = t.calculate();
+            if (positive && value >= 0) result.add(t);
+            if (!positive && value < 0) result.add(t);
+        }
+        return result;
+    }
+}
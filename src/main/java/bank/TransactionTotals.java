@@ -0,0 +1,17 @@
+package bank;
+
+/**
+ * Summen eines Teils der Transaktionen eines Kontos, z.B. eines Monats oder eines
+ * Transaktionstyps, siehe {@link AccountSummary}.
+ *
+ * @param count    Anzahl der Transaktionen
+ * @param income   Summe der berechneten Beträge ab 0
+ * @param expenses Summe der negativen berechneten Beträge (höchstens 0)
+ */
+public record TransactionTotals(long count, double income, double expenses) {
+
+    /** @return Einnahmen plus Ausgaben */
+    public double net() {
+        return income + expenses;
+    }
+}
@@ -1,5 +1,7 @@
 package bank;
 
+import java.util.Objects;
+
 /**
  * Repräsentiert eine Überweisung zwischen einem Sender und einem Empfänger.
  *
@@ -114,4 +116,17 @@ public class Transfer extends Transaction {
         return sender.equals(transfer.sender) &&
                 recipient.equals(transfer.recipient);
     }
+
+    /**
+     * Berechnet den Hashwert passend zu {@link #equals(Object)} inklusive Sender und Empfänger.
+     *
+     * @return Hashwert der Überweisung
+     */
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + Objects.hashCode(sender);
+        result = 31 * result + Objects.hashCode(recipient);
+        return result;
+    }
 }
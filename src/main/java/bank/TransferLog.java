@@ -0,0 +1,406 @@
+package bank;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Absichtsprotokoll für Umbuchungen zwischen zwei Konten, siehe
+ * {@link PrivateBank#transfer(String, String, double, String, String)}, in {@code Transfers.log}.
+ * <p>
+ * Vor dem Buchen wird ein {@code COMMIT}-Eintrag mit beiden Seiten als eine JSON-Zeile
+ * angehängt; er ist der Zeitpunkt, ab dem die Umbuchung gilt. Umbuchungen mit {@code COMMIT},
+ * die nicht als angewendet markiert sind, werden beim Start der Bank nachgeholt; das ist
+ * idempotent, weil bereits gebuchte Seiten als Duplikate erkannt werden. Kann eine Umbuchung
+ * nicht geschrieben werden, wird vor dem Zurücknehmen ein {@code ROLLBACK}-Eintrag
+ * geschrieben; beim Start werden die Seiten einer solchen Umbuchung wieder entfernt, außer ein
+ * späterer {@code COMMIT} bucht dieselben Seiten erneut.
+ * <p>
+ * Gleichzeitige Einträge werden gesammelt und mit einem Schreibvorgang angehängt: der erste
+ * Thread schreibt alle bis dahin wartenden Zeilen, die übrigen warten nur auf das Ergebnis.
+ * Angewendete Umbuchungen werden nur im Speicher vermerkt und als ein {@code APPLIED}-Eintrag
+ * mit dem nächsten Schreibvorgang, vor dem Entfernen von Transaktionen oder beim Schließen
+ * angehängt. Sind keine Umbuchungen mehr offen, wird die Datei geleert, sobald sie
+ * {@link #COMPACT_RECORDS} Einträge erreicht; damit sind auch diese Vermerke erledigt.
+ * Gesperrt wird nur für die Verwaltung der Einträge, nicht für das Schreiben der Datei oder
+ * der Konten.
+ */
+class TransferLog implements Closeable {
+
+    /** Dateiname des Protokolls im Verzeichnis der Kontodateien */
+    static final String FILE_NAME = "Transfers.log";
+
+    /** Ab dieser Anzahl Einträge wird die Datei geleert, wenn nichts mehr offen ist */
+    static final int COMPACT_RECORDS = 10_000;
+
+    /**
+     * Festgeschriebene Umbuchung.
+     *
+     * @param id         fortlaufende Nummer
+     * @param from       belastetes Konto
+     * @param to         begünstigtes Konto
+     * @param outgoing   Buchung im belasteten Konto
+     * @param incoming   Buchung im begünstigten Konto
+     * @param rolledBack {@code true}, wenn die Umbuchung zurückgenommen werden muss
+     */
+    record Entry(long id, String from, String to, Transaction outgoing, Transaction incoming, boolean rolledBack) {
+    }
+
+    /** Zeilen, die mit einem Schreibvorgang angehängt werden */
+    private static final class Batch {
+        private final StringBuilder lines = new StringBuilder();
+        private int records;
+        private List<Long> applied = List.of();
+        private boolean done;
+        private IOException failure;
+    }
+
+    private final Path file;
+    private final TransactionSerDer serDer;
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    private Writer writer;
+    private int records;
+
+    /** Batch, dem neue Zeilen hinzugefügt werden */
+    private Batch filling = new Batch();
+
+    /** Ob gerade ein Thread einen Batch schreibt; nur er benutzt dann {@link #writer} */
+    private boolean writing;
+
+    /** Festgeschriebene, aber noch nicht vollständig geschriebene oder zurückgenommene Umbuchungen */
+    private final Set<Long> open = new HashSet<>();
+
+    /** Angewendete Umbuchungen, deren {@code APPLIED}-Eintrag noch nicht geschrieben ist */
+    private final List<Long> applied = new ArrayList<>();
+
+    /** Umbuchungen, die erst mit dem nächsten {@link PrivateBank#flush()} auf der Platte sind */
+    private final List<Long> deferred = new ArrayList<>();
+
+    /**
+     * @param directory Verzeichnis der Kontodateien
+     * @param pool      Pool für gelesene Zeichenketten, {@code null} für keinen
+     */
+    TransferLog(Path directory, StringPool pool) {
+        this.file = directory.resolve(FILE_NAME);
+        this.serDer = new TransactionSerDer(pool);
+    }
+
+    /**
+     * Liest das Protokoll und liefert die Umbuchungen, die festgeschrieben, aber nicht als
+     * angewendet markiert sind, einschließlich der zurückzunehmenden. Ungültige Zeilen, etwa
+     * eine nach einem Absturz unvollständige letzte Zeile, werden übersprungen.
+     *
+     * @return offene Umbuchungen in Reihenfolge
+     * @throws IOException wenn das Protokoll nicht gelesen werden kann
+     */
+    synchronized List<Entry> pending() throws IOException {
+        Map<Long, Entry> pending = new LinkedHashMap<>();
+        if (!Files.exists(file)) return new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                records++;
+
+                long id = -1;
+                List<Long> ids = new ArrayList<>();
+                String op = null, from = null, to = null;
+                Transaction outgoing = null, incoming = null;
+                try {
+                    JsonReader json = new JsonReader(new StringReader(line));
+                    json.beginObject();
+                    while (json.hasNext()) {
+                        switch (json.nextName()) {
+                            case "id" -> id = json.nextLong();
+                            case "ids" -> {
+                                json.beginArray();
+                                while (json.hasNext()) ids.add(json.nextLong());
+                                json.endArray();
+                            }
+                            case "op" -> op = json.nextString();
+                            case "from" -> from = json.nextString();
+                            case "to" -> to = json.nextString();
+                            case "outgoing" -> outgoing = serDer.read(json);
+                            case "incoming" -> incoming = serDer.read(json);
+                            default -> json.skipValue();
+                        }
+                    }
+                    json.endObject();
+                } catch (IOException | JsonParseException | IllegalStateException | IllegalArgumentException e) {
+                    System.out.println("Ungültiger Eintrag in " + file.getFileName() + " übersprungen: " + e.getMessage());
+                    continue;
+                }
+
+                nextId.set(Math.max(nextId.get(), id + 1));
+                if ("COMMIT".equals(op) && from != null && to != null && outgoing != null && incoming != null) {
+                    // eine erneut gebuchte Umbuchung darf nicht mehr zurückgenommen werden
+                    Transaction o = outgoing, i = incoming;
+                    pending.values().removeIf(e -> e.rolledBack() && e.outgoing().equals(o) && e.incoming().equals(i));
+                    pending.put(id, new Entry(id, from, to, outgoing, incoming, false));
+                } else if ("ROLLBACK".equals(op)) {
+                    Entry entry = pending.get(id);
+                    if (entry != null)
+                        pending.put(id, new Entry(id, entry.from(), entry.to(), entry.outgoing(), entry.incoming(), true));
+                } else if ("APPLIED".equals(op)) {
+                    pending.remove(id);
+                    pending.keySet().removeAll(ids);
+                }
+            }
+        }
+        AccountJournal.terminateLastLine(file);
+        open.addAll(pending.keySet());
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * Schreibt eine Umbuchung fest. Kehrt erst zurück, wenn der Eintrag geschrieben ist.
+     *
+     * @param from     belastetes Konto
+     * @param to       begünstigtes Konto
+     * @param outgoing Buchung im belasteten Konto
+     * @param incoming Buchung im begünstigten Konto
+     * @return Nummer der Umbuchung für {@link #applied(long)} und {@link #rollback(long)}
+     * @throws IOException wenn das Protokoll nicht geschrieben werden kann; die Umbuchung gilt dann nicht
+     */
+    long commit(String from, String to, Transaction outgoing, Transaction incoming) throws IOException {
+        long id = nextId.getAndIncrement();
+        StringWriter line = new StringWriter();
+        JsonWriter json = new JsonWriter(line);
+        json.beginObject();
+        json.name("id").value(id);
+        json.name("op").value("COMMIT");
+        json.name("from").value(from);
+        json.name("to").value(to);
+        json.name("outgoing");
+        serDer.write(json, outgoing);
+        json.name("incoming");
+        serDer.write(json, incoming);
+        json.endObject();
+        json.flush();
+
+        synchronized (this) {
+            open.add(id);
+        }
+        try {
+            append(line.toString());
+        } catch (IOException e) {
+            synchronized (this) {
+                open.remove(id);
+            }
+            throw e;
+        }
+        return id;
+    }
+
+    /**
+     * Vermerkt, dass eine festgeschriebene Umbuchung zurückgenommen wird. Kehrt erst zurück,
+     * wenn der Eintrag geschrieben ist; die Umbuchung bleibt offen, bis sie mit
+     * {@link #applied(long)} als erledigt markiert wird.
+     *
+     * @param id Nummer der Umbuchung
+     * @throws IOException wenn das Protokoll nicht geschrieben werden kann; die Umbuchung bleibt dann festgeschrieben
+     */
+    void rollback(long id) throws IOException {
+        append("{\"id\":" + id + ",\"op\":\"ROLLBACK\"}");
+    }
+
+    /**
+     * Markiert eine Umbuchung als erledigt: beide Konten sind geschrieben bzw. die Umbuchung
+     * ist in beiden Konten zurückgenommen. Geschrieben wird dabei nichts, siehe
+     * {@link #syncApplied()}.
+     *
+     * @param id Nummer der Umbuchung
+     */
+    synchronized void applied(long id) {
+        if (!open.remove(id)) return;
+        applied.add(id);
+        if (open.isEmpty() && deferred.isEmpty() && records >= COMPACT_RECORDS && !writing) {
+            try {
+                truncate();
+            } catch (IOException e) {
+                System.out.println(file.getFileName() + " konnte nicht geleert werden: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Schreibt die noch nicht geschriebenen {@code APPLIED}-Vermerke. Vor dem Entfernen von
+     * Transaktionen aufrufen, damit ein Neustart eine angewendete Umbuchung nicht erneut bucht.
+     *
+     * @throws IOException wenn das Protokoll nicht geschrieben werden kann
+     */
+    void syncApplied() throws IOException {
+        synchronized (this) {
+            if (applied.isEmpty()) return;
+        }
+        append(null);
+    }
+
+    /**
+     * Merkt eine Umbuchung vor, deren Konten erst mit dem nächsten Flush geschrieben werden.
+     *
+     * @param id Nummer der Umbuchung
+     */
+    synchronized void defer(long id) {
+        deferred.add(id);
+    }
+
+    /**
+     * Übernimmt die vorgemerkten Umbuchungen; vor dem Leeren des Write-Behind-Puffers aufrufen.
+     *
+     * @return bisher vorgemerkte Umbuchungen
+     */
+    synchronized List<Long> takeDeferred() {
+        List<Long> taken = new ArrayList<>(deferred);
+        deferred.clear();
+        return taken;
+    }
+
+    /**
+     * Gibt vorgemerkte Umbuchungen nach einem fehlgeschlagenen Flush zurück.
+     *
+     * @param ids Umbuchungen aus {@link #takeDeferred()}
+     */
+    synchronized void restoreDeferred(List<Long> ids) {
+        deferred.addAll(0, ids);
+    }
+
+    /**
+     * Leert das Protokoll, nachdem alle offenen Umbuchungen erledigt sind.
+     *
+     * @throws IOException wenn die Datei nicht geleert werden kann
+     */
+    synchronized void reset() throws IOException {
+        if (!open.isEmpty()) return;
+        awaitIdle();
+        truncate();
+    }
+
+    /** Schreibt die noch offenen {@code APPLIED}-Vermerke und schließt die Datei. */
+    @Override
+    public void close() throws IOException {
+        try {
+            syncApplied();
+        } finally {
+            synchronized (this) {
+                awaitIdle();
+                closeWriter();
+            }
+        }
+    }
+
+    /**
+     * Hängt eine Zeile an und wartet, bis sie geschrieben ist. Schreibt gerade ein anderer
+     * Thread, kommt die Zeile in den nächsten Batch; den schreibt der erste Thread, der danach
+     * an der Reihe ist, zusammen mit allen inzwischen hinzugekommenen Zeilen.
+     *
+     * @param line JSON-Zeile ohne Zeilenende, {@code null} um nur die {@code APPLIED}-Vermerke zu schreiben
+     * @throws IOException wenn der Batch nicht geschrieben werden kann
+     */
+    private void append(String line) throws IOException {
+        Batch batch;
+        synchronized (this) {
+            batch = filling;
+            if (line != null) {
+                batch.lines.append(line).append('\n');
+                batch.records++;
+            }
+            boolean interrupted = false;
+            while (writing && !batch.done) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+
+            if (!batch.done) {
+                writing = true;
+                filling = new Batch();
+                if (!applied.isEmpty()) {
+                    batch.applied = new ArrayList<>(applied);
+                    applied.clear();
+                    batch.lines.append("{\"op\":\"APPLIED\",\"ids\":").append(batch.applied).append("}\n");
+                    batch.records++;
+                }
+            }
+        }
+
+        if (!batch.done) {
+            IOException failure = null;
+            try {
+                if (batch.records > 0) {
+                    Writer out = writer();
+                    out.write(batch.lines.toString());
+                    out.flush();
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+
+            synchronized (this) {
+                if (failure == null) {
+                    records += batch.records;
+                } else {
+                    applied.addAll(0, batch.applied);
+                    try {
+                        closeWriter();
+                    } catch (IOException e) {
+                        failure.addSuppressed(e);
+                    }
+                }
+                batch.failure = failure;
+                batch.done = true;
+                writing = false;
+                notifyAll();
+            }
+        }
+
+        if (batch.failure != null)
+            throw new IOException(file.getFileName() + " konnte nicht geschrieben werden", batch.failure);
+    }
+
+    /** Wartet, bis kein Batch mehr geschrieben wird; nur mit gehaltenem Monitor aufrufen. */
+    private void awaitIdle() {
+        boolean interrupted = false;
+        while (writing) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private void truncate() throws IOException {
+        closeWriter();
+        Files.deleteIfExists(file);
+        records = 0;
+        applied.clear();
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private Writer writer() throws IOException {
+        if (writer == null) {
+            // eine nach einem Schreibfehler unvollständige Zeile abschließen
+            if (Files.exists(file)) AccountJournal.terminateLastLine(file);
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        return writer;
+    }
+}
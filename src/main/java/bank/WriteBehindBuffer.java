@@ -0,0 +1,78 @@
+package bank;
+
+import java.util.*;
+
+/**
+ * Puffer für noch nicht geschriebene Änderungen im Write-Behind-Betrieb
+ * ({@link DurabilityPolicy#INTERVAL} und {@link DurabilityPolicy#ON_CLOSE}).
+ * <p>
+ * Je Konto wird vermerkt, dass es geändert wurde. Mit aktivem Journal werden zusätzlich die
+ * Journal-Einträge in Reihenfolge gesammelt, damit sie beim Schreiben mit einem einzigen
+ * Schreibvorgang angehängt werden können; ohne Journal genügt die Markierung, da dann der
+ * komplette Snapshot geschrieben wird.
+ */
+class WriteBehindBuffer {
+
+    private final boolean keepRecords;
+
+    /** Geänderte Konten mit ihren noch nicht geschriebenen Journal-Einträgen */
+    private final Map<String, List<AccountJournal.Record>> pending = new LinkedHashMap<>();
+
+    /**
+     * @param keepRecords {@code true}, wenn die einzelnen Journal-Einträge gesammelt werden sollen
+     */
+    WriteBehindBuffer(boolean keepRecords) {
+        this.keepRecords = keepRecords;
+    }
+
+    /**
+     * Markiert ein Konto als geändert.
+     *
+     * @param account Kontoname
+     * @param records die Änderungen in Reihenfolge
+     */
+    synchronized void add(String account, List<AccountJournal.Record> records) {
+        List<AccountJournal.Record> list = pending.computeIfAbsent(account, a -> new ArrayList<>());
+        if (keepRecords) list.addAll(records);
+    }
+
+    /**
+     * Entnimmt alle geänderten Konten.
+     *
+     * @return geänderte Konten mit ihren Journal-Einträgen (ohne Journal leere Listen)
+     */
+    synchronized Map<String, List<AccountJournal.Record>> drain() {
+        Map<String, List<AccountJournal.Record>> drained = new LinkedHashMap<>(pending);
+        pending.clear();
+        return drained;
+    }
+
+    /**
+     * Legt nach einem fehlgeschlagenen Schreibvorgang die Änderungen eines Kontos zurück,
+     * vor allen seither hinzugekommenen.
+     *
+     * @param account Kontoname
+     * @param records die nicht geschriebenen Änderungen
+     */
+    synchronized void restore(String account, List<AccountJournal.Record> records) {
+        List<AccountJournal.Record> newer = pending.remove(account);
+        List<AccountJournal.Record> list = new ArrayList<>(records);
+        if (newer != null) list.addAll(newer);
+        pending.put(account, list);
+    }
+
+    /**
+     * Verwirft die Änderungen eines Kontos, z.B. wenn es gelöscht wurde.
+     *
+     * @param account Kontoname
+     * @return die verworfenen Änderungen, {@code null} wenn keine vorgemerkt waren
+     */
+    synchronized List<AccountJournal.Record> discard(String account) {
+        return pending.remove(account);
+    }
+
+    /** @return {@code true}, wenn keine ungeschriebenen Änderungen vorliegen */
+    synchronized boolean isEmpty() {
+        return pending.isEmpty();
+    }
+}
@@ -17,10 +17,12 @@ public class FxApplication extends Application {
     private static final double DEFAULT_INCOMING_INTEREST = 0.02;
     private static final double DEFAULT_OUTGOING_INTEREST = 0.05;
 
+    private PrivateBank bank;
+
     @Override
     public void start(Stage primaryStage) {
         try {
-            PrivateBank bank = new PrivateBank(
+            bank = new PrivateBank(
                     "Campus PrivateBank",
                     DEFAULT_INCOMING_INTEREST,
                     DEFAULT_OUTGOING_INTEREST,
@@ -38,6 +40,16 @@ public class FxApplication extends Application {
         }
     }
 
+    /**
+     * Schreibt beim Beenden alle noch ausstehenden Änderungen der Bank.
+     */
+    @Override
+    public void stop() throws IOException {
+        if (bank != null) {
+            bank.close();
+        }
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,133 @@
+import bank.*;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountFileConverterTest {
+
+    private static final String TEST_DIR = "test_data_convert";
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Path dir = Paths.get(TEST_DIR);
+        if (Files.exists(dir)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path file : stream) Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    void testConvertJsonToBinaryAndBack() throws Exception {
+        Path dir = Paths.get(TEST_DIR);
+        Files.createDirectories(dir);
+        Files.copy(Paths.get("data_json_test", "Konto_Adam.json"), dir.resolve("Konto_Adam.json"));
+        String original = Files.readString(dir.resolve("Konto_Adam.json"));
+        List<Transaction> expected = new PrivateBank("Bank", 0.05, 0.1, TEST_DIR).getTransactions("Adam");
+
+        assertEquals(1, AccountFileConverter.convert(dir, StorageFormat.BINARY));
+        assertFalse(Files.exists(dir.resolve("Konto_Adam.json")));
+        assertTrue(Files.size(dir.resolve("Konto_Adam.bin")) < original.length());
+
+        BankOptions binary = new BankOptions();
+        binary.setStorageFormat(StorageFormat.BINARY);
+        assertEquals(expected, new PrivateBank("Bank", 0.05, 0.1, TEST_DIR, binary).getTransactions("Adam"));
+
+        assertEquals(1, AccountFileConverter.convert(dir, StorageFormat.JSON));
+        assertFalse(Files.exists(dir.resolve("Konto_Adam.bin")));
+        assertEquals(original, Files.readString(dir.resolve("Konto_Adam.json")));
+    }
+
+    @Test
+    void testBinaryBankRoundTripWithAllTypes() throws Exception {
+        BankOptions binary = new BankOptions();
+        binary.setStorageFormat(StorageFormat.BINARY);
+        List<Transaction> transactions = List.of(
+                new Payment("01.01.2025", 1000.0, "Lohn", 0.05, 0.1),
+                new IncomingTransfer("02.01.2025", 50.0, "Geschenk äöü", "Eva", "Adam"),
+                new OutgoingTransfer("03.01.2025", 20.0, "Miete", "Adam", "Eva"),
+                new Transfer("04.01.2025", 5.0, "", "Adam", "Eva"));
+
+        PrivateBank bank = new PrivateBank("Bank", 0.05, 0.1, TEST_DIR, binary);
+        bank.createAccount("Adam", transactions);
+
+        PrivateBank reloaded = new PrivateBank("Bank", 0.05, 0.1, TEST_DIR, binary);
+        assertEquals(transactions, reloaded.getTransactions("Adam"));
+        assertEquals(bank.getAccountBalance("Adam"), reloaded.getAccountBalance("Adam"), 1e-9);
+    }
+
+    @Test
+    void testCorruptBinaryFileIsRejected() throws Exception {
+        Path dir = Paths.get(TEST_DIR);
+        Files.createDirectories(dir);
+        Files.write(dir.resolve("Konto_Adam.bin"), new byte[]{'P', 'B', 'K', '1', 0, 0});
+
+        BankOptions binary = new BankOptions();
+        binary.setStorageFormat(StorageFormat.BINARY);
+        assertThrows(IOException.class, () -> new PrivateBank("Bank", 0.05, 0.1, TEST_DIR, binary));
+    }
+
+    @Test
+    void testBinaryKeepsDateSpellingAndStoresDaysInRecords() throws Exception {
+        BankOptions binary = new BankOptions();
+        binary.setStorageFormat(StorageFormat.BINARY);
+        List<Transaction> transactions = new java.util.ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            transactions.add(new Payment(String.format("%02d.01.2025", i % 28 + 1), i + 1, "Buchung", 0, 0));
+        transactions.add(new Payment("2025-02-01", 1.0, "ISO", 0, 0));
+        transactions.add(new Payment("1.2.2025", 1.0, "ungewöhnlich", 0, 0));
+        transactions.add(new Payment("irgendwann", 1.0, "unlesbar", 0, 0));
+
+        PrivateBank bank = new PrivateBank("Bank", 0, 0, TEST_DIR, binary);
+        bank.createAccount("Adam", transactions);
+
+        List<Transaction> reloaded = new PrivateBank("Bank", 0, 0, TEST_DIR, binary).getTransactions("Adam");
+        assertEquals(transactions, reloaded);
+        assertEquals(List.of("2025-02-01", "1.2.2025", "irgendwann"),
+                reloaded.subList(100, 103).stream().map(Transaction::getDate).toList());
+
+        // nur die beiden nicht darstellbaren Datumsangaben stehen in der Tabelle
+        String file = new String(Files.readAllBytes(Paths.get(TEST_DIR, "Konto_Adam.bin")), java.nio.charset.StandardCharsets.UTF_8);
+        assertFalse(file.contains("01.01.2025"));
+        assertFalse(file.contains("2025-02-01"));
+        assertTrue(file.contains("1.2.2025"));
+    }
+
+    @Test
+    void testColumnarBankDecodesMappedSnapshotOnDemand() throws Exception {
+        BankOptions options = new BankOptions();
+        options.setStorageFormat(StorageFormat.BINARY);
+        options.setColumnarStorage(true);
+        List<Transaction> transactions = List.of(
+                new Payment("01.01.2025", 1000.0, "Lohn", 0.05, 0.1),
+                new IncomingTransfer("02.01.2025", 50.0, "Geschenk", "Eva", "Adam"),
+                new OutgoingTransfer("03.01.2025", 20.0, "Miete", "Adam", "Eva"),
+                new Payment("irgendwann", -100.0, "Bar", 0.05, 0.1));
+        PrivateBank bank = new PrivateBank("Bank", 0.05, 0.1, TEST_DIR, options);
+        bank.createAccount("Adam", transactions);
+        bank.close();
+
+        // der Kontostand liest nur die Datensätze, keine Zeichenkette wird dekodiert
+        PrivateBank reloaded = new PrivateBank("Bank", 0.05, 0.1, TEST_DIR, options);
+        assertEquals(1050 + 50 - 20 - 110, reloaded.getAccountBalance("Adam"), 1e-9);
+        assertEquals(0, reloaded.getStringPoolStatistics().totalStrings());
+
+        assertTrue(reloaded.containsTransaction("Adam", transactions.get(1)));
+        assertFalse(reloaded.containsTransaction("Adam", new Payment("01.01.2025", 1000.0, "Lohn", 0, 0)));
+        assertEquals(transactions, reloaded.getTransactions("Adam"));
+
+        Payment added = new Payment("04.01.2025", 10.0, "Zinsen", 0.05, 0.1);
+        reloaded.addTransaction("Adam", added);
+        assertEquals(1050 + 50 - 20 - 110 + 10.5, reloaded.getAccountBalance("Adam"), 1e-9);
+        reloaded.close();
+
+        List<Transaction> expected = new java.util.ArrayList<>(transactions);
+        expected.add(added);
+        assertEquals(expected, new PrivateBank("Bank", 0.05, 0.1, TEST_DIR, options).getTransactions("Adam"));
+    }
+}
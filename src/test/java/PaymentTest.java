@@ -61,6 +61,15 @@ class PaymentTest {
                 "Incoming payment must be increased negatively by the incomingInterest.");
     }
 
+    @Test
+    void testHashCodeConsistentWithEquals() {
+        assertEquals(p1.hashCode(), pCopy.hashCode());
+        Payment negativeZero = new Payment("01.01.2025", -0.0, "Null", 0.05, 0.1);
+        Payment positiveZero = new Payment("01.01.2025", 0.0, "Null", 0.05, 0.1);
+        assertEquals(negativeZero, positiveZero);
+        assertEquals(negativeZero.hashCode(), positiveZero.hashCode());
+    }
+
 }
 
 
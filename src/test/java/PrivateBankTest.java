@@ -4,7 +4,9 @@ import org.junit.jupiter.api.*;
 
 import java.io.IOException;
 import java.nio.file.*;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -199,4 +201,1016 @@ class PrivateBankTest {
 
 
 
+    @Test
+    void testJournalingAppendsAndReplays() throws Exception {
+        BankOptions options = new BankOptions();
+        options.setJournaling(true);
+        PrivateBank journaled = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR, options);
+
+        journaled.createAccount("Adam");
+        Path snapshot = Paths.get(TEST_DIR, "Konto_Adam.json");
+        String emptySnapshot = Files.readString(snapshot);
+
+        Payment p = new Payment("01.01.2025", 1000.0, "Lohn", 0.05, 0.1);
+        OutgoingTransfer out = new OutgoingTransfer("02.01.2025", 200.0, "Miete", "Adam", "Vermieter");
+        journaled.addTransaction("Adam", p);
+        journaled.addTransaction("Adam", out);
+        journaled.removeTransaction("Adam", p);
+
+        assertEquals(emptySnapshot, Files.readString(snapshot));
+        assertEquals(3, Files.readAllLines(Paths.get(TEST_DIR, "Konto_Adam.journal")).size());
+
+        PrivateBank reloaded = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR);
+        assertEquals(List.of(out), reloaded.getTransactions("Adam"));
+        assertEquals(-200.0, reloaded.getAccountBalance("Adam"), 0.0001);
+    }
+
+    @Test
+    void testCompactJournalsFoldsIntoSnapshot() throws Exception {
+        BankOptions options = new BankOptions();
+        options.setJournaling(true);
+        options.setCompactionIntervalMillis(0);
+        PrivateBank journaled = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR, options);
+
+        journaled.createAccount("Adam");
+        Payment p = new Payment("01.01.2025", 1000.0, "Lohn", 0.05, 0.1);
+        journaled.addTransaction("Adam", p);
+
+        assertEquals(1, journaled.compactJournals());
+        assertFalse(Files.exists(Paths.get(TEST_DIR, "Konto_Adam.journal")));
+
+        PrivateBank reloaded = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR);
+        assertEquals(List.of(p), reloaded.getTransactions("Adam"));
+    }
+
+    @Test
+    void testBackgroundCompactionByRecordThreshold() throws Exception {
+        BankOptions options = new BankOptions();
+        options.setJournaling(true);
+        options.setCompactionIntervalMillis(20);
+        options.setCompactionRecordThreshold(2);
+        options.setCompactionByteThreshold(0);
+
+        try (PrivateBank journaled = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR, options)) {
+            journaled.createAccount("Adam");
+            journaled.addTransaction("Adam", new Payment("01.01.2025", 1000.0, "Lohn", 0.05, 0.1));
+            journaled.addTransaction("Adam", new Payment("02.01.2025", -50.0, "Essen", 0.05, 0.1));
+
+            Path journalFile = Paths.get(TEST_DIR, "Konto_Adam.journal");
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (Files.exists(journalFile) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertFalse(Files.exists(journalFile));
+        }
+
+        PrivateBank reloaded = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR);
+        assertEquals(2, reloaded.getTransactions("Adam").size());
+    }
+
+    @Test
+    void testDuplicateDetectionUsesEqualityNotIdentity() throws Exception {
+        bank.createAccount("Adam");
+        for (int i = 0; i < 200; i++) {
+            bank.addTransaction("Adam", new Payment("01.01.2025", i + 1, "Buchung " + i, 0.05, 0.1));
+        }
+
+        Payment copy = new Payment("01.01.2025", 100, "Buchung 99", 0.05, 0.1);
+        assertTrue(bank.containsTransaction("Adam", copy));
+        assertThrows(TransactionAlreadyExistException.class, () -> bank.addTransaction("Adam", copy));
+
+        bank.removeTransaction("Adam", copy);
+        assertFalse(bank.containsTransaction("Adam", copy));
+        assertEquals(199, bank.getTransactions("Adam").size());
+    }
+
+    @Test
+    void testBalanceFollowsAddRemoveAndReload() throws Exception {
+        Payment p = new Payment("01.01.2025", 1000.0, "Lohn", 0.05, 0.1);
+        OutgoingTransfer out = new OutgoingTransfer("02.01.2025", 200.0, "Miete", "Eva", "Vermieter");
+        bank.createAccount("Eva", List.of(p, out));
+        assertEquals(1050.0 - 200.0, bank.getAccountBalance("Eva"), 0.0001);
+
+        // gleiche Felder wie die gespeicherte OutgoingTransfer, aber positives calculate()
+        bank.removeTransaction("Eva", new IncomingTransfer(out));
+        assertEquals(1050.0, bank.getAccountBalance("Eva"), 0.0001);
+
+        bank.setIncomingInterest(0.5);
+        assertEquals(1050.0, bank.getAccountBalance("Eva"), 0.0001);
+
+        PrivateBank reloaded = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR);
+        assertEquals(1050.0, reloaded.getAccountBalance("Eva"), 0.0001);
+    }
+
+    @Test
+    void testParallelLoadingMatchesSequentialLoading() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            bank.createAccount("Konto" + i, List.of(
+                    new Payment("01.01.2025", 100.0 + i, "Lohn", 0.05, 0.1),
+                    new OutgoingTransfer("02.01.2025", 10.0 + i, "Miete", "Konto" + i, "Vermieter")));
+        }
+
+        BankOptions sequential = new BankOptions();
+        sequential.setLoadParallelism(1);
+        BankOptions parallel = new BankOptions();
+        parallel.setLoadParallelism(4);
+
+        PrivateBank sequentialBank = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR, sequential);
+        PrivateBank parallelBank = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR, parallel);
+
+        assertEquals(sequentialBank, parallelBank);
+        assertEquals(20, parallelBank.getAllAccounts().size());
+        assertFalse(parallelBank.getLoadDuration().isNegative());
+    }
+
+    @Test
+    void testAddTransactionsReportsEachItem() throws Exception {
+        bank.createAccount("Adam");
+        Payment existing = new Payment("01.01.2025", 1000.0, "Lohn", 0.05, 0.1);
+        bank.addTransaction("Adam", existing);
+
+        Payment fresh = new Payment("02.01.2025", -30.0, "Essen", 0.05, 0.1);
+        OutgoingTransfer invalid = new OutgoingTransfer("03.01.2025", -5.0, "Fehler", "Adam", "Bob");
+        IncomingTransfer in = new IncomingTransfer("04.01.2025", 70.0, "Geschenk", "Bob", "Adam");
+
+        TransactionBatchResult result = bank.addTransactions("Adam",
+                List.of(existing, fresh, invalid, in, new Payment(fresh)));
+
+        assertEquals(List.of(TransactionBatchResult.Status.DUPLICATE, TransactionBatchResult.Status.ADDED,
+                        TransactionBatchResult.Status.INVALID, TransactionBatchResult.Status.ADDED,
+                        TransactionBatchResult.Status.DUPLICATE),
+                result.getItems().stream().map(TransactionBatchResult.Item::status).toList());
+        assertEquals(2, result.getAddedCount());
+        assertFalse(result.isComplete());
+
+        PrivateBank reloaded = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR);
+        assertEquals(List.of(existing, fresh, in), reloaded.getTransactions("Adam"));
+        assertEquals(1050.0 - 33.0 + 70.0, reloaded.getAccountBalance("Adam"), 0.0001);
+
+        assertThrows(AccountDoesNotExistException.class,
+                () -> bank.addTransactions("Unbekannt", List.of(fresh)));
+    }
+
+    @Test
+    void testAddTransactionsAppendsOnceWithJournal() throws Exception {
+        BankOptions options = new BankOptions();
+        options.setJournaling(true);
+        options.setCompactionIntervalMillis(0);
+        PrivateBank journaled = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR, options);
+        journaled.createAccount("Adam");
+
+        List<Transaction> batch = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            batch.add(new Payment("01.01.2025", i + 1, "Import " + i, 0.05, 0.1));
+        }
+        assertTrue(journaled.addTransactions("Adam", batch).isComplete());
+
+        assertEquals(500, Files.readAllLines(Paths.get(TEST_DIR, "Konto_Adam.journal")).size());
+        assertEquals(500, new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR).getTransactions("Adam").size());
+    }
+
+    @Test
+    void testCreateAccountWithDuplicateKeepsValidTransactions() throws Exception {
+        Payment p = new Payment("01.01.2025", 1000.0, "Lohn", 0.05, 0.1);
+        Payment other = new Payment("02.01.2025", 10.0, "Zins", 0.05, 0.1);
+
+        assertThrows(TransactionAlreadyExistException.class,
+                () -> bank.createAccount("Eva", List.of(p, new Payment(p), other)));
+        assertEquals(List.of(p, other), bank.getTransactions("Eva"));
+    }
+
+    @Test
+    void testOnCloseDurabilityWritesOnlyOnFlush() throws Exception {
+        BankOptions options = new BankOptions();
+        options.setDurabilityPolicy(DurabilityPolicy.ON_CLOSE);
+        Payment p = new Payment("01.01.2025", 1000.0, "Lohn", 0.05, 0.1);
+
+        try (PrivateBank buffered = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR, options)) {
+            buffered.createAccount("Adam");
+            buffered.addTransaction("Adam", p);
+            buffered.addTransaction("Adam", new Payment("02.01.2025", -10.0, "Kaffee", 0.05, 0.1));
+
+            assertTrue(new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR).getTransactions("Adam").isEmpty());
+
+            buffered.flush();
+            assertEquals(2, new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR).getTransactions("Adam").size());
+
+            buffered.removeTransaction("Adam", p);
+        }
+
+        assertEquals(1, new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR).getTransactions("Adam").size());
+    }
+
+    @Test
+    void testIntervalDurabilityWithJournalKeepsOrder() throws Exception {
+        BankOptions options = new BankOptions();
+        options.setJournaling(true);
+        options.setCompactionIntervalMillis(0);
+        options.setDurabilityPolicy(DurabilityPolicy.INTERVAL);
+        options.setFlushIntervalMillis(10);
+        Payment p = new Payment("01.01.2025", 1000.0, "Lohn", 0.05, 0.1);
+
+        try (PrivateBank buffered = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR, options)) {
+            buffered.createAccount("Adam");
+            for (int i = 0; i < 50; i++) {
+                buffered.addTransaction("Adam", p);
+                buffered.removeTransaction("Adam", p);
+            }
+            buffered.addTransaction("Adam", p);
+
+            Path journalFile = Paths.get(TEST_DIR, "Konto_Adam.journal");
+            long deadline = System.currentTimeMillis() + 5_000;
+            while ((!Files.exists(journalFile) || Files.readAllLines(journalFile).size() < 101)
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+
+        assertEquals(List.of(p), new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR).getTransactions("Adam"));
+    }
+
+    @Test
+    void testConcurrentAddsAreNotLostAndDuplicatesRejectedOnce() throws Exception {
+        BankOptions options = new BankOptions();
+        options.setJournaling(true);
+        options.setCompactionIntervalMillis(0);
+        int threads = 8;
+        int perThread = 50;
+
+        try (PrivateBank shared = new PrivateBank("TestBank", 0, 0, TEST_DIR, options)) {
+            shared.createAccount("Adam");
+            shared.createAccount("Eva");
+
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> duplicates = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                duplicates.add(pool.submit(() -> {
+                    start.await();
+                    int rejected = 0;
+                    for (int i = 0; i < perThread; i++) {
+                        shared.addTransaction("Adam", new Payment("01.01.2025", 1.0, "T" + id + "-" + i, 0, 0));
+                        shared.addTransaction("Eva", new Payment("01.01.2025", 2.0, "T" + id + "-" + i, 0, 0));
+                        // alle Threads versuchen dieselbe Transaktion hinzuzufügen
+                        try {
+                            shared.addTransaction("Adam", new Payment("02.01.2025", 5.0, "gemeinsam " + i, 0, 0));
+                        } catch (TransactionAlreadyExistException e) {
+                            rejected++;
+                        }
+                        shared.getAccountBalance("Adam");
+                        shared.getTransactionsSorted("Eva", true);
+                    }
+                    return rejected;
+                }));
+            }
+            start.countDown();
+
+            int rejected = 0;
+            for (Future<Integer> f : duplicates) rejected += f.get(30, TimeUnit.SECONDS);
+            pool.shutdown();
+
+            assertEquals((threads - 1) * perThread, rejected);
+            assertEquals(threads * perThread + perThread, shared.getTransactions("Adam").size());
+            assertEquals(threads * perThread * 1.0 + perThread * 5.0, shared.getAccountBalance("Adam"), 1e-9);
+            assertEquals(threads * perThread * 2.0, shared.getAccountBalance("Eva"), 1e-9);
+        }
+
+        PrivateBank reloaded = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR);
+        assertEquals(threads * perThread + perThread, reloaded.getTransactions("Adam").size());
+        assertEquals(threads * perThread, reloaded.getTransactions("Eva").size());
+    }
+
+    @Test
+    void testAddAfterDeleteFails() throws Exception {
+        bank.createAccount("Adam");
+        bank.deleteAccount("Adam");
+        assertThrows(AccountDoesNotExistException.class,
+                () -> bank.addTransaction("Adam", new Payment("01.01.2025", 1.0, "x", 0, 0)));
+        assertFalse(Files.exists(Paths.get(TEST_DIR, "Konto_Adam.json")));
+    }
+
+    @Test
+    void testLazyLoadingReadsAccountsOnFirstAccess() throws Exception {
+        BankOptions journaled = new BankOptions();
+        journaled.setJournaling(true);
+        journaled.setCompactionIntervalMillis(0);
+        Payment p = new Payment("01.01.2025", 1000.0, "Lohn", 0.05, 0.1);
+        Payment q = new Payment("02.01.2025", -200.0, "Miete", 0.05, 0.1);
+        try (PrivateBank writer = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR, journaled)) {
+            writer.createAccount("Adam", List.of(p));
+            writer.addTransaction("Adam", q);
+        }
+        // ein beschädigtes Konto stört den Start nicht, solange es nicht gelesen wird
+        Files.writeString(Paths.get(TEST_DIR, "Konto_Eva.json"), "[{ kaputt");
+
+        BankOptions lazy = new BankOptions();
+        lazy.setLazyLoading(true);
+        PrivateBank lazyBank = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR, lazy);
+
+        assertEquals(List.of("Adam", "Eva"), lazyBank.getAllAccounts());
+        assertEquals(List.of(p, q), lazyBank.getTransactions("Adam"));
+        assertEquals(p.calculate() + q.calculate(), lazyBank.getAccountBalance("Adam"), 1e-9);
+        assertThrows(RuntimeException.class, () -> lazyBank.getTransactions("Eva"));
+
+        lazyBank.deleteAccount("Eva");
+        assertEquals(new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR), lazyBank);
+    }
+
+    @Test
+    void testLazyLoadingWritesUntouchedAccountUnchanged() throws Exception {
+        Payment p = new Payment("01.01.2025", 1000.0, "Lohn", 0.05, 0.1);
+        Payment q = new Payment("02.01.2025", -200.0, "Miete", 0.05, 0.1);
+        bank.createAccount("Adam", List.of(p));
+
+        BankOptions lazy = new BankOptions();
+        lazy.setLazyLoading(true);
+        PrivateBank lazyBank = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR, lazy);
+        lazyBank.addTransaction("Adam", q);
+
+        assertEquals(List.of(p, q), new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR).getTransactions("Adam"));
+    }
+
+    @Test
+    void testBoundedCacheEvictsLeastRecentlyUsedAndReloads() throws Exception {
+        BankOptions options = new BankOptions();
+        options.setMaxResidentAccounts(2);
+        options.setDurabilityPolicy(DurabilityPolicy.ON_CLOSE);
+
+        try (PrivateBank bounded = new PrivateBank("TestBank", 0, 0, TEST_DIR, options)) {
+            for (String account : List.of("A", "B", "C")) {
+                bounded.createAccount(account);
+                bounded.addTransaction(account, new Payment("01.01.2025", 100.0, account, 0, 0));
+            }
+
+            AccountCacheStatistics stats = bounded.getCacheStatistics();
+            assertEquals(2, stats.residentAccounts());
+            assertEquals(1, stats.evictions());
+            // die ausgelagerte, noch nicht geschriebene Änderung ist jetzt auf der Platte
+            assertTrue(Files.readString(Paths.get(TEST_DIR, "Konto_A.json")).contains("100.0"));
+
+            bounded.getAccountBalance("B");
+            assertEquals(100.0, bounded.getAccountBalance("A"), 1e-9);
+            stats = bounded.getCacheStatistics();
+            assertEquals(1, stats.misses());
+            assertEquals(2, stats.evictions());
+            assertEquals(2, stats.residentAccounts());
+            assertEquals(100.0, bounded.getAccountBalance("C"), 1e-9);
+            assertEquals(2, bounded.getCacheStatistics().misses());
+        }
+    }
+
+    @Test
+    void testBoundedCacheByBytesKeepsMostRecentAccount() throws Exception {
+        BankOptions options = new BankOptions();
+        options.setMaxResidentBytes(1);
+
+        PrivateBank bounded = new PrivateBank("TestBank", 0, 0, TEST_DIR, options);
+        bounded.createAccount("A", List.of(new Payment("01.01.2025", 1.0, "a", 0, 0)));
+        bounded.createAccount("B", List.of(new Payment("01.01.2025", 2.0, "b", 0, 0)));
+
+        assertEquals(1, bounded.getCacheStatistics().residentAccounts());
+        assertEquals(1.0, bounded.getAccountBalance("A"), 1e-9);
+        assertEquals(2.0, bounded.getAccountBalance("B"), 1e-9);
+        assertEquals(new PrivateBank("TestBank", 0, 0, TEST_DIR), bounded);
+    }
+
+    @Test
+    void testColumnarStorageMatchesObjectStorage() throws Exception {
+        BankOptions columnar = new BankOptions();
+        columnar.setColumnarStorage(true);
+        PrivateBank columnarBank = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR, columnar);
+        columnarBank.createAccount("Adam");
+        bank.createAccount("Eva");
+
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < 150; i++) {
+            String date = String.format("%02d.%02d.2025", 1 + random.nextInt(28), 1 + random.nextInt(12));
+            double amount = random.nextInt(41) * 10 - 200;
+            Transaction t = switch (random.nextInt(3)) {
+                case 0 -> new Payment(date, amount, "P" + random.nextInt(50), 0, 0);
+                case 1 -> new IncomingTransfer(date, Math.abs(amount) + 1, "Geschenk", "Bob", "Adam");
+                default -> new OutgoingTransfer(date, Math.abs(amount) + 1, "Miete " + random.nextInt(5), "Adam", "Bob");
+            };
+            boolean added = addIgnoringDuplicate(bank, "Eva", t);
+            assertEquals(added, addIgnoringDuplicate(columnarBank, "Adam", t));
+        }
+        // eine OutgoingTransfer ist gleich einer IncomingTransfer mit denselben Attributen
+        Transaction incoming = new IncomingTransfer("01.01.2025", 77.0, "X", "Adam", "Bob");
+        columnarBank.addTransaction("Adam", incoming);
+        assertTrue(columnarBank.containsTransaction("Adam", new OutgoingTransfer("01.01.2025", 77.0, "X", "Adam", "Bob")));
+        columnarBank.removeTransaction("Adam", new OutgoingTransfer("01.01.2025", 77.0, "X", "Adam", "Bob"));
+
+        for (Transaction t : bank.getTransactions("Eva").subList(0, 20)) {
+            bank.removeTransaction("Eva", t);
+            columnarBank.removeTransaction("Adam", t);
+        }
+
+        assertEquals(bank.getTransactions("Eva"), columnarBank.getTransactions("Adam"));
+        assertEquals(bank.getAccountBalance("Eva"), columnarBank.getAccountBalance("Adam"), 1e-6);
+        assertEquals(bank.getTransactionsSorted("Eva", true), columnarBank.getTransactionsSorted("Adam", true));
+        assertEquals(bank.getTransactionsSorted("Eva", false), columnarBank.getTransactionsSorted("Adam", false));
+        assertEquals(bank.getTransactionsByType("Eva", true), columnarBank.getTransactionsByType("Adam", true));
+        assertEquals(bank.getTransactionsByType("Eva", false), columnarBank.getTransactionsByType("Adam", false));
+        assertEquals(bank.getTransactions("Eva"),
+                new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR, columnar).getTransactions("Adam"));
+    }
+
+    private static boolean addIgnoringDuplicate(PrivateBank bank, String account, Transaction t) throws Exception {
+        try {
+            bank.addTransaction(account, t);
+            return true;
+        } catch (TransactionAlreadyExistException e) {
+            return false;
+        }
+    }
+
+    @Test
+    void testSortedViewFollowsAddsAndRemovesWithStableTies() throws Exception {
+        bank.createAccount("Eva");
+        java.util.Random random = new java.util.Random(7);
+        List<Transaction> added = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            // wenige verschiedene Beträge, damit viele gleiche Werte entstehen
+            Transaction t = random.nextBoolean()
+                    ? new Payment("01.01.2025", random.nextInt(5) * 10 - 20, "P" + i, 0, 0)
+                    : new OutgoingTransfer("01.01.2025", 10 + random.nextInt(3) * 10, "T" + i, "Eva", "Bob");
+            bank.addTransaction("Eva", t);
+            added.add(t);
+            if (i % 25 == 0) bank.getTransactionsSorted("Eva", true);
+            if (i % 7 == 3) bank.removeTransaction("Eva", added.remove(random.nextInt(added.size())));
+        }
+
+        List<Transaction> asc = bank.getTransactions("Eva");
+        asc.sort((a, b) -> Double.compare(a.calculate(), b.calculate()));
+        List<Transaction> desc = bank.getTransactions("Eva");
+        desc.sort((a, b) -> Double.compare(b.calculate(), a.calculate()));
+
+        assertEquals(asc, bank.getTransactionsSorted("Eva", true));
+        assertEquals(desc, bank.getTransactionsSorted("Eva", false));
+    }
+
+    @Test
+    void testPagedAndStreamedTransactions() throws Exception {
+        bank.createAccount("Eva");
+        List<Transaction> batch = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) batch.add(new Payment("01.01.2025", (i * 37) % 101 - 50, "P" + i, 0, 0));
+        bank.addTransactions("Eva", batch);
+        List<Transaction> all = bank.getTransactions("Eva");
+        List<Transaction> desc = bank.getTransactionsSorted("Eva", false);
+
+        assertEquals(all.subList(1000, 1100), bank.getTransactions("Eva", 1000, 100));
+        assertEquals(all.subList(2450, 2500), bank.getTransactions("Eva", 2450, 100));
+        assertTrue(bank.getTransactions("Eva", 3000, 10).isEmpty());
+        assertEquals(desc.subList(0, 20), bank.getTransactionsSorted("Eva", false, 0, 20));
+        assertEquals(desc.subList(1990, 2010), bank.getTransactionsSorted("Eva", false, 1990, 20));
+        assertThrows(IllegalArgumentException.class, () -> bank.getTransactions("Eva", -1, 10));
+
+        assertEquals(all, bank.streamTransactions("Eva").toList());
+        assertEquals(desc, bank.streamTransactionsSorted("Eva", false).toList());
+        assertEquals(bank.getAccountBalance("Eva"),
+                bank.streamTransactions("Eva").parallel().mapToDouble(Transaction::calculate).sum(), 1e-6);
+
+        java.util.Iterator<Transaction> it = bank.streamTransactions("Eva").iterator();
+        it.next();
+        bank.addTransaction("Eva", new Payment("02.01.2025", 1, "neu", 0, 0));
+        // der erste Block ist schon gelesen, der nächste erkennt die Änderung
+        assertThrows(java.util.ConcurrentModificationException.class, () -> { while (it.hasNext()) it.next(); });
+    }
+
+    @Test
+    void testTopTransactionsMatchSortedPrefix() throws Exception {
+        BankOptions columnar = new BankOptions();
+        columnar.setColumnarStorage(true);
+        PrivateBank columnarBank = new PrivateBank("TestBank", 0, 0, TEST_DIR, columnar);
+        columnarBank.createAccount("Adam");
+        bank.createAccount("Eva");
+
+        List<Transaction> batch = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            // viele gleiche Beträge, damit die Reihenfolge bei Gleichstand geprüft wird
+            batch.add(i % 3 == 0
+                    ? new OutgoingTransfer("01.01.2025", 10 * (i % 7) + 10, "T" + i, "Eva", "Bob")
+                    : new Payment("01.01.2025", 10 * (i % 11) - 50, "P" + i, 0, 0));
+        }
+        bank.addTransactions("Eva", batch);
+        columnarBank.addTransactions("Adam", batch);
+
+        // erst über den Heap, im zweiten Durchlauf über die mitgeführte sortierte Sicht
+        for (int pass = 0; pass < 2; pass++) {
+            for (boolean asc : new boolean[]{true, false}) {
+                for (int k : new int[]{0, 1, 17, 300, 1000}) {
+                    List<Transaction> expected = bank.getTransactions("Eva");
+                    expected.sort((a, b) -> asc ? Double.compare(a.calculate(), b.calculate())
+                            : Double.compare(b.calculate(), a.calculate()));
+                    expected = expected.subList(0, Math.min(k, expected.size()));
+
+                    assertEquals(expected, columnarBank.getTopTransactions("Adam", k, asc));
+                    assertEquals(expected, bank.getTopTransactions("Eva", k, asc));
+                }
+            }
+            bank.getTransactionsSorted("Eva", true);
+        }
+        assertThrows(IllegalArgumentException.class, () -> bank.getTopTransactions("Eva", -1, true));
+    }
+
+    @Test
+    void testAccountSummaryInOnePass() throws Exception {
+        BankOptions columnar = new BankOptions();
+        columnar.setColumnarStorage(true);
+        PrivateBank columnarBank = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR, columnar);
+        columnarBank.createAccount("Adam");
+        bank.createAccount("Eva");
+
+        List<Transaction> batch = List.of(
+                new Payment("15.01.2025", 1000, "Gehalt", 0, 0),
+                new Payment("20.01.2025", -200, "Einkauf", 0, 0),
+                new OutgoingTransfer("31.01.2025", 300, "Miete", "Eva", "Bob"),
+                new IncomingTransfer("01.02.2025", 50, "Geschenk", "Bob", "Eva"),
+                new Payment("2025-03-05", -10, "Kaffee", 0, 0),
+                new Payment("irgendwann", 5, "ohne Datum", 0, 0));
+        bank.addTransactions("Eva", batch);
+        columnarBank.addTransactions("Adam", bank.getTransactions("Eva"));
+
+        AccountSummary summary = bank.getAccountSummary("Eva");
+        assertEquals(6, summary.count());
+        assertEquals(bank.getTransactionsByType("Eva", true).stream().mapToDouble(Transaction::calculate).sum(),
+                summary.income(), 1e-9);
+        assertEquals(bank.getTransactionsByType("Eva", false).stream().mapToDouble(Transaction::calculate).sum(),
+                summary.expenses(), 1e-9);
+        assertEquals(bank.getAccountBalance("Eva"), summary.net(), 1e-9);
+        assertEquals(-300, summary.min(), 1e-9);
+        assertEquals(bank.getTransactions("Eva").get(0).calculate(), summary.max(), 1e-9);
+
+        assertEquals(List.of(java.time.YearMonth.of(2025, 1), java.time.YearMonth.of(2025, 2),
+                java.time.YearMonth.of(2025, 3)), new ArrayList<>(summary.months().keySet()));
+        assertEquals(3, summary.months().get(java.time.YearMonth.of(2025, 1)).count());
+        assertEquals(new TransactionTotals(1, 50, 0), summary.months().get(java.time.YearMonth.of(2025, 2)));
+        assertEquals(4, summary.types().get(Payment.class).count());
+        assertEquals(new TransactionTotals(1, 0, -300), summary.types().get(OutgoingTransfer.class));
+        assertThrows(UnsupportedOperationException.class, () -> summary.months().clear());
+
+        assertEquals(summary, columnarBank.getAccountSummary("Adam"));
+        bank.createAccount("Leer");
+        AccountSummary empty = bank.getAccountSummary("Leer");
+        assertEquals(new TransactionTotals(0, 0, 0), empty.totals());
+        assertEquals(0, empty.min());
+        assertTrue(empty.months().isEmpty());
+        assertThrows(AccountDoesNotExistException.class, () -> bank.getAccountSummary("Niemand"));
+    }
+
+    @Test
+    void testAllBalancesAndTotalAssets() throws Exception {
+        double expectedTotal = 0;
+        for (int a = 0; a < 600; a++) {
+            String account = "Konto" + a;
+            bank.createAccount(account, List.of(new Payment("01.01.2025", a - 300, "Start", 0, 0),
+                    new IncomingTransfer("02.01.2025", a + 1, "Geschenk", "Bob", account)));
+            expectedTotal += bank.getAccountBalance(account);
+        }
+        // ein großes Konto, dessen Kontostand nach der Neubewertung parallel neu summiert wird
+        List<Transaction> large = new ArrayList<>();
+        for (int i = 0; i < 70_000; i++) large.add(new Payment("03.01.2025", i % 2 == 0 ? 0.1 : -0.07, "P" + i, 0, 0));
+        bank.createAccount("Gross", large);
+        bank.setIncomingInterest(0.2);
+        bank.repricePayments(false);
+        double largeBalance = bank.getTransactions("Gross").stream().mapToDouble(Transaction::calculate).sum();
+        expectedTotal = 0;
+        for (String account : bank.getAllAccounts())
+            expectedTotal += bank.getTransactions(account).stream().mapToDouble(Transaction::calculate).sum();
+
+        java.util.Map<String, Double> balances = bank.getAllBalances();
+        assertEquals(601, balances.size());
+        assertEquals(largeBalance, balances.get("Gross"), 1e-6);
+        for (String account : bank.getAllAccounts()) {
+            assertEquals(bank.getAccountBalance(account), balances.get(account), 1e-9);
+        }
+        assertEquals(expectedTotal, bank.getTotalAssets(), 1e-6);
+        assertThrows(UnsupportedOperationException.class, () -> balances.put("X", 1.0));
+    }
+
+    @Test
+    void testAllBalancesLoadsAndEvictsLazyAccounts() throws Exception {
+        double expectedTotal = 0;
+        for (int a = 0; a < 600; a++) {
+            bank.createAccount("Konto" + a, List.of(new Payment("01.01.2025", a, "Start", 0, 0)));
+            expectedTotal += bank.getAccountBalance("Konto" + a);
+        }
+
+        BankOptions options = new BankOptions();
+        options.setLazyLoading(true);
+        options.setMaxResidentAccounts(50);
+        PrivateBank lazy = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR, options);
+
+        java.util.Map<String, Double> balances = lazy.getAllBalances();
+        assertEquals(600, balances.size());
+        assertEquals(bank.getAccountBalance("Konto599"), balances.get("Konto599"), 1e-9);
+        assertEquals(expectedTotal, lazy.getTotalAssets(), 1e-6);
+
+        AccountCacheStatistics stats = lazy.getCacheStatistics();
+        assertTrue(stats.residentAccounts() <= 50, stats.toString());
+        assertTrue(stats.evictions() > 0, stats.toString());
+    }
+
+    @Test
+    void testRepricePaymentsKeepsFilesAndUpdatesBalances() throws Exception {
+        bank.createAccount("Eva");
+        bank.addTransaction("Eva", new Payment("01.01.2025", 100, "Einzahlung", 0, 0));
+        bank.addTransaction("Eva", new Payment("02.01.2025", -100, "Auszahlung", 0, 0));
+        assertEquals(-5, bank.getAccountBalance("Eva"), 1e-9);
+
+        // neue Version: bestehende Payments behalten ihre Zinssätze
+        bank.setIncomingInterest(0.2);
+        bank.addTransaction("Eva", new Payment("03.01.2025", 100, "Einzahlung neu", 0, 0));
+        assertEquals(115, bank.getAccountBalance("Eva"), 1e-9);
+        assertEquals(2, bank.getInterestRateVersions().size());
+        assertTrue(bank.getInterestRateVersions().get(1).current());
+
+        Path file = Paths.get(TEST_DIR, "Konto_Eva.json");
+        byte[] before = Files.readAllBytes(file);
+        assertEquals(1, bank.repricePayments(true));
+        assertArrayEquals(before, Files.readAllBytes(file));
+
+        // 100 * 1.2 - 100 * 1.1 + 100 * 1.2
+        assertEquals(130, bank.getAccountBalance("Eva"), 1e-9);
+        Payment first = (Payment) bank.getTransactions("Eva").get(0);
+        assertEquals(0.05, first.getIncomingInterest());
+        assertEquals(1, first.getRateVersion());
+        assertEquals(120, first.calculate(), 1e-9);
+        assertEquals(120, bank.getTransactionsSorted("Eva", false).get(0).calculate(), 1e-9);
+        assertEquals(0, bank.repricePayments(true));
+
+        // die Neubewertung steht in der Zinstabelle und gilt nach dem Neuladen, auch spaltenweise
+        bank.close();
+        BankOptions columnar = new BankOptions();
+        columnar.setColumnarStorage(true);
+        assertEquals(130, new PrivateBank("TestBank", 0.2, 0.1, TEST_DIR).getAccountBalance("Eva"), 1e-9);
+        assertEquals(130, new PrivateBank("TestBank", 0.2, 0.1, TEST_DIR, columnar).getAccountBalance("Eva"), 1e-9);
+    }
+
+    @Test
+    void testTransferRollsBackWhenSecondAccountCannotBeWritten() throws Exception {
+        bank.createAccount("Adam");
+        bank.createAccount("Eva");
+        // ein Verzeichnis anstelle der temporären Datei lässt das Schreiben von Eva scheitern
+        Path blocked = Paths.get(TEST_DIR, "Konto_Eva.json.tmp");
+        Files.createDirectory(blocked);
+
+        assertThrows(IOException.class, () -> bank.transfer("Adam", "Eva", 50, "01.01.2025", "Miete"));
+        assertTrue(bank.getTransactions("Adam").isEmpty());
+        assertTrue(bank.getTransactions("Eva").isEmpty());
+
+        // Adam ist zurückgenommen, das Protokoll bucht beim nächsten Start nichts nach
+        Files.delete(blocked);
+        PrivateBank reloaded = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR);
+        assertEquals(0, reloaded.getAccountBalance("Adam"));
+        assertEquals(0, reloaded.getAccountBalance("Eva"));
+
+        bank.transfer("Adam", "Eva", 50, "01.01.2025", "Miete");
+        assertEquals(-50, bank.getAccountBalance("Adam"));
+        assertEquals(50, bank.getAccountBalance("Eva"));
+    }
+
+    @Test
+    void testSetInterestSwitchesVersionsWithoutRepricing() throws Exception {
+        bank.createAccount("Eva");
+        bank.addTransaction("Eva", new Payment("01.01.2025", 100, "Einzahlung", 0, 0));
+
+        // ein Paar ergibt genau eine neue Version, ohne Zwischenversion
+        bank.setInterest(0.2, 0.3);
+        assertEquals(2, bank.getInterestRateVersions().size());
+        assertEquals(1, bank.repricePayments(false));
+        assertEquals(120, bank.getAccountBalance("Eva"), 1e-9);
+
+        // das neu bewertete Paar erneut setzen: neue Version, die alte bleibt neu bewertet
+        bank.setInterest(0.05, 0.1);
+        assertEquals(120, bank.getAccountBalance("Eva"), 1e-9);
+        List<InterestRateVersion> versions = bank.getInterestRateVersions();
+        assertEquals(3, versions.size());
+        assertFalse(versions.get(0).current());
+        assertEquals(0.2, versions.get(0).effectiveIncomingInterest());
+        assertTrue(versions.get(2).current());
+        assertEquals(0.05, versions.get(2).effectiveIncomingInterest());
+
+        // ein nicht neu bewertetes Paar wird wiederverwendet
+        bank.setInterest(0.05, 0.1);
+        assertEquals(3, bank.getInterestRateVersions().size());
+
+        assertThrows(TransactionAttributeException.class, () -> bank.setInterest(0.1, 2));
+        assertEquals(0.05, bank.getIncomingInterest());
+    }
+
+    @Test
+    void testPaymentAfterSwitchingBackUsesStatedRate() throws Exception {
+        bank.createAccount("Eva");
+        bank.addTransaction("Eva", new Payment("01.01.2025", 100, "Alt", 0, 0));
+        bank.setIncomingInterest(0.2);
+        bank.repricePayments(false);
+        bank.setInterest(0.05, 0.1);
+
+        Payment payment = new Payment("02.01.2025", 100, "Neu", 0, 0);
+        bank.addTransaction("Eva", payment);
+        assertEquals(105, payment.calculate(), 1e-9);
+        assertEquals(225, bank.getAccountBalance("Eva"), 1e-9);
+
+        // nach dem Neuladen gehören beide Payments trotz gleicher gebuchter Zinssätze zu ihrer Version
+        bank.close();
+        BankOptions binary = new BankOptions();
+        binary.setStorageFormat(StorageFormat.BINARY);
+        for (BankOptions options : List.of(new BankOptions(), binary)) {
+            if (options == binary) AccountFileConverter.convert(Paths.get(TEST_DIR), StorageFormat.BINARY);
+            PrivateBank reloaded = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR, options);
+            assertEquals(225, reloaded.getAccountBalance("Eva"), 1e-9);
+            List<Transaction> transactions = reloaded.getTransactions("Eva");
+            assertEquals(120, transactions.get(0).calculate(), 1e-9);
+            assertEquals(105, transactions.get(1).calculate(), 1e-9);
+            reloaded.close();
+        }
+    }
+
+    @Test
+    void testTransferBooksBothSidesOrNeither() throws Exception {
+        bank.createAccount("Adam");
+        bank.createAccount("Eva");
+        bank.transfer("Adam", "Eva", 50, "01.01.2025", "Miete");
+
+        assertEquals(List.of(new OutgoingTransfer("01.01.2025", 50, "Miete", "Adam", "Eva")), bank.getTransactions("Adam"));
+        assertEquals(List.of(new IncomingTransfer("01.01.2025", 50, "Miete", "Adam", "Eva")), bank.getTransactions("Eva"));
+        assertEquals(-50, bank.getAccountBalance("Adam"));
+        assertEquals(50, bank.getAccountBalance("Eva"));
+
+        // eine bereits vorhandene Seite verhindert beide Buchungen
+        bank.addTransaction("Eva", new IncomingTransfer("02.01.2025", 10, "Doppelt", "Adam", "Eva"));
+        assertThrows(TransactionAlreadyExistException.class, () -> bank.transfer("Adam", "Eva", 10, "02.01.2025", "Doppelt"));
+        assertEquals(1, bank.getTransactions("Adam").size());
+        assertThrows(TransactionAttributeException.class, () -> bank.transfer("Adam", "Adam", 10, "02.01.2025", "X"));
+        assertThrows(TransactionAttributeException.class, () -> bank.transfer("Adam", "Eva", -1, "02.01.2025", "X"));
+        assertThrows(AccountDoesNotExistException.class, () -> bank.transfer("Adam", "Niemand", 10, "02.01.2025", "X"));
+
+        PrivateBank reloaded = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR);
+        assertEquals(-50, reloaded.getAccountBalance("Adam"));
+        assertEquals(60, reloaded.getAccountBalance("Eva"));
+    }
+
+    @Test
+    void testConcurrentTransfersInBothDirectionsDoNotDeadlock() throws Exception {
+        BankOptions options = new BankOptions();
+        options.setJournaling(true);
+        PrivateBank journaled = new PrivateBank("TestBank", 0, 0, TEST_DIR, options);
+        String[] accounts = {"A", "B", "C", "D", "E", "F"};
+        for (String account : accounts) journaled.createAccount(account);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            int seed = thread;
+            futures.add(pool.submit(() -> {
+                java.util.Random random = new java.util.Random(seed);
+                for (int i = 0; i < 150; i++) {
+                    String from = accounts[random.nextInt(accounts.length)];
+                    String to = accounts[random.nextInt(accounts.length)];
+                    if (from.equals(to)) continue;
+                    journaled.transfer(from, to, 1 + random.nextInt(100), "01.01.2025", "T" + seed + "-" + i);
+                }
+                return null;
+            }));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        for (Future<?> future : futures) future.get();
+
+        int transactions = 0;
+        for (String account : accounts) transactions += journaled.getTransactions(account).size();
+        assertEquals(0, journaled.getTotalAssets(), 1e-9);
+        assertEquals(0, transactions % 2);
+
+        PrivateBank reloaded = new PrivateBank("TestBank", 0, 0, TEST_DIR, options);
+        for (String account : accounts)
+            assertEquals(journaled.getAccountBalance(account), reloaded.getAccountBalance(account), 1e-9);
+    }
+
+    @Test
+    void testTransferRecoveredAfterCrashBetweenAccounts() throws Exception {
+        bank.createAccount("Adam");
+        bank.createAccount("Eva");
+        // Absturz nach dem Schreiben von Adam: festgeschrieben, aber Eva fehlt noch
+        OutgoingTransfer outgoing = new OutgoingTransfer("01.01.2025", 25, "Abbruch", "Adam", "Eva");
+        IncomingTransfer incoming = new IncomingTransfer("01.01.2025", 25, "Abbruch", "Adam", "Eva");
+        bank.addTransaction("Adam", outgoing);
+
+        java.io.StringWriter line = new java.io.StringWriter();
+        com.google.gson.stream.JsonWriter json = new com.google.gson.stream.JsonWriter(line);
+        json.beginObject().name("id").value(1).name("op").value("COMMIT").name("from").value("Adam").name("to").value("Eva");
+        json.name("outgoing");
+        new TransactionSerDer().write(json, outgoing);
+        json.name("incoming");
+        new TransactionSerDer().write(json, incoming);
+        json.endObject().flush();
+        Files.writeString(Paths.get(TEST_DIR, "Transfers.log"), line + "\n");
+
+        PrivateBank recovered = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR);
+        assertEquals(List.of(outgoing), recovered.getTransactions("Adam"));
+        assertEquals(List.of(incoming), recovered.getTransactions("Eva"));
+        assertFalse(Files.exists(Paths.get(TEST_DIR, "Transfers.log")));
+        assertEquals(List.of(incoming), new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR).getTransactions("Eva"));
+    }
+
+    @Test
+    void testRolledBackTransferRemovedAfterCrash() throws Exception {
+        bank.createAccount("Adam");
+        bank.createAccount("Eva");
+        // Absturz, nachdem Adam geschrieben und die Umbuchung zurückgenommen, aber Adam nicht mehr bereinigt war
+        OutgoingTransfer outgoing = new OutgoingTransfer("01.01.2025", 25, "Abbruch", "Adam", "Eva");
+        IncomingTransfer incoming = new IncomingTransfer("01.01.2025", 25, "Abbruch", "Adam", "Eva");
+        bank.addTransaction("Adam", outgoing);
+
+        java.io.StringWriter line = new java.io.StringWriter();
+        com.google.gson.stream.JsonWriter json = new com.google.gson.stream.JsonWriter(line);
+        json.beginObject().name("id").value(1).name("op").value("COMMIT").name("from").value("Adam").name("to").value("Eva");
+        json.name("outgoing");
+        new TransactionSerDer().write(json, outgoing);
+        json.name("incoming");
+        new TransactionSerDer().write(json, incoming);
+        json.endObject().flush();
+        Files.writeString(Paths.get(TEST_DIR, "Transfers.log"), line + "\n{\"id\":1,\"op\":\"ROLLBACK\"}\n");
+
+        PrivateBank recovered = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR);
+        assertTrue(recovered.getTransactions("Adam").isEmpty());
+        assertTrue(recovered.getTransactions("Eva").isEmpty());
+        assertFalse(Files.exists(Paths.get(TEST_DIR, "Transfers.log")));
+        assertTrue(new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR).getTransactions("Adam").isEmpty());
+    }
+
+    @Test
+    void testTransferRollbackWithFailedRemoveIsNeverBooked() throws Exception {
+        bank.createAccount("Adam");
+        bank.createAccount("Eva");
+        // Adams Kontodatei wird geschrieben, das anschließende Leeren seines Journals scheitert
+        // aber jedes Mal, auch beim Zurücknehmen der Umbuchung
+        Path blocked = Paths.get(TEST_DIR, "Konto_Adam.journal");
+        Files.createDirectory(blocked);
+        Files.writeString(blocked.resolve("belegt"), "");
+
+        IOException failure = assertThrows(IOException.class, () -> bank.transfer("Adam", "Eva", 50, "01.01.2025", "Miete"));
+        assertEquals(1, failure.getSuppressed().length);
+        assertTrue(bank.getTransactions("Adam").isEmpty());
+        assertTrue(bank.getTransactions("Eva").isEmpty());
+        assertTrue(Files.readString(Paths.get(TEST_DIR, "Transfers.log")).contains("\"ROLLBACK\""));
+
+        // die erneut gebuchte Umbuchung hebt die offene Rücknahme auf, auch nach dem Neustart
+        Files.delete(blocked.resolve("belegt"));
+        Files.delete(blocked);
+        bank.transfer("Adam", "Eva", 50, "01.01.2025", "Miete");
+        bank.close();
+        PrivateBank reloaded = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR);
+        assertEquals(-50, reloaded.getAccountBalance("Adam"));
+        assertEquals(50, reloaded.getAccountBalance("Eva"));
+    }
+
+    @Test
+    void testStringPoolSharesRepeatedStrings() throws Exception {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 50; i++)
+            transactions.add(new OutgoingTransfer("01.01.2025", i + 1, new String("Miete"), "Adam", new String("Vermieter")));
+        bank.createAccount("Adam", transactions);
+        bank.createAccount("Eva", List.of(new OutgoingTransfer("02.01.2025", 1, "Miete", "Eva", "Vermieter")));
+
+        PrivateBank reloaded = new PrivateBank("TestBank", 0.05, 0.1, TEST_DIR);
+        List<Transaction> adam = reloaded.getTransactions("Adam");
+        Transaction eva = reloaded.getTransactions("Eva").get(0);
+        for (Transaction t : adam) {
+            assertSame(eva.getDescription(), t.getDescription());
+            assertSame(((Transfer) eva).getRecipient(), ((Transfer) t).getRecipient());
+        }
+
+        StringPoolStatistics stats = reloaded.getStringPoolStatistics();
+        assertEquals(51 * 4, stats.totalStrings());
+        assertTrue(stats.uniqueStrings() <= 6, stats.toString());
+    }
+
+    @Test
+    void testTransactionsBetweenAndBalanceAsOf() throws Exception {
+        Payment jan = new Payment("15.01.2025", 1000.0, "Lohn", 0, 0);
+        Payment feb = new Payment("2025-02-01", -300.0, "Miete", 0, 0);
+        Payment febLate = new Payment("28.02.2025", -50.0, "Strom", 0, 0);
+        Payment mar = new Payment("01.03.2025", 200.0, "Bonus", 0, 0);
+        Payment undated = new Payment("irgendwann", 5.0, "Fund", 0, 0);
+        PrivateBank plain = new PrivateBank("TestBank", 0, 0, TEST_DIR);
+        plain.createAccount("Adam", List.of(mar, jan, undated, feb));
+
+        assertEquals(List.of(jan, feb, mar), plain.getTransactionsBetween("Adam",
+                java.time.LocalDate.of(2025, 1, 1), java.time.LocalDate.of(2025, 12, 31)));
+        assertEquals(List.of(feb), plain.getTransactionsBetween("Adam",
+                java.time.LocalDate.of(2025, 2, 1), java.time.LocalDate.of(2025, 2, 28)));
+        assertEquals(1000.0, plain.getBalanceAsOf("Adam", java.time.LocalDate.of(2025, 1, 31)), 1e-9);
+
+        // wird am Ende angehängt, danach außer der Reihe eingefügt und wieder entfernt
+        plain.addTransaction("Adam", new Payment("01.04.2025", 10.0, "Zinsen", 0, 0));
+        plain.addTransaction("Adam", febLate);
+        assertEquals(650.0, plain.getBalanceAsOf("Adam", java.time.LocalDate.of(2025, 2, 28)), 1e-9);
+        plain.removeTransaction("Adam", feb);
+        assertEquals(950.0, plain.getBalanceAsOf("Adam", java.time.LocalDate.of(2025, 2, 28)), 1e-9);
+        assertEquals(1160.0, plain.getBalanceAsOf("Adam", java.time.LocalDate.of(2025, 4, 1)), 1e-9);
+        assertEquals(0.0, plain.getBalanceAsOf("Adam", java.time.LocalDate.of(2024, 12, 31)), 1e-9);
+        assertThrows(AccountDoesNotExistException.class,
+                () -> plain.getBalanceAsOf("Eva", java.time.LocalDate.of(2025, 1, 1)));
+
+        BankOptions columnar = new BankOptions();
+        columnar.setColumnarStorage(true);
+        PrivateBank columnarBank = new PrivateBank("TestBank", 0, 0, TEST_DIR, columnar);
+        assertEquals(plain.getTransactionsBetween("Adam", java.time.LocalDate.MIN, java.time.LocalDate.MAX),
+                columnarBank.getTransactionsBetween("Adam", java.time.LocalDate.MIN, java.time.LocalDate.MAX));
+        assertEquals(java.time.LocalDate.of(2025, 2, 1), feb.getLocalDate());
+        assertNull(undated.getLocalDate());
+    }
+
+    @Test
+    void testMetricsCountOperationsAndBytes() throws Exception {
+        BankOptions options = new BankOptions();
+        options.setJournaling(true);
+        PrivateBank journaled = new PrivateBank("TestBank", 0, 0, TEST_DIR, options);
+        journaled.createAccount("Adam");
+        Payment payment = new Payment("01.01.2025", 100.0, "Gehalt", 0, 0);
+        journaled.addTransaction("Adam", payment);
+        assertThrows(TransactionAlreadyExistException.class, () -> journaled.addTransaction("Adam", payment));
+        journaled.removeTransaction("Adam", payment);
+
+        BankMetricsSnapshot metrics = journaled.getMetrics();
+        OperationStatistics add = metrics.operations().get(BankOperation.ADD_TRANSACTION);
+        assertEquals(2, add.count());
+        assertEquals(1, add.errors());
+        assertTrue(add.p50Nanos() > 0 && add.p50Nanos() <= add.p99Nanos() && add.p99Nanos() <= add.maxNanos());
+        assertEquals(1, metrics.operations().get(BankOperation.REMOVE_TRANSACTION).count());
+        assertEquals(2, metrics.operations().get(BankOperation.APPEND_JOURNAL).count());
+        // leerer Snapshot beim Anlegen plus zwei Journal-Anhänge
+        assertEquals(1, metrics.operations().get(BankOperation.WRITE_ACCOUNT).count());
+        assertEquals(3, metrics.filesWritten());
+        long fileBytes = Files.size(Paths.get(TEST_DIR, "Konto_Adam.json"))
+                + Files.size(Paths.get(TEST_DIR, "Konto_Adam.journal"));
+        assertEquals(fileBytes, metrics.bytesWritten());
+        assertEquals(2, metrics.accountFiles());
+        assertEquals(0, metrics.accounts().get("Adam").transactions());
+
+        PrivateBank reloaded = new PrivateBank("TestBank", 0, 0, TEST_DIR);
+        BankMetricsSnapshot loaded = reloaded.getMetrics();
+        assertEquals(1, loaded.operations().get(BankOperation.READ_ACCOUNTS).count());
+        assertEquals(1, loaded.operations().get(BankOperation.READ_ACCOUNT).count());
+        assertEquals(fileBytes, loaded.bytesRead());
+        assertEquals(2, loaded.filesRead());
+
+        com.google.gson.JsonObject json = com.google.gson.JsonParser.parseString(metrics.toJson()).getAsJsonObject();
+        assertEquals(2, json.getAsJsonObject("operations").getAsJsonObject("ADD_TRANSACTION").get("count").getAsLong());
+        assertTrue(metrics.format(MetricsFormat.TEXT).contains("ADD_TRANSACTION"));
+        journaled.close();
+    }
+
+    @Test
+    void testFlightRecorderEvents() throws Exception {
+        Path file = Files.createTempFile("privatebank", ".jfr");
+        Payment salary = new Payment("01.01.2025", 100.0, "Gehalt", 0, 0);
+        try (jdk.jfr.Recording recording = new jdk.jfr.Recording()) {
+            for (String name : List.of("bank.AccountLoad", "bank.AccountWrite", "bank.DuplicateCheck", "bank.Sort", "bank.Balance"))
+                recording.enable(name).withoutThreshold();
+            recording.start();
+
+            bank.createAccount("Adam", List.of(salary, new Payment("02.01.2025", -40.0, "Miete", 0, 0)));
+            assertThrows(TransactionAlreadyExistException.class, () -> bank.addTransaction("Adam", salary));
+            bank.getTransactionsSorted("Adam", false, 0, 1);
+            bank.getAccountBalance("Adam");
+            new PrivateBank("TestBank", 0, 0, TEST_DIR);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        java.util.Map<String, List<jdk.jfr.consumer.RecordedEvent>> events = new java.util.HashMap<>();
+        for (jdk.jfr.consumer.RecordedEvent event : jdk.jfr.consumer.RecordingFile.readAllEvents(file))
+            events.computeIfAbsent(event.getEventType().getName(), k -> new ArrayList<>()).add(event);
+        Files.delete(file);
+
+        jdk.jfr.consumer.RecordedEvent load = events.get("bank.AccountLoad").get(0);
+        assertEquals("Adam", load.getString("account"));
+        assertEquals(2, load.getInt("transactions"));
+        assertEquals(Files.size(Paths.get(TEST_DIR, "Konto_Adam.json")), load.getLong("bytes"));
+
+        List<jdk.jfr.consumer.RecordedEvent> writes = events.get("bank.AccountWrite");
+        jdk.jfr.consumer.RecordedEvent write = writes.get(writes.size() - 1);
+        assertEquals(2, write.getInt("transactions"));
+        assertEquals(load.getLong("bytes"), write.getLong("bytes"));
+        assertFalse(write.getBoolean("journal"));
+
+        List<jdk.jfr.consumer.RecordedEvent> checks = events.get("bank.DuplicateCheck");
+        assertEquals(2, checks.size());
+        assertEquals(List.of(2, 1), checks.stream().map(e -> e.getInt("checked")).toList());
+        assertEquals(List.of(0, 1), checks.stream().map(e -> e.getInt("duplicates")).toList());
+
+        jdk.jfr.consumer.RecordedEvent sort = events.get("bank.Sort").get(0);
+        assertFalse(sort.getBoolean("ascending"));
+        assertEquals(1, sort.getInt("returned"));
+        assertEquals(2, sort.getInt("transactions"));
+
+        jdk.jfr.consumer.RecordedEvent balance = events.get("bank.Balance").get(0);
+        assertEquals("Adam", balance.getString("account"));
+        assertTrue(balance.getLong("bytes") > 0);
+    }
 }
@@ -0,0 +1,70 @@
+import bank.*;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionSerDerTest {
+
+    private Gson gson;
+
+    @BeforeEach
+    void init() {
+        gson = new GsonBuilder()
+                .registerTypeAdapter(Transaction.class, new TransactionSerDer())
+                .setPrettyPrinting()
+                .create();
+    }
+
+    @Test
+    void testRoundTripAllTypes() {
+        Transaction[] original = {
+                new Payment("01.01.2025", 1000.0, "Lohn", 0.05, 0.1),
+                new IncomingTransfer("02.01.2025", 200.0, "Geschenk", "Bob", "Adam"),
+                new OutgoingTransfer("03.01.2025", 50.0, "Miete", "Adam", "Vermieter"),
+                new Transfer("04.01.2025", 10.0, "Rest", "Adam", "Bob")
+        };
+
+        Transaction[] parsed = gson.fromJson(gson.toJson(original, Transaction[].class), Transaction[].class);
+
+        assertArrayEquals(original, parsed);
+        for (int i = 0; i < original.length; i++) {
+            assertEquals(original[i].getClass(), parsed[i].getClass());
+        }
+    }
+
+    @Test
+    void testFormatCompatibleWithExistingFiles() throws Exception {
+        String json = Files.readString(Paths.get("data_json_test", "Konto_Adam.json"));
+
+        Transaction[] parsed = gson.fromJson(json, Transaction[].class);
+
+        assertTrue(parsed.length > 0);
+        assertEquals(json, gson.toJson(parsed, Transaction[].class));
+    }
+
+    @Test
+    void testFieldOrderIsIrrelevantAndUnknownFieldsAreSkipped() {
+        String json = "{\"amount\":5.0,\"extra\":[1,2],\"description\":\"x\",\"date\":\"1\","
+                + "\"recipient\":\"B\",\"sender\":\"A\",\"CLASSNAME\":\"OutgoingTransfer\"}";
+
+        Transaction parsed = gson.fromJson(json, Transaction.class);
+
+        assertEquals(new OutgoingTransfer("1", 5.0, "x", "A", "B"), parsed);
+        assertEquals(-5.0, parsed.calculate(), 0.0001);
+    }
+
+    @Test
+    void testMissingOrUnknownTypeIsRejected() {
+        assertThrows(JsonParseException.class,
+                () -> gson.fromJson("{\"CLASSNAME\":\"Payment\",\"date\":\"1\",\"amount\":1.0,\"description\":\"x\"}", Transaction.class));
+        assertThrows(JsonParseException.class,
+                () -> gson.fromJson("{\"CLASSNAME\":\"Kredit\",\"date\":\"1\",\"amount\":1.0,\"description\":\"x\"}", Transaction.class));
+    }
+}
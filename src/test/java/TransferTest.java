@@ -61,4 +61,11 @@ class TransferTest {
         assertNotEquals(t1, other);
         assertNotNull(t1.toString());
     }
+    @Test
+    void testHashCodeConsistentWithEquals() {
+        assertEquals(t1.hashCode(), tCopy.hashCode());
+        IncomingTransfer sameAsT1 = new IncomingTransfer(t1);
+        assertEquals(t1, sameAsT1);
+        assertEquals(t1.hashCode(), sameAsT1.hashCode());
+    }
 }